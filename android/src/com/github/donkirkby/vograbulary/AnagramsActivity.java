@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Random;
 
 import android.graphics.Rect;
 import android.os.Bundle;
@@ -13,12 +14,19 @@ import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.TextView;
 
+import com.github.donkirkby.vograbulary.anagrams.AnagramsDeckGenerator;
 import com.github.donkirkby.vograbulary.anagrams.AnagramsGameModel;
 import com.github.donkirkby.vograbulary.anagrams.AnagramsPlayer;
 import com.github.donkirkby.vograbulary.anagrams.InvalidWordException;
+import com.github.donkirkby.vograbulary.anagrams.MoveResult;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
 
 public class AnagramsActivity extends VograbularyActivity {
     private static final double TILE_IN_WORD_SCALE_FACTOR = 0.6;
+    private static final int DECK_REVEAL_COUNT = 8;
+    private static final int DECK_TARGET_WORD_COUNT = 20;
+    private static final int DECK_CANDIDATE_COUNT = 1000;
+    private static final int DECK_CHECK_MILLISECONDS = 100;
 //  private static final float MIN_DRAG_ROTATION = -8f; // degrees
 //  private static final float MAX_DRAG_ROTATION = 8f;
 //  private static final int ANIMATION_DURATION = 400; // milliseconds
@@ -29,6 +37,8 @@ public class AnagramsActivity extends VograbularyActivity {
 //
 
     private AnagramsGameModel mGameModel;
+    private AndroidScheduler scheduler = new AndroidScheduler();
+    private Runnable mDeckTask;
 //
     private List<LetterDisplay> mUnclaimed = new ArrayList<>();
     private List<LetterDisplay> mActiveWord = new ArrayList<>();
@@ -134,23 +144,45 @@ public class AnagramsActivity extends VograbularyActivity {
         letterDisplayFactory = new AndroidLetterDisplayFactory(rootLayout);
 
         mGameModel = new AnagramsGameModel();
-        mGameModel.setWordList(loadWordList());
-        String letterSource = 
-                "AAAAAAAAAAAAAAAABBBBCCCCDDDDDDDDEEEEEEEEEEEEEEEEEEEEEEFFFF" +
-                "GGGGGGHHHHHHIIIIIIIIIIIIIIJJKKLLLLLLLLMMMMNNNNNNNNNN" +
-                "OOOOOOOOOOOOOOPPPPQQRRRRRRRRRRRRSSSSSSSSTTTTTTTTTTUUUUUUUU" +
-                "VVWWXXYYYYZZ";
-        char[] letters = letterSource.toCharArray();
-        // shuffle
-        for (int i = letters.length - 1; i > 0; i--) {
-            // int from remainder of deck
-            int r = (int) (Math.random() * (i + 1));
-            char swap = letters[r];
-            letters[r] = letters[i];
-            letters[i] = swap;
-        }
+        final WordList wordList = loadWordList();
+        mGameModel.setWordList(wordList);
+        // Choosing a deck scores every word, so wait for the rest of the
+        // word list to load, and do it off the UI thread.
+        mDeckTask = new Runnable() {
+            @Override
+            public void run() {
+                if ( ! getCorpus().isWordListComplete()) {
+                    return;
+                }
+                scheduler.cancel(this);
+                AnagramsDeckGenerator deckGenerator =
+                        new AnagramsDeckGenerator(wordList, new Random());
+                final String deck = deckGenerator.generate(
+                        DECK_REVEAL_COUNT,
+                        DECK_TARGET_WORD_COUNT,
+                        DECK_CANDIDATE_COUNT);
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        startGame(deck);
+                    }
+                });
+            }
+        };
+        scheduler.scheduleRepeating(mDeckTask, DECK_CHECK_MILLISECONDS);
+    }
+    
+    @Override
+    protected void onDestroy() {
+        scheduler.cancel(mDeckTask);
+        super.onDestroy();
+    }
 
-        mGameModel.setDeck(new String(letters));
+    private void startGame(String deck) {
+        if (isFinishing()) {
+            return;
+        }
+        mGameModel.setDeck(deck);
         mGameModel.addPlayer(new AnagramsPlayer());
         mGameModel.addPlayer(new AnagramsPlayer());
         final List<AnagramsPlayer> players = mGameModel.getPlayers();
@@ -558,16 +590,17 @@ public class AnagramsActivity extends VograbularyActivity {
     }
 
     private void submitWord() {
-
+        String oldWord =
+                mCapturedWord == null ? null : buildWord(mCapturedWord);
+        String newWord = buildWord(mActiveWord);
         try {
-            if (mCapturedWord != null) {
-                mGameModel.changeWord(buildWord(mCapturedWord),
-                        buildWord(mActiveWord), mActivePlayer);
+            if (oldWord != null) {
+                mGameModel.changeWord(oldWord, newWord, mActivePlayer);
                 for (AnagramsPlayer player : mGameModel.getPlayers()) {
                     mPlayerWords.get(player).remove(mCapturedWord);
                 }
             } else {
-                mGameModel.makeWord(buildWord(mActiveWord), mActivePlayer);
+                mGameModel.makeWord(newWord, mActivePlayer);
             }
             mPlayerWords.get(mActivePlayer).add(mActiveWord);
 
@@ -585,7 +618,18 @@ public class AnagramsActivity extends VograbularyActivity {
             layoutBoard();
 
         } catch (InvalidWordException ex) {
-            mMessage.setText(ex.getMessage());
+            String message = ex.getMessage();
+            MoveResult result = oldWord == null
+                    ? mGameModel.checkMakeWord(newWord)
+                    : mGameModel.checkChangeWord(oldWord, newWord);
+            if (result == MoveResult.NOT_A_WORD) {
+                List<String> suggestions =
+                        mGameModel.suggestWords(oldWord, newWord, 1);
+                if ( ! suggestions.isEmpty()) {
+                    message += " Did you mean " + suggestions.get(0) + "?";
+                }
+            }
+            mMessage.setText(message);
         }
 
     }
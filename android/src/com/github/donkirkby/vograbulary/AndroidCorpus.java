@@ -0,0 +1,55 @@
+package com.github.donkirkby.vograbulary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+
+public class AndroidCorpus extends Corpus {
+    private static AndroidCorpus instance;
+    
+    private AssetManager assets;
+    
+    private AndroidCorpus(Context context) {
+        assets = context.getApplicationContext().getAssets();
+        setScheduler(new AndroidScheduler());
+    }
+    
+    /**
+     * Get the corpus that is shared by all activities in this process.
+     * @param context any context from the application, such as an Activity.
+     */
+    public static synchronized AndroidCorpus getInstance(Context context) {
+        if (instance == null) {
+            instance = new AndroidCorpus(context);
+        }
+        return instance;
+    }
+
+    @Override
+    protected List<String> loadTextAsset(String assetName) {
+        ArrayList<String> lines = new ArrayList<String>();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    assets.open(assetName)));
+            try {
+                String line;
+                while (null != (line = reader.readLine())) {
+                    lines.add(line);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            lines.clear();
+            if ( ! assetName.equals(WORD_LIST_ASSET)) {
+                lines.add("Failed to open file. " + e.getMessage());
+            }
+        }
+        return lines;
+    }
+}
@@ -7,6 +7,8 @@ import java.util.TimerTask;
 
 public class AndroidScheduler implements Scheduler {
     private Timer timer;
+    // Tasks cancel themselves from the timer thread, and screens cancel them
+    // from the UI thread, so access is synchronized.
     private Map<Runnable, TimerTask> timerTasks = new HashMap<>();
     
     public AndroidScheduler() {
@@ -15,7 +17,9 @@ public class AndroidScheduler implements Scheduler {
     }
 
     @Override
-    public void scheduleRepeating(final Runnable task, int periodMilliseconds) {
+    public synchronized void scheduleRepeating(
+            final Runnable task,
+            int periodMilliseconds) {
         TimerTask timerTask = new TimerTask() {
             @Override
             public void run() {
@@ -30,7 +34,7 @@ public class AndroidScheduler implements Scheduler {
     }
 
     @Override
-    public void cancel(Runnable task) {
+    public synchronized void cancel(Runnable task) {
         TimerTask timerTask = timerTasks.remove(task);
         if (timerTask != null) {
             timerTask.cancel();
@@ -1,8 +1,6 @@
 package com.github.donkirkby.vograbulary;
 
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import android.animation.Animator;
@@ -93,17 +91,10 @@ extends VograbularyActivity implements BacronymsScreen {
         stateText = (TextView)findViewById(R.id.stateText);
         nextButton = (Button)findViewById(R.id.nextButton);
 
-        List<String> puzzleLines;
-        try {
-            puzzleLines = loadTextAsset("bacronyms.txt");
-        } catch (IOException e) {
-            puzzleLines = Arrays.asList(
-                    "Failed to open file. " + e.getMessage());
-        }
         WordList wordList = loadWordList();
         controller.setScreen(this);
         controller.setWordList(wordList);
-        controller.loadPuzzles(puzzleLines);
+        controller.loadPuzzles(getCorpus().getBacronyms());
         
         nextButton.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -1,10 +1,5 @@
 package com.github.donkirkby.vograbulary;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 import android.os.Bundle;
 import android.view.MotionEvent;
 import android.view.View;
@@ -61,21 +56,10 @@ extends VograbularyActivity implements RussianDollsScreen {
                 russianDollsLayout);
         targetDisplay1.setOther(targetDisplay2);
         
-        List<String> puzzleSource;
-        List<String> wordSource;
-        try {
-            puzzleSource = loadTextAsset("russianDolls.txt");
-            wordSource = loadTextAsset("wordlist.txt");
-        } catch (IOException e) {
-            puzzleSource = Arrays.asList(
-                    "Failed to open file. " + e.getMessage());
-            wordSource = new ArrayList<String>();
-        }
-        WordList wordList = new WordList();
-        wordList.read(wordSource);
+        WordList wordList = loadWordList();
         controller.setScreen(this);
         controller.setWordList(wordList);
-        controller.loadPuzzles(puzzleSource);
+        controller.loadPuzzles(getCorpus().getRussianDolls());
         
         targetDisplay1.setDragVisible(false);
         targetDisplay2.setDragVisible(false);
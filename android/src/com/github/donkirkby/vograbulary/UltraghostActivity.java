@@ -1,7 +1,9 @@
 package com.github.donkirkby.vograbulary;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import android.content.Intent;
 import android.graphics.Paint;
@@ -22,6 +24,7 @@ import android.widget.TextView;
 import com.github.donkirkby.vograbulary.ultraghost.ComputerStudent;
 import com.github.donkirkby.vograbulary.ultraghost.Controller;
 import com.github.donkirkby.vograbulary.ultraghost.Match;
+import com.github.donkirkby.vograbulary.ultraghost.MatchSnapshot;
 import com.github.donkirkby.vograbulary.ultraghost.Puzzle;
 import com.github.donkirkby.vograbulary.ultraghost.Student;
 import com.github.donkirkby.vograbulary.ultraghost.Student.StudentListener;
@@ -50,6 +53,7 @@ extends VograbularyActivity implements UltraghostScreen, StudentListener {
     private List<Button> focusButtons;
     
     private Match match;
+    private WordList wordList;
     private Controller controller;
     private Handler handler;
     private ViewGroup ultraghostLayout;
@@ -170,7 +174,7 @@ extends VograbularyActivity implements UltraghostScreen, StudentListener {
         controller.setRandom(new UltraghostRandom());
         controller.setScheduler(new AndroidScheduler());
         controller.setScreen(this);
-        WordList wordList = loadWordList();
+        wordList = loadWordList();
         if (studentNames.length < 2) {
             ComputerStudent computerStudent = new ComputerStudent(preferences);
             computerStudent.setWordList(wordList);
@@ -196,7 +200,7 @@ extends VograbularyActivity implements UltraghostScreen, StudentListener {
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
-        outState.putSerializable("match", match);
+        outState.putByteArray("match", MatchSnapshot.save(match));
     }
     
     @Override
@@ -210,50 +214,61 @@ extends VograbularyActivity implements UltraghostScreen, StudentListener {
             controller.start();
         }
         else {
-            Match savedMatch = (Match) savedInstanceState.getSerializable("match");
-            controller.clearStudents();
-            for (Student student : savedMatch.getStudents()) {
-                controller.addStudent(student);
-                student.setListener(this);
-            }
-            match = savedMatch;
-            controller.restart();
+            Match savedMatch = MatchSnapshot.restore(
+                    savedInstanceState.getByteArray("match"),
+                    wordList);
+            controller.resumeMatch(savedMatch);
         }
     }
 
     @Override
     public void refreshPuzzle() {
+        refreshPuzzle(EnumSet.allOf(Puzzle.Field.class));
+    }
+
+    @Override
+    public void refreshPuzzle(final Set<Puzzle.Field> changedFields) {
         runOnUiThread(new Runnable() {
             @Override
             public void run() {
                 Puzzle puzzle = match.getPuzzle();
-                Student winner = match.getWinner();
-                if (winner != null) {
-                    String resultText = winner.getName() + " win";
-                    if (winner.getName() != "You") {
-                        resultText += "s";
+                if (changedFields.contains(Puzzle.Field.COMPLETED)) {
+                    Student winner = match.getWinner();
+                    if (winner != null) {
+                        String resultText = winner.getName() + " win";
+                        if (winner.getName() != "You") {
+                            resultText += "s";
+                        }
+                        ownerName.setText(resultText);
+                        focusButton(null);
                     }
-                    ownerName.setText(resultText);
-                    focusButton(null);
+                    else {
+                        ownerName.setText(puzzle.getOwner().getName());
+                    }
+                    String letterText = puzzle.getLetters();
+                    if (puzzle.getPreviousWord() != null) {
+                        letterText = letterText + " after " +
+                                puzzle.getPreviousWord();
+                    }
+                    letters.setText(letterText);
+                    summary.setText(match.getSummary());
+                }
+                if (changedFields.contains(Puzzle.Field.SOLUTION)) {
+                    solution.setText(puzzle.getSolution());
+                }
+                if (changedFields.contains(Puzzle.Field.RESPONSE)) {
+                    response.setText(puzzle.getResponse());
                 }
-                else {
-                    ownerName.setText(puzzle.getOwner().getName());
+                if (changedFields.contains(Puzzle.Field.HINT)) {
+                    hint.setText(puzzle.getHint());
                 }
-                String letterText = puzzle.getLetters();
-                if (puzzle.getPreviousWord() != null) {
-                    letterText = letterText + " after " +
-                            puzzle.getPreviousWord();
+                if (changedFields.contains(Puzzle.Field.PAUSED)) {
+                    pauseButton.setText(getResources().getString(
+                            puzzle.isPaused()
+                            ? R.string.resume
+                            : R.string.pause));
                 }
-                letters.setText(letterText);
-                solution.setText(puzzle.getSolution());
-                response.setText(puzzle.getResponse());
-                hint.setText(puzzle.getHint());
                 result.setText(puzzle.getResultDisplay());
-                summary.setText(match.getSummary());
-                pauseButton.setText(getResources().getString(
-                        puzzle.isPaused()
-                        ? R.string.resume
-                        : R.string.pause));
             }
         });
     }
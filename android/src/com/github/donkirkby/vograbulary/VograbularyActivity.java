@@ -1,40 +1,49 @@
 package com.github.donkirkby.vograbulary;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
-
 import com.github.donkirkby.vograbulary.ultraghost.WordList;
 
 import android.app.Activity;
 
 public class VograbularyActivity extends Activity {
-    protected ArrayList<String> loadTextAsset(String assetName) throws IOException {
-        ArrayList<String> lines = new ArrayList<String>();
-        BufferedReader reader =new BufferedReader(new InputStreamReader(
-                getAssets().open(assetName)));
-        try {
-            String line;
-            while (null != (line = reader.readLine())) {
-                lines.add(line);
-            }
-        } finally {
-            reader.close();
-        }
-        return lines;
+    private boolean isWordListAcquired;
+    
+    /** Get the text assets that are shared by all activities. */
+    protected Corpus getCorpus() {
+        return AndroidCorpus.getInstance(this);
     }
 
+    /**
+     * Get the word list that is shared by all activities. It will be released
+     * when this activity is destroyed.
+     */
     protected WordList loadWordList() {
-        List<String> wordSource;
-        try {
-            wordSource = loadTextAsset("wordlist.txt");
-        } catch (IOException e) {
-            wordSource = new ArrayList<String>();
+        if (isWordListAcquired) {
+            return getCorpus().getWordList();
+        }
+        isWordListAcquired = true;
+        return getCorpus().acquireWordList();
+    }
+    
+    @Override
+    protected void onDestroy() {
+        if (isWordListAcquired) {
+            isWordListAcquired = false;
+            getCorpus().releaseWordList();
         }
-        WordList wordList = new WordList();
-        wordList.read(wordSource);
-        return wordList;
+        super.onDestroy();
+    }
+    
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            getCorpus().trimMemory();
+        }
+    }
+    
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        getCorpus().trimMemory();
     }
 }
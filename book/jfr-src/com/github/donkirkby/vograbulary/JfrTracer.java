@@ -0,0 +1,132 @@
+package com.github.donkirkby.vograbulary;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import com.github.donkirkby.vograbulary.metrics.Tracer;
+
+/**
+ * Record the operations that the core traces as Java Flight Recorder events,
+ * so they show up when profiling the book generator. Nothing is created
+ * unless a recording has enabled the event type.
+ * 
+ * The jdk.jfr API needs Java 11, so this is kept in its own source folder,
+ * and VograbularyBook only loads it if it's available.
+ * 
+ * Record them with something like this:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=book.jfr ...
+ * jfr print --categories Vograbulary book.jfr
+ * </pre>
+ */
+public class JfrTracer implements Tracer {
+    @Category("Vograbulary")
+    @StackTrace(false)
+    public abstract static class EngineEvent extends Event {
+        @Label("Subject")
+        @Description("Puzzle letters, clue, or other input")
+        String subject;
+
+        @Label("Count")
+        @Description("Number of words or combinations checked")
+        long count;
+
+        @Label("Result")
+        String result;
+    }
+
+    @Name("vograbulary.SearchBatch")
+    @Label("Search Batch")
+    @Description("A computer student searched part of the word list")
+    public static class SearchBatchEvent extends EngineEvent {
+    }
+
+    @Name("vograbulary.FindNextBetter")
+    @Label("Find Next Better")
+    @Description("An Ultraghost hint was chosen")
+    public static class FindNextBetterEvent extends EngineEvent {
+    }
+
+    @Name("vograbulary.FindSolution")
+    @Label("Find Solution")
+    @Description("A Russian Dolls puzzle was solved")
+    public static class FindSolutionEvent extends EngineEvent {
+    }
+
+    @Name("vograbulary.ReadWordList")
+    @Label("Read Word List")
+    @Description("Words were added to a word list")
+    public static class ReadWordListEvent extends EngineEvent {
+    }
+
+    @Name("vograbulary.PopulateBook")
+    @Label("Populate Book")
+    @Description("The puzzles were written for the book")
+    public static class PopulateBookEvent extends EngineEvent {
+    }
+
+    private static final EventType searchBatchType =
+            EventType.getEventType(SearchBatchEvent.class);
+    private static final EventType findNextBetterType =
+            EventType.getEventType(FindNextBetterEvent.class);
+    private static final EventType findSolutionType =
+            EventType.getEventType(FindSolutionEvent.class);
+    private static final EventType readWordListType =
+            EventType.getEventType(ReadWordListEvent.class);
+    private static final EventType populateBookType =
+            EventType.getEventType(PopulateBookEvent.class);
+
+    @Override
+    public Object begin(String spanName) {
+        EngineEvent event = createEvent(spanName);
+        if (event != null) {
+            event.begin();
+        }
+        return event;
+    }
+
+    private EngineEvent createEvent(String spanName) {
+        switch (spanName) {
+        case SEARCH_BATCH:
+            return searchBatchType.isEnabled() ? new SearchBatchEvent() : null;
+        case FIND_NEXT_BETTER:
+            return findNextBetterType.isEnabled()
+                    ? new FindNextBetterEvent()
+                    : null;
+        case FIND_SOLUTION:
+            return findSolutionType.isEnabled()
+                    ? new FindSolutionEvent()
+                    : null;
+        case READ_WORD_LIST:
+            return readWordListType.isEnabled()
+                    ? new ReadWordListEvent()
+                    : null;
+        case VograbularyBook.POPULATE_BOOK:
+            return populateBookType.isEnabled()
+                    ? new PopulateBookEvent()
+                    : null;
+        default:
+            return null;
+        }
+    }
+
+    @Override
+    public void end(Object span, String subject, long count, String result) {
+        if (span == null) {
+            return;
+        }
+        EngineEvent event = (EngineEvent) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.subject = subject;
+            event.count = count;
+            event.result = result;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.donkirkby.vograbulary;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load text assets from the class path.
+ */
+public class BookCorpus extends Corpus {
+    @Override
+    protected List<String> loadTextAsset(String assetName) {
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            InputStream stream = classLoader.getResourceAsStream(
+              "com/github/donkirkby/vograbulary/assets/"+assetName);
+            if (stream == null) {
+                throw new FileNotFoundException();
+            }
+            ArrayList<String> lines = new ArrayList<String>();
+            BufferedReader reader =new BufferedReader(new InputStreamReader(stream));
+            try {
+                String line;
+                while (null != (line = reader.readLine())) {
+                    lines.add(line);
+                }
+            } finally {
+                    reader.close();
+            }
+            return lines;
+        } catch (IOException ex) {
+            throw new RuntimeException(
+                    "Asset " + assetName + " failed to load.",
+                    ex);
+        }
+    }
+}
@@ -1,26 +1,33 @@
 package com.github.donkirkby.vograbulary;
 
 import java.io.BufferedReader;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.metrics.Tracer;
 import com.github.donkirkby.vograbulary.poemsorting.Poem;
 import com.github.donkirkby.vograbulary.poemsorting.PoemDisplay;
 import com.github.donkirkby.vograbulary.russian.Puzzle;
 import com.github.donkirkby.vograbulary.ultraghost.WordList;
 
 public class VograbularyBook {
+    //stopJesting
+    public static final String POPULATE_BOOK = "book.populate";
+    //resumeJesting
+    
+    private static BookCorpus corpus = new BookCorpus();
+    
     public static void main(String[] args) {
+        installFlightRecorderTracer();
         try {
             PrintWriter writer = new PrintWriter("vograbulary.tex");
             try {
-                List<String> documentFrame = loadTextAsset("document_frame.tex");
+                List<String> documentFrame = corpus.loadTextAsset("document_frame.tex");
                 for (String line : documentFrame) {
                     if (line.equals("## insert-puzzles ##")) {
                         populate(writer);
@@ -47,7 +54,34 @@ public class VograbularyBook {
         }
     }
 
+    /**
+     * Record the traced operations as flight recorder events, if JfrTracer
+     * was built and this Java has a flight recorder. Otherwise, keep the
+     * default tracer.
+     */
+    private static void installFlightRecorderTracer() {
+        try {
+            Class<?> tracerClass = Class.forName(
+                    "com.github.donkirkby.vograbulary.JfrTracer");
+            Metrics.getDefault().setTracer(
+                    (Tracer) tracerClass.newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // No flight recorder, so there's nothing to record to.
+        }
+    }
+
     private static void populate(PrintWriter writer) {
+        Tracer tracer = Metrics.getDefault().getTracer();
+        Object span = tracer.begin(POPULATE_BOOK);
+        int puzzleCount = writePuzzles(writer);
+        tracer.end(span, null, puzzleCount, null);
+    }
+
+    /**
+     * Write the poems and Russian Dolls puzzles.
+     * @return the number of poems written
+     */
+    private static int writePuzzles(PrintWriter writer) {
         List<Poem> poems = new ArrayList<Poem>();
         loadPoems("whitman.md", poems);
         loadPoems("lyrical_poetry.md", poems);
@@ -70,8 +104,8 @@ public class VograbularyBook {
         }
         Collections.shuffle(solutionPositions);
         
-        List<String> russianDolls = loadTextAsset("russianDolls.txt");
-        russianDolls.remove(0); // remove example
+        List<String> russianDolls = corpus.getRussianDolls();
+        russianDolls = russianDolls.subList(1, russianDolls.size()); // remove example
         for (int i = 0; i < chosenPoems.size(); i++) {
             PoemDisplay display = chosenPoems.get(i);
             Poem poem = display.getPoem();
@@ -141,8 +175,7 @@ public class VograbularyBook {
             writer.printf("\\textbf{%s}\n", title);
             writer.write("\n\n");
         }
-        WordList wordList = new WordList();
-        wordList.read(loadTextAsset("wordlist.txt"));
+        WordList wordList = corpus.getWordList();
         writer.write("\\newpage\\Large\\textbf{Solutions}\n");
         for (int i = 0; i < chosenPoems.size(); i++) {
             int poemIndex = solutionPositions.indexOf(i);
@@ -164,40 +197,14 @@ public class VograbularyBook {
             writer.printf("\\poemtitle{%s}\n\n", title);
             
         }
+        return chosenPoems.size();
     }
 
     private static void loadPoems(final String assetName, List<Poem> poems) {
-        List<String> poemsText = loadTextAsset(assetName);
-        for (Poem poem : Poem.load(poemsText)) {
+        for (Poem poem : corpus.getPoems(assetName)) {
             if (poem.getLines().size() <= 20) {
                 poems.add(poem);
             }
         }
     }
-    
-    private static List<String> loadTextAsset(String assetName) {
-        try {
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            InputStream stream = classLoader.getResourceAsStream(
-              "com/github/donkirkby/vograbulary/assets/"+assetName);
-            if (stream == null) {
-                throw new FileNotFoundException();
-            }
-            ArrayList<String> lines = new ArrayList<String>();
-            BufferedReader reader =new BufferedReader(new InputStreamReader(stream));
-            try {
-                String line;
-                while (null != (line = reader.readLine())) {
-                    lines.add(line);
-                }
-            } finally {
-                    reader.close();
-            }
-            return lines;
-        } catch (IOException ex) {
-            throw new RuntimeException(
-                    "Asset " + assetName + " failed to load.",
-                    ex);
-        }
-    }
 }
\ No newline at end of file
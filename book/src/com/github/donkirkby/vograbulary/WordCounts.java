@@ -0,0 +1,153 @@
+package com.github.donkirkby.vograbulary;
+
+import java.util.Arrays;
+
+/**
+ * Count words that are stored as ASCII bytes, without making a String or a
+ * boxed count for each one. The words are copied into one byte array, and
+ * found through an open addressing table of entry numbers.
+ */
+public class WordCounts {
+    private byte[] letters = new byte[1 << 12];
+    private int letterCount;
+    private int[] starts = new int[256]; // indexed by entry
+    private int[] lengths = new int[256];
+    private int[] hashes = new int[256];
+    private long[] counts = new long[256];
+    private int size;
+    private int[] table = new int[512]; // entry + 1, or 0 if empty
+
+    /**
+     * Calculate the hash of a word, the same way the book scanner does as
+     * it reads each letter.
+     */
+    public static int hash(byte[] source, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + source[i];
+        }
+        return hash;
+    }
+
+    /** The number of different words. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find a word's entry.
+     * @param source holds the word's bytes
+     * @param start the position of the word in source
+     * @param length the number of bytes in the word
+     * @param hash the word's hash from hash()
+     * @return the entry, or -1 if the word hasn't been added.
+     */
+    public int find(byte[] source, int start, int length, int hash) {
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask;
+                table[slot] != 0;
+                slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (hashes[entry] == hash &&
+                    matches(entry, source, start, length)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find a word's entry, adding it with a count of zero if it's missing.
+     * The parameters are the same as find().
+     */
+    public int add(byte[] source, int start, int length, int hash) {
+        int entry = find(source, start, length, hash);
+        if (entry >= 0) {
+            return entry;
+        }
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        if (letterCount + length > letters.length) {
+            letters = Arrays.copyOf(
+                    letters,
+                    Math.max(letters.length * 2, letterCount + length));
+        }
+        System.arraycopy(source, start, letters, letterCount, length);
+        entry = size++;
+        starts[entry] = letterCount;
+        lengths[entry] = length;
+        hashes[entry] = hash;
+        letterCount += length;
+        if (size * 2 > table.length) {
+            table = new int[table.length * 2];
+            for (int i = 0; i < size; i++) {
+                insert(i);
+            }
+        }
+        else {
+            insert(entry);
+        }
+        return entry;
+    }
+
+    public void addCount(int entry, long count) {
+        counts[entry] += count;
+    }
+
+    public long getCount(int entry) {
+        return counts[entry];
+    }
+
+    public String getWord(int entry) {
+        char[] word = new char[lengths[entry]];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) letters[starts[entry] + i];
+        }
+        return new String(word);
+    }
+
+    /** Add all the counts from another set of counts into this one. */
+    public void addAll(WordCounts other) {
+        for (int i = 0; i < other.size; i++) {
+            int entry = add(
+                    other.letters,
+                    other.starts[i],
+                    other.lengths[i],
+                    other.hashes[i]);
+            counts[entry] += other.counts[i];
+        }
+    }
+
+    private void insert(int entry) {
+        int mask = table.length - 1;
+        int slot = spread(hashes[entry]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    private boolean matches(int entry, byte[] source, int start, int length) {
+        if (lengths[entry] != length) {
+            return false;
+        }
+        int offset = starts[entry] - start;
+        for (int i = start; i < start + length; i++) {
+            if (letters[i + offset] != source[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Mix the high bits into the low bits that choose a slot. */
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,428 @@
+package com.github.donkirkby.vograbulary;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.donkirkby.vograbulary.ultraghost.PackedWordList;
+
+/**
+ * Build the word list from a corpus of plain text files, the way
+ * wordpile/word_loader.py does with NLTK, but fast enough for gigabytes of
+ * text. It writes the words from most common to least common, in the same
+ * format as wordlist.txt, and also in the packed form from PackedWordList.
+ *
+ * The files are memory mapped and split into chunks. Each thread takes
+ * chunks until they run out, and counts words in its own WordCounts. The
+ * counts are merged at the end.
+ *
+ * Usage:
+ * <pre>
+ * java WordListBuilder [-valid words.txt]... [-max 70000] [-threads n]
+ *     [-out wordlist] corpus.txt...
+ * </pre>
+ * Valid word files have one word per line, like the output of
+ * "aspell dump master". Only lines with nothing but lower case letters are
+ * used, so names are left out. Without a valid word file, every word counts.
+ * Valid words that weren't found in the corpus are added to the end of the
+ * list, until it's full.
+ */
+public class WordListBuilder {
+    //stopJesting
+    private static final int DEFAULT_MAX_WORDS = 70000;
+    private static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    private static final int MAX_WORD_LENGTH = 40;
+    //resumeJesting
+
+    private static final Set<String> INVALID_WORDS = new HashSet<String>(
+            Arrays.asList((
+                    "clii clix clvi clvii clxi clxii clxiv clxix clxvi " +
+                    "clxvii ii iii iv ix lii lix lvi lvii lxi lxii lxiv " +
+                    "lxix lxvi lxvii vi vii viii x xci xcii xciv xcix " +
+                    "xcvi xcvii xi xii xiii xiv xix xv xvi xvii xviii " +
+                    "xx xxi xxii xxiii xxiv xxix xxv xxvi xxvii xxviii " +
+                    "xxx xxxi xxxii xxxiii xxxiv xxxix xxxv xxxvi " +
+                    "xxxvii xxxviii").split(" ")));
+
+    private WordCounts validWords;
+    private int maxWords = DEFAULT_MAX_WORDS;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private List<Chunk> chunks = new ArrayList<Chunk>();
+    private List<RandomAccessFile> files = new ArrayList<RandomAccessFile>();
+
+    /** A section of one corpus file for one thread to count. */
+    private static class Chunk {
+        FileChannel channel;
+        long start;
+        long end;
+        long fileSize;
+
+        Chunk(FileChannel channel, long start, long end, long fileSize) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.fileSize = fileSize;
+        }
+    }
+
+    /** Counts from one thread, or all of them. */
+    static class ChunkCounts {
+        WordCounts words = new WordCounts();
+        long wordCount;
+        long byteCount;
+    }
+
+    public static void main(String[] args) {
+        WordListBuilder builder = new WordListBuilder();
+        String outputName = "wordlist";
+        try {
+            int i = 0;
+            for (; i < args.length && args[i].startsWith("-"); i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException(
+                            "Missing value for " + args[i] + ".");
+                }
+                if (args[i].equals("-valid")) {
+                    builder.loadValidWords(args[i + 1]);
+                }
+                else if (args[i].equals("-max")) {
+                    builder.setMaxWords(Integer.parseInt(args[i + 1]));
+                }
+                else if (args[i].equals("-threads")) {
+                    builder.setThreadCount(Integer.parseInt(args[i + 1]));
+                }
+                else if (args[i].equals("-out")) {
+                    outputName = args[i + 1];
+                }
+                else {
+                    throw new IllegalArgumentException(
+                            "Unknown option " + args[i] + ".");
+                }
+            }
+            if (i == args.length) {
+                throw new IllegalArgumentException(
+                        "Usage: WordListBuilder [-valid words.txt]... " +
+                        "[-max 70000] [-threads n] [-out wordlist] " +
+                        "corpus.txt...");
+            }
+            for (; i < args.length; i++) {
+                builder.addCorpus(args[i]);
+            }
+            long startTime = System.nanoTime();
+            ChunkCounts counts = builder.count();
+            List<String> words = builder.rank(counts.words);
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            writeText(words, outputName + ".txt");
+            writeBinary(words, outputName + ".bin");
+            System.out.printf(
+                    "Counted %d words (%d different) in %d MB " +
+                    "in %.1f seconds, and wrote %d.%n",
+                    counts.wordCount,
+                    counts.words.size(),
+                    counts.byteCount >> 20,
+                    seconds,
+                    words.size());
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        } catch (IOException | InterruptedException | ExecutionException ex) {
+            ex.printStackTrace();
+            System.exit(1);
+        } finally {
+            builder.close();
+        }
+    }
+
+    /**
+     * Add words to the valid word list.
+     * @param fileName a text file with one word per line
+     */
+    public void loadValidWords(String fileName) throws IOException {
+        if (validWords == null) {
+            validWords = new WordCounts();
+        }
+        BufferedReader reader = new BufferedReader(new FileReader(fileName));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.trim();
+                if (isLowerCase(word)) {
+                    byte[] bytes = word.getBytes(StandardCharsets.US_ASCII);
+                    validWords.add(
+                            bytes,
+                            0,
+                            bytes.length,
+                            WordCounts.hash(bytes, 0, bytes.length));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static boolean isLowerCase(String word) {
+        if (word.length() == 0 || word.length() > MAX_WORD_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || 'z' < c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void setMaxWords(int maxWords) {
+        this.maxWords = maxWords;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /** Set the number of bytes in each chunk, before calling addCorpus(). */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Add a text file to the corpus, split into chunks.
+     */
+    public void addCorpus(String fileName) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+        files.add(file);
+        FileChannel channel = file.getChannel();
+        long fileSize = channel.size();
+        for (long start = 0; start < fileSize; start += chunkSize) {
+            long end = Math.min(fileSize, start + chunkSize);
+            chunks.add(new Chunk(channel, start, end, fileSize));
+        }
+    }
+
+    public void close() {
+        for (RandomAccessFile file : files) {
+            try {
+                file.close();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+        files.clear();
+    }
+
+    /**
+     * Count the words in all the corpus files, using several threads.
+     */
+    ChunkCounts count()
+            throws InterruptedException, ExecutionException {
+        final AtomicInteger nextChunk = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<ChunkCounts>> results =
+                    new ArrayList<Future<ChunkCounts>>();
+            for (int i = 0; i < threadCount; i++) {
+                results.add(executor.submit(new Callable<ChunkCounts>() {
+                    @Override
+                    public ChunkCounts call() throws IOException {
+                        ChunkCounts counts = new ChunkCounts();
+                        int chunkIndex;
+                        while ((chunkIndex = nextChunk.getAndIncrement()) <
+                                chunks.size()) {
+                            countChunk(chunks.get(chunkIndex), counts);
+                        }
+                        return counts;
+                    }
+                }));
+            }
+            ChunkCounts total = new ChunkCounts();
+            for (Future<ChunkCounts> result : results) {
+                ChunkCounts counts = result.get();
+                total.words.addAll(counts.words);
+                total.wordCount += counts.wordCount;
+                total.byteCount += counts.byteCount;
+            }
+            return total;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Count the words that start in a chunk. A word that starts before the
+     * chunk belongs to the chunk before, and a word that starts near the end
+     * is read past the end.
+     */
+    private void countChunk(Chunk chunk, ChunkCounts counts)
+            throws IOException {
+        long mapStart = Math.max(0, chunk.start - 1);
+        long mapEnd = Math.min(
+                chunk.fileSize,
+                chunk.end + MAX_WORD_LENGTH + 1);
+        MappedByteBuffer text = chunk.channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                mapStart,
+                mapEnd - mapStart);
+        int limit = (int) (mapEnd - mapStart);
+        int end = (int) (chunk.end - mapStart);
+        int position = (int) (chunk.start - mapStart);
+        if (position > 0 && isWordByte(text.get(0))) {
+            while (position < limit && isWordByte(text.get(position))) {
+                position++;
+            }
+        }
+        byte[] word = new byte[MAX_WORD_LENGTH];
+        WordCounts words = counts.words;
+        long wordCount = 0;
+        while (position < end) {
+            int b = text.get(position);
+            if ( ! isWordByte(b)) {
+                position++;
+                continue;
+            }
+            // Read a word, converting to lower case. Words with accents or
+            // other non-ASCII bytes are skipped.
+            int length = 0;
+            int hash = 0;
+            boolean isAscii = true;
+            for (; position < limit; position++) {
+                b = text.get(position);
+                if ('A' <= b && b <= 'Z') {
+                    b |= 0x20;
+                }
+                else if (b < 0) {
+                    isAscii = false;
+                }
+                else if (b < 'a' || 'z' < b) {
+                    break;
+                }
+                if (length < MAX_WORD_LENGTH) {
+                    word[length] = (byte) b;
+                }
+                length++;
+                hash = 31 * hash + b;
+            }
+            if ( ! isAscii || length > MAX_WORD_LENGTH) {
+                continue;
+            }
+            wordCount++;
+            int entry;
+            if (validWords == null) {
+                entry = words.add(word, 0, length, hash);
+            }
+            else if (validWords.find(word, 0, length, hash) >= 0) {
+                entry = words.add(word, 0, length, hash);
+            }
+            else {
+                continue;
+            }
+            words.addCount(entry, 1);
+        }
+        counts.wordCount += wordCount;
+        counts.byteCount += chunk.end - chunk.start;
+    }
+
+    /** Letters and all non-ASCII bytes are part of words. */
+    private static boolean isWordByte(int b) {
+        return b < 0 || ('a' <= (b | 0x20) && (b | 0x20) <= 'z');
+    }
+
+    /**
+     * Sort the counted words from most common to least common, then add
+     * any valid words that weren't counted.
+     * @return up to maxWords words
+     */
+    private List<String> rank(final WordCounts counts) {
+        Integer[] entries = new Integer[counts.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = i;
+        }
+        final String[] countedWords = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            countedWords[i] = counts.getWord(i);
+        }
+        Arrays.sort(entries, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer entry1, Integer entry2) {
+                int countComparison = Long.compare(
+                        counts.getCount(entry2),
+                        counts.getCount(entry1));
+                return countComparison != 0
+                        ? countComparison
+                        : countedWords[entry1].compareTo(countedWords[entry2]);
+            }
+        });
+        List<String> words = new ArrayList<String>();
+        for (int i = 0; i < entries.length && words.size() < maxWords; i++) {
+            String word = countedWords[entries[i]];
+            if ( ! INVALID_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        if (validWords != null && words.size() < maxWords) {
+            List<String> uncounted = new ArrayList<String>();
+            for (int i = 0; i < validWords.size(); i++) {
+                String word = validWords.getWord(i);
+                byte[] bytes = word.getBytes(StandardCharsets.US_ASCII);
+                if (counts.find(
+                        bytes,
+                        0,
+                        bytes.length,
+                        WordCounts.hash(bytes, 0, bytes.length)) < 0 &&
+                        ! INVALID_WORDS.contains(word)) {
+                    uncounted.add(word);
+                }
+            }
+            Collections.sort(uncounted);
+            int extraCount = Math.min(
+                    uncounted.size(),
+                    maxWords - words.size());
+            words.addAll(uncounted.subList(0, extraCount));
+        }
+        return words;
+    }
+
+    private static void writeText(List<String> words, String fileName)
+            throws IOException {
+        PrintWriter writer = new PrintWriter(fileName, "US-ASCII");
+        try {
+            for (String word : words) {
+                writer.print(word);
+                writer.print('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeBinary(List<String> words, String fileName)
+            throws IOException {
+        OutputStream stream = new FileOutputStream(fileName);
+        try {
+            stream.write(PackedWordList.pack(words));
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.donkirkby.vograbulary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.donkirkby.vograbulary.poemsorting.Poem;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+import com.github.donkirkby.vograbulary.ultraghost.WordListLoader;
+
+/**
+ * Load the text assets that the games share, and parse each one only once.
+ *
+ * Each platform subclass knows how to read an asset's lines, and this class
+ * caches the parsed results so that switching between games doesn't read and
+ * parse the same asset again. Everything is loaded lazily on first use. The
+ * lists of lines and poems handed out are unmodifiable views that can be
+ * shared, but the WordList is the shared object itself, so callers must not
+ * add words to it.
+ */
+public abstract class Corpus {
+    //stopJesting
+    public static final String WORD_LIST_ASSET = "wordlist.txt";
+    public static final String RUSSIAN_DOLLS_ASSET = "russianDolls.txt";
+    public static final String BACRONYMS_ASSET = "bacronyms.txt";
+    //resumeJesting
+
+    private Scheduler scheduler;
+    private WordList wordList;
+    private WordListLoader wordListLoader;
+    private int wordListReferenceCount;
+    private List<String> russianDolls;
+    private List<String> bacronyms;
+    private Map<String, List<Poem>> poems = new HashMap<>();
+
+    /**
+     * Read all the lines from a text asset.
+     * @param assetName the file name of the asset, like "wordlist.txt"
+     * @return a list of lines
+     */
+    protected abstract List<String> loadTextAsset(String assetName);
+
+    /**
+     * Set a scheduler to load the word list in the background. Without one,
+     * the whole word list is loaded before getWordList() returns.
+     */
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Get the list of all words that are valid in the games. Don't add words
+     * to it, because it is shared by all the games.
+     * 
+     * If a scheduler has been set, only the most common words are loaded
+     * before this returns, and the rest are added to the same list in the
+     * background.
+     */
+    public synchronized WordList getWordList() {
+        if (wordList == null) {
+            WordList newWordList = new WordList();
+            List<String> source = loadTextAsset(WORD_LIST_ASSET);
+            if (scheduler == null) {
+                newWordList.read(source);
+            }
+            else {
+                wordListLoader =
+                        new WordListLoader(newWordList, source, scheduler);
+                wordListLoader.start();
+            }
+            wordList = newWordList;
+        }
+        return wordList;
+    }
+
+    /**
+     * Get the shared word list, and count a reference to it so it won't be
+     * dropped by trimMemory(). Call releaseWordList() when finished with it.
+     */
+    public synchronized WordList acquireWordList() {
+        wordListReferenceCount++;
+        return getWordList();
+    }
+
+    /** Release a reference from acquireWordList(). */
+    public synchronized void releaseWordList() {
+        if (wordListReferenceCount > 0) {
+            wordListReferenceCount--;
+        }
+    }
+
+    /**
+     * Drop any cached assets that aren't in use, so they can be garbage
+     * collected when memory is low. They will be loaded again if they're
+     * requested later.
+     */
+    public synchronized void trimMemory() {
+        if (wordListReferenceCount == 0 && wordList != null) {
+            if (wordListLoader != null) {
+                wordListLoader.cancel();
+                wordListLoader = null;
+            }
+            wordList = null;
+        }
+        else if (wordList != null) {
+            wordList.trimCaches();
+        }
+        russianDolls = null;
+        bacronyms = null;
+        poems.clear();
+    }
+
+    /** True if all the words have been added to the word list. */
+    public synchronized boolean isWordListComplete() {
+        return wordList != null &&
+                (wordListLoader == null || wordListLoader.isComplete());
+    }
+
+    /** Get the clues for the Russian Dolls puzzles, one per line. */
+    public synchronized List<String> getRussianDolls() {
+        if (russianDolls == null) {
+            russianDolls = unmodifiableCopy(loadTextAsset(RUSSIAN_DOLLS_ASSET));
+        }
+        return russianDolls;
+    }
+
+    /** Get the Bacronyms puzzles, one per line. */
+    public synchronized List<String> getBacronyms() {
+        if (bacronyms == null) {
+            bacronyms = unmodifiableCopy(loadTextAsset(BACRONYMS_ASSET));
+        }
+        return bacronyms;
+    }
+
+    /**
+     * Get the poems from a markdown asset.
+     * @param assetName the file name of the asset, like "whitman.md"
+     */
+    public synchronized List<Poem> getPoems(String assetName) {
+        List<Poem> assetPoems = poems.get(assetName);
+        if (assetPoems == null) {
+            assetPoems = unmodifiableCopy(
+                    Poem.load(loadTextAsset(assetName)));
+            poems.put(assetName, assetPoems);
+        }
+        return assetPoems;
+    }
+
+    private static <T> List<T> unmodifiableCopy(List<T> items) {
+        return Collections.unmodifiableList(new ArrayList<T>(items));
+    }
+}
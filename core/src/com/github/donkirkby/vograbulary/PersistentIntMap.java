@@ -0,0 +1,231 @@
+package com.github.donkirkby.vograbulary;
+
+import java.io.Serializable;
+
+/**
+ * A map from int keys to values that never changes. Adding or removing a
+ * key makes a new map that shares everything but the path to that key with
+ * the old one, so old versions can be kept as cheap snapshots.
+ *
+ * The keys are stored in a trie that uses five bits of the key at each
+ * level, starting with the lowest bits. Each node only has slots for the
+ * children it uses, with a bit mask to show which ones those are.
+ * @param <V> the type of the values, which may be null
+ */
+public class PersistentIntMap<V> implements Serializable {
+    private static final long serialVersionUID = -1733925066138101538L;
+    //stopJesting
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+    //resumeJesting
+    private static final PersistentIntMap<Object> EMPTY =
+            new PersistentIntMap<Object>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 4920615880311431263L;
+
+        final int bitmap; // which of the slots at this level are used
+        final Object[] children; // a Node or an Entry for each used slot
+
+        Node(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        int indexOf(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    private static class Entry implements Serializable {
+        private static final long serialVersionUID = -6093218802937713546L;
+
+        final int key;
+        final Object value;
+
+        Entry(int key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private PersistentIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** Get a map with no keys. */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Get the value for a key.
+     * @return the value, or null if the key isn't in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        Entry entry = find(key);
+        return entry == null ? null : (V) entry.value;
+    }
+
+    private Entry find(int key) {
+        Node node = root;
+        for (int shift = 0; node != null; shift += BITS_PER_LEVEL) {
+            int bit = bitFor(key, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = node.children[node.indexOf(bit)];
+            if (child instanceof Entry) {
+                Entry entry = (Entry) child;
+                return entry.key == key ? entry : null;
+            }
+            node = (Node) child;
+        }
+        return null;
+    }
+
+    /**
+     * Make a new map with a key set to a value. This map doesn't change.
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        int newSize = containsKey(key) ? size : size + 1;
+        return new PersistentIntMap<V>(
+                put(root, 0, new Entry(key, value)),
+                newSize);
+    }
+
+    private static Node put(Node node, int shift, Entry entry) {
+        int bit = bitFor(entry.key, shift);
+        if (node == null) {
+            return new Node(bit, new Object[] { entry });
+        }
+        int index = node.indexOf(bit);
+        if ((node.bitmap & bit) == 0) {
+            Object[] children = new Object[node.children.length + 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            children[index] = entry;
+            System.arraycopy(
+                    node.children,
+                    index,
+                    children,
+                    index + 1,
+                    node.children.length - index);
+            return new Node(node.bitmap | bit, children);
+        }
+        Object child = node.children[index];
+        Object newChild;
+        if (child instanceof Node) {
+            newChild = put((Node) child, shift + BITS_PER_LEVEL, entry);
+        }
+        else if (((Entry) child).key == entry.key) {
+            newChild = entry;
+        }
+        else {
+            // Two keys share this slot, so split it into a new level.
+            newChild = put(
+                    put(null, shift + BITS_PER_LEVEL, (Entry) child),
+                    shift + BITS_PER_LEVEL,
+                    entry);
+        }
+        Object[] children = node.children.clone();
+        children[index] = newChild;
+        return new Node(node.bitmap, children);
+    }
+
+    /**
+     * Make a new map without a key. This map doesn't change.
+     */
+    public PersistentIntMap<V> remove(int key) {
+        if ( ! containsKey(key)) {
+            return this;
+        }
+        Object newRoot = remove(root, 0, key);
+        if (newRoot instanceof Entry) {
+            newRoot = put(null, 0, (Entry) newRoot);
+        }
+        return new PersistentIntMap<V>((Node) newRoot, size - 1);
+    }
+
+    /**
+     * Remove a key that is in a node.
+     * @return the new node, a single entry if that's all that is left, or
+     * null if the node is empty.
+     */
+    private static Object remove(Node node, int shift, int key) {
+        int bit = bitFor(key, shift);
+        int index = node.indexOf(bit);
+        Object child = node.children[index];
+        Object newChild = child instanceof Node
+                ? remove((Node) child, shift + BITS_PER_LEVEL, key)
+                : null;
+        if (newChild == null) {
+            if (node.children.length == 1) {
+                return null;
+            }
+            Object[] children = new Object[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            System.arraycopy(
+                    node.children,
+                    index + 1,
+                    children,
+                    index,
+                    children.length - index);
+            if (children.length == 1 && children[0] instanceof Entry) {
+                return children[0];
+            }
+            return new Node(node.bitmap & ~bit, children);
+        }
+        if (node.children.length == 1 && newChild instanceof Entry) {
+            return newChild;
+        }
+        Object[] children = node.children.clone();
+        children[index] = newChild;
+        return new Node(node.bitmap, children);
+    }
+
+    /**
+     * Get all the keys in the map.
+     * @return the keys, in no particular order
+     */
+    public int[] keys() {
+        int[] keys = new int[size];
+        if (root != null) {
+            addKeys(root, keys, 0);
+        }
+        return keys;
+    }
+
+    private static int addKeys(Node node, int[] keys, int count) {
+        for (Object child : node.children) {
+            if (child instanceof Entry) {
+                keys[count++] = ((Entry) child).key;
+            }
+            else {
+                count = addKeys((Node) child, keys, count);
+            }
+        }
+        return count;
+    }
+
+    private static int bitFor(int key, int shift) {
+        return 1 << ((key >>> shift) & LEVEL_MASK);
+    }
+}
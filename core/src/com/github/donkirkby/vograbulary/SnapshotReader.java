@@ -0,0 +1,59 @@
+package com.github.donkirkby.vograbulary;
+
+/**
+ * Read values from a snapshot that was written by a SnapshotWriter.
+ */
+public class SnapshotReader {
+    private byte[] buffer;
+    private int position;
+    
+    public SnapshotReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+    
+    public int readInt() {
+        int zigZag = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = readByte();
+            zigZag |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+    
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+    
+    public float readFloat() {
+        int bits = 0;
+        for (int i = 0; i < 4; i++) {
+            bits = (bits << 8) | readByte();
+        }
+        return Float.intBitsToFloat(bits);
+    }
+    
+    /**
+     * Read a string, which may be null.
+     */
+    public String readString() {
+        int length = readInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) readInt());
+        }
+        return builder.toString();
+    }
+    
+    private int readByte() {
+        if (position >= buffer.length) {
+            throw new IllegalArgumentException("Snapshot is truncated.");
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
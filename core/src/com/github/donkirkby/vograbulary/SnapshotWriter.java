@@ -0,0 +1,62 @@
+package com.github.donkirkby.vograbulary;
+
+import java.util.Arrays;
+
+/**
+ * Write values into a compact binary snapshot. Read them back in the same
+ * order with a SnapshotReader.
+ * 
+ * Integers are written as variable-length values, so small numbers only take
+ * a single byte. This doesn't use java.io streams, because they aren't
+ * available under GWT.
+ */
+public class SnapshotWriter {
+    private byte[] buffer = new byte[64];
+    private int size;
+    
+    public void writeInt(int value) {
+        int zigZag = (value << 1) ^ (value >> 31);
+        while ((zigZag & ~0x7F) != 0) {
+            writeByte((zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        writeByte(zigZag);
+    }
+    
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+    
+    public void writeFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            writeByte(bits >>> shift);
+        }
+    }
+    
+    /**
+     * Write a string, which may be null.
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeInt(0);
+            return;
+        }
+        writeInt(value.length() + 1);
+        for (int i = 0; i < value.length(); i++) {
+            writeInt(value.charAt(i));
+        }
+    }
+    
+    private void writeByte(int value) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, size * 2);
+        }
+        buffer[size++] = (byte) value;
+    }
+    
+    /** Get a copy of all the bytes that have been written. */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,218 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * Generate shuffled decks for anagrams games, and choose ones where plenty
+ * of words can be found in the first few letters.
+ *
+ * The word list is grouped by anagram signature: the count of each letter in
+ * a word. A deck's score is the number of words whose signature fits in the
+ * counts of its first few letters, and a letter mask for each signature
+ * rules most of them out with a single comparison.
+ */
+public class AnagramsDeckGenerator {
+    //stopJesting
+    public static final String DEFAULT_LETTERS =
+            "AAAAAAAAAAAAAAAABBBBCCCCDDDDDDDDEEEEEEEEEEEEEEEEEEEEEEFFFF" +
+            "GGGGGGHHHHHHIIIIIIIIIIIIIIJJKKLLLLLLLLMMMMNNNNNNNNNN" +
+            "OOOOOOOOOOOOOOPPPPQQRRRRRRRRRRRRSSSSSSSSTTTTTTTTTTUUUUUUUU" +
+            "VVWWXXYYYYZZ";
+    //resumeJesting
+
+    private Random random;
+    private char[] letters;
+
+    // One entry per signature.
+    private int[] signatureMasks;
+    private int[] signatureWordCounts;
+    // Letter counts for each signature, LETTER_COUNT entries per signature.
+    private byte[] signatureLetterCounts;
+    private int signatureCount;
+
+    private int[] deckCounts = new int[LetterCounts.LETTER_COUNT];
+
+    /**
+     * Initialize with the default letters.
+     * @param wordList the words that players could find
+     * @param random the source of random shuffles
+     */
+    public AnagramsDeckGenerator(WordList wordList, Random random) {
+        this(wordList, random, DEFAULT_LETTERS);
+    }
+
+    /**
+     * Initialize.
+     * @param wordList the words that players could find
+     * @param random the source of random shuffles
+     * @param letters all the upper case letters that go in each deck
+     */
+    public AnagramsDeckGenerator(
+            WordList wordList,
+            Random random,
+            String letters) {
+        this.random = random;
+        this.letters = letters.toCharArray();
+        loadSignatures(wordList);
+    }
+
+    private void loadSignatures(WordList wordList) {
+        HashMap<String, Integer> signatureIndexes =
+                new HashMap<String, Integer>();
+        int wordCount = wordList.size();
+        signatureMasks = new int[wordCount];
+        signatureWordCounts = new int[wordCount];
+        signatureLetterCounts = new byte[wordCount * LetterCounts.LETTER_COUNT];
+        int[] counts = new int[LetterCounts.LETTER_COUNT];
+        char[] signature = new char[LetterCounts.LETTER_COUNT];
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            String word = wordList.wordOf(wordId);
+            for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+                counts[i] = 0;
+            }
+            if ( ! LetterCounts.addLetterCounts(word, counts)) {
+                continue;
+            }
+            int mask = 0;
+            for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+                signature[i] = (char) counts[i];
+                if (counts[i] > 0) {
+                    mask |= 1 << i;
+                }
+            }
+            String key = new String(signature);
+            Integer index = signatureIndexes.get(key);
+            if (index == null) {
+                index = signatureCount++;
+                signatureIndexes.put(key, index);
+                signatureMasks[index] = mask;
+                int start = index * LetterCounts.LETTER_COUNT;
+                for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+                    signatureLetterCounts[start + i] = (byte) counts[i];
+                }
+            }
+            signatureWordCounts[index]++;
+        }
+        // Many words share a signature, so don't keep room for every word.
+        signatureMasks = Arrays.copyOf(signatureMasks, signatureCount);
+        signatureWordCounts =
+                Arrays.copyOf(signatureWordCounts, signatureCount);
+        signatureLetterCounts = Arrays.copyOf(
+                signatureLetterCounts,
+                signatureCount * LetterCounts.LETTER_COUNT);
+    }
+
+    /**
+     * Count how many words could be found in the first letters of a deck.
+     * @param deck the letters in the deck
+     * @param revealCount the number of letters to look at
+     */
+    public int countFindableWords(String deck, int revealCount) {
+        return countFindableWords(
+                deck.toCharArray(),
+                Math.min(revealCount, deck.length()));
+    }
+
+    private int countFindableWords(char[] deck, int revealCount) {
+        for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+            deckCounts[i] = 0;
+        }
+        int deckMask = 0;
+        for (int i = 0; i < revealCount; i++) {
+            int index = LetterCounts.letterIndex(deck[i]);
+            if (index >= 0) {
+                deckCounts[index]++;
+                deckMask |= 1 << index;
+            }
+        }
+        int wordCount = 0;
+        for (int signature = 0; signature < signatureCount; signature++) {
+            int mask = signatureMasks[signature];
+            if ((mask & ~deckMask) == 0 && fits(signature, mask)) {
+                wordCount += signatureWordCounts[signature];
+            }
+        }
+        return wordCount;
+    }
+
+    private boolean fits(int signature, int mask) {
+        int start = signature * LetterCounts.LETTER_COUNT;
+        for (int i = 0; mask != 0; i++, mask >>>= 1) {
+            if ((mask & 1) != 0 &&
+                    signatureLetterCounts[start + i] > deckCounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuffle the letters into a deck.
+     */
+    public String generate() {
+        char[] deck = letters.clone();
+        shuffle(deck, 0);
+        return new String(deck);
+    }
+
+    /**
+     * Shuffle candidate decks until one has enough words to find in its
+     * first letters, and return that one or the best one.
+     * @param revealCount the number of letters to look at in each deck
+     * @param targetWordCount the number of findable words that is good enough
+     * @param maxCandidates the number of decks to try before giving up and
+     * returning the best one found
+     */
+    public String generate(
+            int revealCount,
+            int targetWordCount,
+            int maxCandidates) {
+        revealCount = Math.min(revealCount, letters.length);
+        char[] candidate = letters.clone();
+        char[] best = null;
+        int bestWordCount = -1;
+        for (int i = 0;
+                i < maxCandidates && bestWordCount < targetWordCount;
+                i++) {
+            // Only the start of the deck needs to be shuffled to score it.
+            shuffleStart(candidate, revealCount);
+            int wordCount = countFindableWords(candidate, revealCount);
+            if (wordCount > bestWordCount) {
+                bestWordCount = wordCount;
+                best = candidate.clone();
+            }
+        }
+        if (best == null) {
+            best = candidate;
+            shuffle(best, 0);
+        }
+        else {
+            shuffle(best, revealCount);
+        }
+        return new String(best);
+    }
+
+    /** Choose random letters for the first positions in a deck. */
+    private void shuffleStart(char[] deck, int count) {
+        for (int i = 0; i < count; i++) {
+            int r = i + random.nextInt(deck.length - i);
+            char swap = deck[r];
+            deck[r] = deck[i];
+            deck[i] = swap;
+        }
+    }
+
+    /** Shuffle the letters in a deck, starting at a position. */
+    private void shuffle(char[] deck, int start) {
+        for (int i = deck.length - 1; i > start; i--) {
+            int r = start + random.nextInt(i - start + 1);
+            char swap = deck[r];
+            deck[r] = deck[i];
+            deck[i] = swap;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.github.donkirkby.vograbulary.anagrams;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map.Entry;
 
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.ultraghost.SpellingIndex;
 import com.github.donkirkby.vograbulary.ultraghost.WordList;
 
 /**
@@ -16,30 +19,208 @@ import com.github.donkirkby.vograbulary.ultraghost.WordList;
  * An AnagramsGameModel provides the data that is rendered on an AnagramsBoard 
  * object, and accepts user input via an AnagramsBoard object.
  * 
+ * The state is kept in an AnagramsGameState that never changes, and each
+ * move replaces it with a new one. getState() is a cheap snapshot, and the
+ * earlier states are kept so moves can be undone and redone.
+ * 
  * @author Don Kirkby
  */
 public class AnagramsGameModel implements Serializable {
     private static final long serialVersionUID = 346139871345262525L;
+    private static final Counter moveCount =
+            Metrics.getDefault().counter("anagrams.moves");
+    private static final Counter rejectedMoveCount =
+            Metrics.getDefault().counter("anagrams.rejectedMoves");
+    private static final Counter checkedMoveCount =
+            Metrics.getDefault().counter("anagrams.checkedMoves");
+    //stopJesting
+    private static final int MAX_SUGGESTION_DISTANCE = 2;
+    //resumeJesting
+    
+    public interface Listener {
+        /**
+         * This is called when setDeck() resets the game, or the whole state
+         * is replaced by undo(), redo(), or restoreState().
+         */
+        void deckChanged();
+        
+        /** This is called when a letter is revealed from the deck. */
+        void letterRevealed(char letter);
+        
+        /** This is called after a word is made or changed. */
+        void movePlayed(AnagramsMove move);
+    }
 //  private static final int NUMBER_OF_LETTERS_IN_DECK = 50;
 //  private static final int NUMBER_OF_VOWELS_IN_DECK = 10;
 //  private static final String CONSONANTS = "BCDFHJKLMNPQRSTVWXYZ";
 //  private static final String VOWELS = "AEIOU";
     
     private WordList wordList;
-    private LetterSet letterSet;
-    private HashMap<String, AnagramsPlayer> wordOwners;
-    private HashSet<String> playedWords;
-    private ArrayList<AnagramsPlayer> players;
+    private AnagramsGameState state;
+    private StateStack undoStates; // newest first
+    private StateStack redoStates;
+    // Every player seen since setDeck(), with the score from before joining.
+    private HashMap<AnagramsPlayer, Integer> initialScores =
+            new HashMap<AnagramsPlayer, Integer>();
+    private transient ArrayList<Listener> listeners;
+    
+    /** One link in a chain of states, from newest to oldest. */
+    private static class StateStack implements Serializable {
+        private static final long serialVersionUID = 5153396839826093404L;
+        
+        private final AnagramsGameState state;
+        private final StateStack older;
+        
+        StateStack(AnagramsGameState state, StateStack older) {
+            this.state = state;
+            this.older = older;
+        }
+    }
+    
+    /**
+     * A read-only list of a player's words that always shows the current
+     * state.
+     */
+    private class PlayerWords extends AbstractList<String>
+    implements Serializable {
+        private static final long serialVersionUID = 6268711496320914513L;
+        
+        private AnagramsPlayer player;
+        
+        PlayerWords(AnagramsPlayer player) {
+            this.player = player;
+        }
+        
+        @Override
+        public String get(int index) {
+            return state.getWords(player).get(index);
+        }
+        
+        @Override
+        public int size() {
+            return state.getWords(player).size();
+        }
+    }
 
     /**
-     * Set the deck of letters to a given list. Resets the game state.
+     * Set the deck of letters to a given list. Resets the game state, and
+     * forgets the moves that could be undone.
      * @param deck
      */
     public void setDeck(String deck) {
-        letterSet = new LetterSet(deck);
-        wordOwners = new HashMap<String, AnagramsPlayer>();
-        players = new ArrayList<AnagramsPlayer>();
-        playedWords = new HashSet<String>();
+        state = new AnagramsGameState(deck);
+        undoStates = null;
+        redoStates = null;
+        initialScores.clear();
+        onDeckChanged();
+    }
+    
+    private void onDeckChanged() {
+        if (listeners != null) {
+            for (Listener listener : listeners) {
+                listener.deckChanged();
+            }
+        }
+    }
+    
+    /**
+     * Get the current state of the game. States never change, so this is a
+     * snapshot that can be kept for as long as needed.
+     */
+    public AnagramsGameState getState() {
+        return state;
+    }
+    
+    /**
+     * Replace the whole state of the game, like loading a saved game. Sets
+     * the players' scores from the state, and forgets the moves that could
+     * be undone.
+     * @param state a state from getState(), possibly from another model
+     */
+    public void restoreState(AnagramsGameState state) {
+        replaceState(state);
+        undoStates = null;
+        redoStates = null;
+        onDeckChanged();
+    }
+    
+    /** Move to a new state that can be undone. */
+    private void playState(AnagramsGameState newState) {
+        undoStates = new StateStack(state, undoStates);
+        redoStates = null;
+        replaceState(newState);
+    }
+    
+    /**
+     * Switch to a new state, and set every player's score from it. Players
+     * that aren't in the new state get their scores from before they joined,
+     * even if something else changed their scores in between.
+     */
+    private void replaceState(AnagramsGameState newState) {
+        state = newState;
+        newState.updateScores(initialScores);
+    }
+    
+    public boolean canUndo() {
+        return undoStates != null;
+    }
+    
+    /**
+     * Go back to the state before the last revealed letter, move, or added
+     * player.
+     * @return true if there was anything to undo.
+     */
+    public boolean undo() {
+        if (undoStates == null) {
+            return false;
+        }
+        redoStates = new StateStack(state, redoStates);
+        replaceState(undoStates.state);
+        undoStates = undoStates.older;
+        onDeckChanged();
+        return true;
+    }
+    
+    public boolean canRedo() {
+        return redoStates != null;
+    }
+    
+    /**
+     * Play the last change that was undone again.
+     * @return true if there was anything to redo.
+     */
+    public boolean redo() {
+        if (redoStates == null) {
+            return false;
+        }
+        undoStates = new StateStack(state, undoStates);
+        replaceState(redoStates.state);
+        redoStates = redoStates.older;
+        onDeckChanged();
+        return true;
+    }
+    
+    public void addListener(Listener listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<Listener>();
+        }
+        listeners.add(listener);
+    }
+    
+    public void removeListener(Listener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+    
+    private void onMovePlayed(String oldWord, String newWord) {
+        moveCount.increment();
+        if (listeners != null) {
+            AnagramsMove move = new AnagramsMove(oldWord, newWord);
+            for (Listener listener : listeners) {
+                listener.movePlayed(move);
+            }
+        }
     }
     
     /**
@@ -47,7 +228,14 @@ public class AnagramsGameModel implements Serializable {
      * @return the letter
      */
     public char revealLetter() {
-        return letterSet.showNextLetter();
+        char letter = state.getNextLetter();
+        playState(state.revealLetter());
+        if (listeners != null) {
+            for (Listener listener : listeners) {
+                listener.letterRevealed(letter);
+            }
+        }
+        return letter;
     }
     
     /**
@@ -57,38 +245,33 @@ public class AnagramsGameModel implements Serializable {
      * @return
      */
     public String getUnclaimedLetters() {
-        return letterSet.getVisibleLetters();
+        return state.getUnclaimedLetters();
     }
 
     /**
-     * Add a player to the game.
+     * Add a player to the game. This can be undone like a move.
      * @param player The player to add.
      */
     public void addPlayer(AnagramsPlayer player) {
-        players.add(player);
+        playState(state.addPlayer(player));
     }
 
     /**
      * Get all the players that were added by addPlayer().
-     * @return a list of players.
+     * @return a read-only list of players.
      */
     public List<AnagramsPlayer> getPlayers() {
-        return players;
+        return state.getPlayers();
     }
 
     /**
      * Get all words claimed by a player.
      * @param player The player who owns the words.
-     * @return A list of words.
+     * @return A read-only list of words, in the order they were claimed. It
+     * changes as the player claims and loses words.
      */
     public List<String> getWords(AnagramsPlayer player) {
-        ArrayList<String> words = new ArrayList<String>();
-        for (Entry<String, AnagramsPlayer> entry : wordOwners.entrySet()) {
-            if (entry.getValue() == player) {
-                words.add(entry.getKey());
-            }
-        }
-        return words;
+        return new PlayerWords(player);
     }
 
     /**
@@ -99,38 +282,49 @@ public class AnagramsGameModel implements Serializable {
      * cannot be made from unclaimed letters.
      */
     public void makeWord(String word, AnagramsPlayer player) throws InvalidWordException {
-        validateWord(word);
-        for (int i = 0; i < word.length(); i++) {
-            char letter = word.charAt(i);
-            if ( ! letterSet.reserveLetter(letter)) {
-                letterSet.releaseReservedLetters();
-                throw new InvalidWordException(String.format(
-                        "The letter %c is not available to make %s.", 
-                        letter,
-                        word));
-            }
+        MoveResult result = tryMakeWord(word, player);
+        if ( ! result.isValid()) {
+            throw new InvalidWordException(describe(result, null, word));
         }
-        letterSet.hideReservedLetters();
-        playedWords.add(word);
-        player.setScore(player.getScore() + word.length());
-        wordOwners.put(word, player);
     }
     
-    private void validateWord(String word) throws InvalidWordException {
-        if (word.length() < 4) {
-            throw new InvalidWordException(
-                    "Words must be at least 4 letters long.");
-        }
-        if (playedWords.contains(word)) {
-            throw new InvalidWordException(String.format(
-                    "%s has already been played.",
-                    word));
+    /**
+     * Make a word from unclaimed letters, and assign it to a player, if the
+     * move is valid. Nothing changes if it isn't.
+     * @param word The word to make.
+     * @param player The player claiming the word.
+     * @return VALID if the word was made, otherwise the reason it couldn't be.
+     */
+    public MoveResult tryMakeWord(String word, AnagramsPlayer player) {
+        MoveResult result = checkMakeWord(word);
+        if (result.isValid()) {
+            int wordId = wordList.idOf(word);
+            String storedWord = wordList.wordOf(wordId);
+            playState(state.playMove(
+                    null,
+                    WordList.NOT_FOUND,
+                    storedWord,
+                    wordId,
+                    player));
+            onMovePlayed(null, storedWord);
         }
-        if ( ! wordList.contains(word)) {
-            throw new InvalidWordException(String.format(
-                    "%s is not in the dictionary.", 
-                    word));
+        else {
+            rejectedMoveCount.increment();
         }
+        return result;
+    }
+    
+    /**
+     * Check if a word could be made from unclaimed letters, without
+     * changing anything.
+     * @return VALID or the reason the word can't be made.
+     */
+    public MoveResult checkMakeWord(String word) {
+        return checkMove(
+                null,
+                word,
+                getAvailableCounts(),
+                new int[LetterCounts.LETTER_COUNT]);
     }
 
     public WordList getWordList() {
@@ -154,49 +348,255 @@ public class AnagramsGameModel implements Serializable {
             String oldWord, 
             String newWord,
             AnagramsPlayer player) throws InvalidWordException {
-        validateWord(newWord);
-        AnagramsPlayer oldPlayer = wordOwners.get(oldWord);
-        if (oldPlayer == null) {
-            throw new InvalidWordException(String.format(
-                    "%s is not a claimed word.", 
-                    oldWord));
+        MoveResult result = tryChangeWord(oldWord, newWord, player);
+        if ( ! result.isValid()) {
+            throw new InvalidWordException(describe(result, oldWord, newWord));
         }
-        
-        LetterSet oldSet = new LetterSet(oldWord);
-        oldSet.showAllRemaining();
-        try
-        {
-            for (int i = 0; 
-                    i < newWord.length(); i++) {
-                char letter = newWord.charAt(i);
-                if ( ! oldSet.reserveLetter(letter) && 
-                        ! letterSet.reserveLetter(letter)) {
-                    throw new InvalidWordException(String.format(
-                            "%s is not available to make %s.",
-                            letter,
-                            newWord));
-                }
-            }
-            oldSet.hideReservedLetters();
-            if (oldSet.getVisibleLetters().length() > 0) {
-                throw new InvalidWordException(String.format(
-                        "Some letters of %s were not used in %s.", 
+    }
+    
+    /**
+     * Make a new word from a claimed word, and assign it to a player, if the
+     * move is valid. Nothing changes if it isn't.
+     * @param oldWord The existing word.
+     * @param newWord The word to make.
+     * @param player The player claiming the word.
+     * @return VALID if the word was changed, otherwise the reason it couldn't
+     * be.
+     */
+    public MoveResult tryChangeWord(
+            String oldWord, 
+            String newWord,
+            AnagramsPlayer player) {
+        MoveResult result = checkChangeWord(oldWord, newWord);
+        if (result.isValid()) {
+            int newWordId = wordList.idOf(newWord);
+            int oldWordId = wordList.idOf(oldWord);
+            String storedOldWord = wordList.wordOf(oldWordId);
+            String storedNewWord = wordList.wordOf(newWordId);
+            playState(state.playMove(
+                    storedOldWord,
+                    oldWordId,
+                    storedNewWord,
+                    newWordId,
+                    player));
+            onMovePlayed(storedOldWord, storedNewWord);
+        }
+        else {
+            rejectedMoveCount.increment();
+        }
+        return result;
+    }
+    
+    /**
+     * Check if a claimed word could be changed into a new word, without
+     * changing anything.
+     * @return VALID or the reason the word can't be changed.
+     */
+    public MoveResult checkChangeWord(String oldWord, String newWord) {
+        return checkMove(
+                oldWord,
+                newWord,
+                getAvailableCounts(),
+                new int[LetterCounts.LETTER_COUNT]);
+    }
+    
+    /**
+     * Find valid moves that are spelled like a word that isn't in the
+     * dictionary.
+     * @param oldWord the claimed word to change, or null to make a new word
+     * @param newWord the rejected word
+     * @param maxCount the largest number of suggestions to return
+     * @return upper case words that could be played instead, closest first,
+     * then from most common to least common
+     */
+    public List<String> suggestWords(
+            final String oldWord,
+            String newWord,
+            int maxCount) {
+        final int[] availableCounts = getAvailableCounts();
+        final int[] neededCounts = new int[LetterCounts.LETTER_COUNT];
+        SpellingIndex.Filter filter = new SpellingIndex.Filter() {
+            @Override
+            public boolean accept(String wordUpper) {
+                return checkMove(
                         oldWord,
-                        newWord));
+                        wordUpper,
+                        availableCounts,
+                        neededCounts).isValid();
+            }
+        };
+        return wordList.getSpellingIndex().suggest(
+                newWord,
+                MAX_SUGGESTION_DISTANCE,
+                maxCount,
+                filter);
+    }
+    
+    /**
+     * Check a batch of moves against the current state of the game, without
+     * changing anything. Each move is checked on its own, as if none of the
+     * others were made.
+     * @return the result for each move, in the same order.
+     */
+    public MoveResult[] checkMoves(List<AnagramsMove> moves) {
+        int[] availableCounts = getAvailableCounts();
+        int[] neededCounts = new int[LetterCounts.LETTER_COUNT];
+        MoveResult[] results = new MoveResult[moves.size()];
+        for (int i = 0; i < results.length; i++) {
+            AnagramsMove move = moves.get(i);
+            results[i] = checkMove(
+                    move.getOldWord(),
+                    move.getNewWord(),
+                    availableCounts,
+                    neededCounts);
+        }
+        return results;
+    }
+    
+    /** Check if a word has been played in this game. */
+    boolean isPlayed(int wordId) {
+        return state.isPlayed(wordId);
+    }
+    
+    /** Get the ids of all the words that are claimed by players. */
+    int[] getClaimedWordIds() {
+        return state.getClaimedWordIds();
+    }
+    
+    int[] getAvailableCounts() {
+        int[] availableCounts = new int[LetterCounts.LETTER_COUNT];
+        state.copyAvailableCounts(availableCounts);
+        return availableCounts;
+    }
+    
+    /**
+     * Check a move. The words may be in any case.
+     * @param oldWord the claimed word to change, or null to make a new word
+     * @param newWord the word to make
+     * @param availableCounts the unclaimed letter counts, not changed
+     * @param neededCounts scratch space of LetterCounts.LETTER_COUNT entries
+     */
+    MoveResult checkMove(
+            String oldWord,
+            String newWord,
+            int[] availableCounts,
+            int[] neededCounts) {
+        checkedMoveCount.increment();
+        // The dictionary and the letter counts are all upper case.
+        newWord = newWord.toUpperCase();
+        if (oldWord != null) {
+            oldWord = oldWord.toUpperCase();
+        }
+        if (newWord.length() < 4) {
+            return MoveResult.TOO_SHORT;
+        }
+        int newWordId = wordList.idOf(newWord);
+        if (newWordId != WordList.NOT_FOUND && state.isPlayed(newWordId)) {
+            return MoveResult.ALREADY_PLAYED;
+        }
+        if (newWordId == WordList.NOT_FOUND) {
+            return MoveResult.NOT_A_WORD;
+        }
+        Arrays.fill(neededCounts, 0);
+        if (oldWord != null) {
+            int oldWordId = wordList.idOf(oldWord);
+            if (oldWordId == WordList.NOT_FOUND ||
+                    state.getOwner(oldWordId) == null) {
+                return MoveResult.NOT_CLAIMED;
+            }
+            subtractLetterCounts(oldWord, neededCounts);
+        }
+        if (findUnavailableLetter(newWord, availableCounts, neededCounts) >= 0) {
+            return MoveResult.LETTER_NOT_AVAILABLE;
+        }
+        for (int neededCount : neededCounts) {
+            if (neededCount < 0) {
+                return MoveResult.LETTERS_NOT_USED;
+            }
+        }
+        return MoveResult.VALID;
+    }
+    
+    /** Subtract the letters that an old word provides from needed counts. */
+    private static void subtractLetterCounts(String word, int[] neededCounts) {
+        for (int i = 0; i < word.length(); i++) {
+            int index = LetterCounts.letterIndex(word.charAt(i));
+            if (index >= 0) {
+                neededCounts[index]--;
+            }
+        }
+    }
+    
+    /**
+     * Add up the letters needed for a word, and find the first one that isn't
+     * available.
+     * @param word the word to make
+     * @param availableCounts the unclaimed letter counts
+     * @param neededCounts the letters already needed, or negative counts for
+     * letters that an old word provides. The word's letters are added to it.
+     * @return the position of the first unavailable letter in word, or -1 if
+     * all are available.
+     */
+    private static int findUnavailableLetter(
+            String word,
+            int[] availableCounts,
+            int[] neededCounts) {
+        int unavailableIndex = -1;
+        for (int i = 0; i < word.length(); i++) {
+            int index = LetterCounts.letterIndex(word.charAt(i));
+            if (index < 0 || ++neededCounts[index] > availableCounts[index]) {
+                if (unavailableIndex < 0) {
+                    unavailableIndex = i;
+                }
             }
-            letterSet.hideReservedLetters();
-            playedWords.add(newWord);
-            wordOwners.put(newWord, player);
-            wordOwners.remove(oldWord);
         }
-        finally {
-            letterSet.releaseReservedLetters();
+        return unavailableIndex;
+    }
+    
+    /**
+     * Describe why a move isn't valid. The words may be in any case, like
+     * they can be for checkMove().
+     */
+    private String describe(MoveResult result, String oldWord, String newWord) {
+        newWord = newWord.toUpperCase();
+        if (oldWord != null) {
+            oldWord = oldWord.toUpperCase();
+        }
+        switch (result) {
+        case TOO_SHORT:
+            return "Words must be at least 4 letters long.";
+        case ALREADY_PLAYED:
+            return String.format("%s has already been played.", newWord);
+        case NOT_A_WORD:
+            return String.format("%s is not in the dictionary.", newWord);
+        case NOT_CLAIMED:
+            return String.format("%s is not a claimed word.", oldWord);
+        case LETTER_NOT_AVAILABLE:
+            int[] neededCounts = new int[LetterCounts.LETTER_COUNT];
+            if (oldWord != null) {
+                subtractLetterCounts(oldWord, neededCounts);
+            }
+            char letter = newWord.charAt(findUnavailableLetter(
+                    newWord,
+                    getAvailableCounts(),
+                    neededCounts));
+            return String.format(
+                    oldWord == null
+                    ? "The letter %c is not available to make %s."
+                    : "%s is not available to make %s.",
+                    letter,
+                    newWord);
+        case LETTERS_NOT_USED:
+            return String.format(
+                    "Some letters of %s were not used in %s.", 
+                    oldWord,
+                    newWord);
+        default:
+            return result.toString();
         }
-        player.setScore(player.getScore() + newWord.length());
-        oldPlayer.setScore(oldPlayer.getScore() - oldWord.length());
     }
 
     public boolean isDeckEmpty() {
-        return letterSet.getRemainingCount() <= 0;
+        return state.getRemainingCount() <= 0;
     }
 }
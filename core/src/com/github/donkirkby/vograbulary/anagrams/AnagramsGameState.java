@@ -0,0 +1,417 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.github.donkirkby.vograbulary.PersistentIntMap;
+
+/**
+ * The state of an anagrams game at one point: the letters that have been
+ * revealed and claimed, the words that have been played, and the players'
+ * words and scores.
+ *
+ * A state never changes. Each move makes a new state that shares
+ * everything it didn't change with the one before, so keeping a state for
+ * undo, saving, or looking ahead doesn't copy the board. Played words are
+ * kept in a PersistentIntMap, and each player's words are kept in a chain
+ * from newest to oldest, so claiming a word adds one link.
+ */
+public class AnagramsGameState implements Serializable {
+    private static final long serialVersionUID = 7702815373006431592L;
+
+    private final String deck;
+    private final int shownCount;
+    // Revealed letters that haven't been claimed, in the order they were
+    // revealed, except that claiming letters shuffles them.
+    private final String unclaimedLetters;
+    // Counts of unclaimedLetters, indexed by LetterCounts.letterIndex().
+    private final int[] availableCounts;
+    // Players that were added to the game, in order.
+    private final AnagramsPlayer[] players;
+    // Every player that has claimed a word, or was added.
+    private final PlayerRecord[] records;
+    // Word ids that have been played, mapped to the player who owns them, or
+    // null if the word was changed into another word.
+    private final PersistentIntMap<AnagramsPlayer> playedWords;
+
+    /** A player's score and words in one state. */
+    private static class PlayerRecord implements Serializable {
+        private static final long serialVersionUID = 1896541519049052237L;
+
+        final AnagramsPlayer player;
+        final int initialScore; // the score before joining this game
+        final int score;
+        final OwnedWord newestWord; // or null if there are none
+        final int wordCount;
+        private transient List<String> words;
+
+        PlayerRecord(
+                AnagramsPlayer player,
+                int initialScore,
+                int score,
+                OwnedWord newestWord,
+                int wordCount) {
+            this.player = player;
+            this.initialScore = initialScore;
+            this.score = score;
+            this.newestWord = newestWord;
+            this.wordCount = wordCount;
+        }
+
+        /** Get the words, oldest first. They're only collected once. */
+        List<String> getWords() {
+            if (words == null) {
+                String[] wordArray = new String[wordCount];
+                int i = wordCount;
+                for (OwnedWord word = newestWord;
+                        word != null;
+                        word = word.older) {
+                    wordArray[--i] = word.word;
+                }
+                words = Collections.unmodifiableList(
+                        Arrays.asList(wordArray));
+            }
+            return words;
+        }
+
+        PlayerRecord claim(int wordId, String word, int points) {
+            return new PlayerRecord(
+                    player,
+                    initialScore,
+                    score + points,
+                    new OwnedWord(wordId, word, newestWord),
+                    wordCount + 1);
+        }
+
+        PlayerRecord release(int wordId, int points) {
+            return new PlayerRecord(
+                    player,
+                    initialScore,
+                    score - points,
+                    newestWord.without(wordId),
+                    wordCount - 1);
+        }
+    }
+
+    /** One link in the chain of a player's words, from newest to oldest. */
+    private static class OwnedWord implements Serializable {
+        private static final long serialVersionUID = -2829484262290931876L;
+
+        final int wordId;
+        final String word;
+        final OwnedWord older;
+
+        OwnedWord(int wordId, String word, OwnedWord older) {
+            this.wordId = wordId;
+            this.word = word;
+            this.older = older;
+        }
+
+        /**
+         * Make a chain without one word. Only the words newer than it are
+         * copied, and the older ones are shared.
+         */
+        OwnedWord without(int removedId) {
+            if (wordId == removedId) {
+                return older;
+            }
+            return new OwnedWord(wordId, word, older.without(removedId));
+        }
+    }
+
+    /**
+     * Start a new game.
+     * @param deck the letters that will be revealed, in order
+     */
+    public AnagramsGameState(String deck) {
+        this(
+                deck,
+                0,
+                "",
+                new int[LetterCounts.LETTER_COUNT],
+                new AnagramsPlayer[0],
+                new PlayerRecord[0],
+                PersistentIntMap.<AnagramsPlayer>empty());
+    }
+
+    private AnagramsGameState(
+            String deck,
+            int shownCount,
+            String unclaimedLetters,
+            int[] availableCounts,
+            AnagramsPlayer[] players,
+            PlayerRecord[] records,
+            PersistentIntMap<AnagramsPlayer> playedWords) {
+        this.deck = deck;
+        this.shownCount = shownCount;
+        this.unclaimedLetters = unclaimedLetters;
+        this.availableCounts = availableCounts;
+        this.players = players;
+        this.records = records;
+        this.playedWords = playedWords;
+    }
+
+    /**
+     * Get the letters that have been revealed and not claimed.
+     */
+    public String getUnclaimedLetters() {
+        return unclaimedLetters;
+    }
+
+    /**
+     * Copy the counts of the unclaimed letters.
+     * @param counts an array of LetterCounts.LETTER_COUNT entries to copy into,
+     * indexed by LetterCounts.letterIndex()
+     */
+    public void copyAvailableCounts(int[] counts) {
+        System.arraycopy(
+                availableCounts,
+                0,
+                counts,
+                0,
+                LetterCounts.LETTER_COUNT);
+    }
+
+    /** Count how many letters have not been revealed yet. */
+    public int getRemainingCount() {
+        return deck.length() - shownCount;
+    }
+
+    /** Get the players that were added, in order. */
+    public List<AnagramsPlayer> getPlayers() {
+        return Collections.unmodifiableList(Arrays.asList(players));
+    }
+
+    /**
+     * Get a player's score in this state.
+     * @return the score, or the player's current score if the player hasn't
+     * been added or claimed any words.
+     */
+    public int getScore(AnagramsPlayer player) {
+        PlayerRecord record = findRecord(player);
+        return record == null ? player.getScore() : record.score;
+    }
+
+    /**
+     * Get all words claimed by a player.
+     * @return a read-only list of words, in the order they were claimed.
+     */
+    public List<String> getWords(AnagramsPlayer player) {
+        PlayerRecord record = findRecord(player);
+        return record == null
+                ? Collections.<String>emptyList()
+                : record.getWords();
+    }
+
+    /** Check if a word has been played in this game. */
+    public boolean isPlayed(int wordId) {
+        return playedWords.containsKey(wordId);
+    }
+
+    /**
+     * Find who owns a word.
+     * @return the player, or null if nobody owns it now.
+     */
+    public AnagramsPlayer getOwner(int wordId) {
+        return playedWords.get(wordId);
+    }
+
+    /**
+     * Get the ids of all the words that are claimed by players.
+     * @return the ids, in no particular order
+     */
+    public int[] getClaimedWordIds() {
+        int[] wordIds = playedWords.keys();
+        int claimedCount = 0;
+        for (int wordId : wordIds) {
+            if (playedWords.get(wordId) != null) {
+                wordIds[claimedCount++] = wordId;
+            }
+        }
+        return Arrays.copyOf(wordIds, claimedCount);
+    }
+
+    /** Get the next letter that will be revealed. */
+    char getNextLetter() {
+        return deck.charAt(shownCount);
+    }
+
+    /** Make a new state with a player added. */
+    AnagramsGameState addPlayer(AnagramsPlayer player) {
+        AnagramsPlayer[] newPlayers =
+                Arrays.copyOf(players, players.length + 1);
+        newPlayers[players.length] = player;
+        PlayerRecord[] newRecords = records;
+        if (findRecord(player) == null) {
+            newRecords = withRecord(new PlayerRecord(
+                    player,
+                    player.getScore(),
+                    player.getScore(),
+                    null,
+                    0));
+        }
+        return new AnagramsGameState(
+                deck,
+                shownCount,
+                unclaimedLetters,
+                availableCounts,
+                newPlayers,
+                newRecords,
+                playedWords);
+    }
+
+    /** Make a new state with the next letter revealed. */
+    AnagramsGameState revealLetter() {
+        char letter = getNextLetter();
+        int[] newCounts = availableCounts;
+        int index = LetterCounts.letterIndex(letter);
+        if (index >= 0) {
+            newCounts = availableCounts.clone();
+            newCounts[index]++;
+        }
+        return new AnagramsGameState(
+                deck,
+                shownCount + 1,
+                unclaimedLetters + letter,
+                newCounts,
+                players,
+                records,
+                playedWords);
+    }
+
+    /**
+     * Make a new state with a move played. The move has to be valid.
+     * @param oldWord the claimed word to change, or null to make a new word
+     * @param oldWordId the id of oldWord, if it isn't null
+     * @param newWord the word to make
+     * @param newWordId the id of newWord
+     * @param player the player claiming newWord
+     */
+    AnagramsGameState playMove(
+            String oldWord,
+            int oldWordId,
+            String newWord,
+            int newWordId,
+            AnagramsPlayer player) {
+        int[] oldCounts = new int[LetterCounts.LETTER_COUNT];
+        PersistentIntMap<AnagramsPlayer> newPlayedWords = playedWords;
+        PlayerRecord[] newRecords = records;
+        if (oldWord != null) {
+            LetterCounts.addLetterCounts(oldWord, oldCounts);
+            AnagramsPlayer oldPlayer = playedWords.get(oldWordId);
+            newPlayedWords = newPlayedWords.put(oldWordId, null);
+            newRecords = withRecord(
+                    newRecords,
+                    findRecord(oldPlayer).release(
+                            oldWordId,
+                            oldWord.length()));
+        }
+        // Claim the letters by swapping each one to the front of the
+        // unclaimed letters, then cutting off the front.
+        char[] letters = unclaimedLetters.toCharArray();
+        int[] newCounts = availableCounts.clone();
+        int claimedCount = 0;
+        for (int i = 0; i < newWord.length(); i++) {
+            char letter = newWord.charAt(i);
+            int index = LetterCounts.letterIndex(letter);
+            if (oldCounts[index] > 0) {
+                oldCounts[index]--;
+                continue;
+            }
+            for (int j = claimedCount; j < letters.length; j++) {
+                if (letters[j] == letter) {
+                    letters[j] = letters[claimedCount];
+                    letters[claimedCount++] = letter;
+                    newCounts[index]--;
+                    break;
+                }
+            }
+        }
+        newPlayedWords = newPlayedWords.put(newWordId, player);
+        PlayerRecord record = findRecord(newRecords, player);
+        if (record == null) {
+            record = new PlayerRecord(
+                    player,
+                    player.getScore(),
+                    player.getScore(),
+                    null,
+                    0);
+        }
+        newRecords = withRecord(
+                newRecords,
+                record.claim(newWordId, newWord, newWord.length()));
+        return new AnagramsGameState(
+                deck,
+                shownCount,
+                new String(
+                        letters,
+                        claimedCount,
+                        letters.length - claimedCount),
+                newCounts,
+                players,
+                newRecords,
+                newPlayedWords);
+    }
+
+    /**
+     * Set the scores of all the players from this state.
+     * @param initialScores each player's score from before joining the game.
+     * The players in this state are added if they're missing, and the other
+     * players get their initial scores back.
+     */
+    void updateScores(Map<AnagramsPlayer, Integer> initialScores) {
+        for (PlayerRecord record : records) {
+            if ( ! initialScores.containsKey(record.player)) {
+                initialScores.put(record.player, record.initialScore);
+            }
+        }
+        for (Map.Entry<AnagramsPlayer, Integer> entry :
+                initialScores.entrySet()) {
+            AnagramsPlayer player = entry.getKey();
+            PlayerRecord record = findRecord(player);
+            player.setScore(record == null ? entry.getValue() : record.score);
+        }
+    }
+
+    private PlayerRecord findRecord(AnagramsPlayer player) {
+        return findRecord(records, player);
+    }
+
+    private static PlayerRecord findRecord(
+            PlayerRecord[] records,
+            AnagramsPlayer player) {
+        for (PlayerRecord record : records) {
+            if (record.player == player) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    private PlayerRecord[] withRecord(PlayerRecord record) {
+        return withRecord(records, record);
+    }
+
+    /**
+     * Copy an array of records, replacing the record for the same player or
+     * adding it to the end. The records themselves are shared.
+     */
+    private static PlayerRecord[] withRecord(
+            PlayerRecord[] records,
+            PlayerRecord record) {
+        for (int i = 0; i < records.length; i++) {
+            if (records[i].player == record.player) {
+                PlayerRecord[] newRecords = records.clone();
+                newRecords[i] = record;
+                return newRecords;
+            }
+        }
+        PlayerRecord[] newRecords =
+                Arrays.copyOf(records, records.length + 1);
+        newRecords[records.length] = record;
+        return newRecords;
+    }
+}
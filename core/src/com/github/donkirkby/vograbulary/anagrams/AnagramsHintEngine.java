@@ -0,0 +1,306 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * Keep track of the moves that could be played in an anagrams game, so a
+ * player can ask for a hint or see what they missed at the end.
+ *
+ * The engine listens to the game model and only re-examines the words that
+ * could have changed: when a letter is revealed, only the words that contain
+ * that letter, and when a word is claimed, only the words that contain its
+ * least common letter.
+ */
+public class AnagramsHintEngine implements AnagramsGameModel.Listener {
+    private AnagramsGameModel model;
+    private WordList wordList;
+
+    // The letters in each word, indexed by word id.
+    private LetterCountMatrix letterCounts;
+    // The ids of all the words that contain each letter, indexed by
+    // LetterCounts.letterIndex().
+    private int[][] wordsByLetter;
+
+    private BitSet makeableWords = new BitSet();
+    // The ids of the claimed words that have entries in stealableWords.
+    private BitSet claimedWords = new BitSet();
+    // The words that could be made from each claimed word, indexed by its
+    // id, or null if it isn't claimed.
+    private BitSet[] stealableWords;
+    // Every word that has been makeable or stealable during this game.
+    private BitSet possibleWords = new BitSet();
+
+    private int[] availableCounts = new int[LetterCounts.LETTER_COUNT];
+    private int availableMask;
+    private int[] neededCounts = new int[LetterCounts.LETTER_COUNT];
+
+    /**
+     * Start tracking the moves in a game. The game's word list and deck must
+     * be set, and any words added to the word list later won't be used for
+     * hints.
+     */
+    public AnagramsHintEngine(AnagramsGameModel model) {
+        this.model = model;
+        wordList = model.getWordList();
+        if (wordList == null) {
+            throw new IllegalStateException(
+                    "The game's word list was not set.");
+        }
+        indexWords();
+        model.addListener(this);
+        deckChanged();
+    }
+
+    private void indexWords() {
+        letterCounts = new LetterCountMatrix(wordList);
+        int wordCount = letterCounts.size();
+        stealableWords = new BitSet[wordCount];
+        int[] wordCounts = new int[LetterCounts.LETTER_COUNT];
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            int mask = letterCounts.getMask(wordId);
+            if (mask != LetterCountMatrix.NO_MASK) {
+                for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+                    if ((mask & 1 << i) != 0) {
+                        wordCounts[i]++;
+                    }
+                }
+            }
+        }
+        wordsByLetter = new int[LetterCounts.LETTER_COUNT][];
+        for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+            wordsByLetter[i] = new int[wordCounts[i]];
+            wordCounts[i] = 0;
+        }
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            int mask = letterCounts.getMask(wordId);
+            if (mask != LetterCountMatrix.NO_MASK) {
+                for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+                    if ((mask & 1 << i) != 0) {
+                        wordsByLetter[i][wordCounts[i]++] = wordId;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Stop listening to the game. */
+    public void detach() {
+        model.removeListener(this);
+    }
+
+    @Override
+    public void deckChanged() {
+        makeableWords.clear();
+        for (int wordId = claimedWords.nextSetBit(0);
+                wordId >= 0;
+                wordId = claimedWords.nextSetBit(wordId + 1)) {
+            stealableWords[wordId] = null;
+        }
+        claimedWords.clear();
+        possibleWords.clear();
+        readAvailableLetters();
+        // Scan the letter counts first, then only check the moves that fit.
+        letterCounts.findMakeable(availableCounts, makeableWords);
+        recheck(makeableWords, null);
+        possibleWords.or(makeableWords);
+        for (int claimedId : model.getClaimedWordIds()) {
+            addClaimedWord(claimedId);
+        }
+    }
+
+    @Override
+    public void letterRevealed(char letter) {
+        readAvailableLetters();
+        int index = LetterCounts.letterIndex(letter);
+        if (index < 0) {
+            return;
+        }
+        int[] candidates = wordsByLetter[index];
+        for (int wordId : candidates) {
+            checkMakeable(wordId);
+        }
+        for (int oldWordId = claimedWords.nextSetBit(0);
+                oldWordId >= 0;
+                oldWordId = claimedWords.nextSetBit(oldWordId + 1)) {
+            BitSet stealable = stealableWords[oldWordId];
+            for (int wordId : candidates) {
+                checkStealable(oldWordId, wordId, stealable);
+            }
+        }
+    }
+
+    @Override
+    public void movePlayed(AnagramsMove move) {
+        readAvailableLetters();
+        if (move.getOldWord() != null) {
+            int oldWordId = wordList.idOf(move.getOldWord());
+            if (claimedWords.get(oldWordId)) {
+                claimedWords.clear(oldWordId);
+                stealableWords[oldWordId] = null;
+            }
+        }
+        // Letters were claimed, so some moves may not be possible any more.
+        recheck(makeableWords, null);
+        for (int oldWordId = claimedWords.nextSetBit(0);
+                oldWordId >= 0;
+                oldWordId = claimedWords.nextSetBit(oldWordId + 1)) {
+            recheck(stealableWords[oldWordId], wordList.wordOf(oldWordId));
+        }
+        addClaimedWord(wordList.idOf(move.getNewWord()));
+    }
+
+    private void readAvailableLetters() {
+        model.getState().copyAvailableCounts(availableCounts);
+        availableMask = 0;
+        for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+            if (availableCounts[i] > 0) {
+                availableMask |= 1 << i;
+            }
+        }
+    }
+
+    private void recheck(BitSet wordIds, String oldWord) {
+        for (int wordId = wordIds.nextSetBit(0);
+                wordId >= 0;
+                wordId = wordIds.nextSetBit(wordId + 1)) {
+            if ( ! isValid(oldWord, wordId)) {
+                wordIds.clear(wordId);
+            }
+        }
+    }
+
+    private void addClaimedWord(int claimedId) {
+        if (claimedId >= letterCounts.size()) {
+            return; // added to the word list after it was indexed
+        }
+        BitSet stealable = new BitSet();
+        stealableWords[claimedId] = stealable;
+        claimedWords.set(claimedId);
+        int claimedMask = letterCounts.getMask(claimedId);
+        if (claimedMask == LetterCountMatrix.NO_MASK) {
+            return;
+        }
+        // Every steal must contain all the claimed word's letters, so only
+        // check the words with its least common letter.
+        int[] candidates = null;
+        for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+            if ((claimedMask & 1 << i) != 0 &&
+                    (candidates == null ||
+                    wordsByLetter[i].length < candidates.length)) {
+                candidates = wordsByLetter[i];
+            }
+        }
+        for (int wordId : candidates) {
+            checkStealable(claimedId, wordId, stealable);
+        }
+    }
+
+    private void checkMakeable(int wordId) {
+        int mask = letterCounts.getMask(wordId);
+        if (mask != LetterCountMatrix.NO_MASK &&
+                (mask & ~availableMask) == 0 &&
+                letterCounts.isMakeable(wordId, availableCounts) &&
+                isValid(null, wordId)) {
+            makeableWords.set(wordId);
+            possibleWords.set(wordId);
+        }
+    }
+
+    private void checkStealable(int oldWordId, int wordId, BitSet stealable) {
+        int oldMask = letterCounts.getMask(oldWordId);
+        int mask = letterCounts.getMask(wordId);
+        if (mask != LetterCountMatrix.NO_MASK &&
+                (oldMask & ~mask) == 0 &&
+                (mask & ~(availableMask | oldMask)) == 0 &&
+                isValid(wordList.wordOf(oldWordId), wordId)) {
+            stealable.set(wordId);
+            possibleWords.set(wordId);
+        }
+    }
+
+    private boolean isValid(String oldWord, int wordId) {
+        return model.checkMove(
+                oldWord,
+                wordList.wordOf(wordId),
+                availableCounts,
+                neededCounts).isValid();
+    }
+
+    /**
+     * Get all the moves that could be played now, with the longest new words
+     * first, and the most common words first within each length.
+     */
+    public List<AnagramsMove> getMoves() {
+        List<AnagramsMove> moves = new ArrayList<AnagramsMove>();
+        for (int wordId = makeableWords.nextSetBit(0);
+                wordId >= 0;
+                wordId = makeableWords.nextSetBit(wordId + 1)) {
+            moves.add(new AnagramsMove(wordList.wordOf(wordId)));
+        }
+        for (int oldWordId = claimedWords.nextSetBit(0);
+                oldWordId >= 0;
+                oldWordId = claimedWords.nextSetBit(oldWordId + 1)) {
+            String oldWord = wordList.wordOf(oldWordId);
+            BitSet stealable = stealableWords[oldWordId];
+            for (int wordId = stealable.nextSetBit(0);
+                    wordId >= 0;
+                    wordId = stealable.nextSetBit(wordId + 1)) {
+                moves.add(new AnagramsMove(oldWord, wordList.wordOf(wordId)));
+            }
+        }
+        Collections.sort(moves, new Comparator<AnagramsMove>() {
+            @Override
+            public int compare(AnagramsMove move1, AnagramsMove move2) {
+                return compareWords(move1.getNewWord(), move2.getNewWord());
+            }
+        });
+        return moves;
+    }
+
+    /**
+     * Get the best move that could be played now.
+     * @return the move, or null if no moves are possible.
+     */
+    public AnagramsMove getBestMove() {
+        List<AnagramsMove> moves = getMoves();
+        return moves.isEmpty() ? null : moves.get(0);
+    }
+
+    /**
+     * Get all the words that could have been made or stolen at some point
+     * during the game, but weren't played. Longest words are first, and the
+     * most common words are first within each length.
+     */
+    public List<String> getMissedWords() {
+        List<String> missedWords = new ArrayList<String>();
+        for (int wordId = possibleWords.nextSetBit(0);
+                wordId >= 0;
+                wordId = possibleWords.nextSetBit(wordId + 1)) {
+            if ( ! model.isPlayed(wordId)) {
+                missedWords.add(wordList.wordOf(wordId));
+            }
+        }
+        Collections.sort(missedWords, new Comparator<String>() {
+            @Override
+            public int compare(String word1, String word2) {
+                return compareWords(word1, word2);
+            }
+        });
+        return missedWords;
+    }
+
+    private int compareWords(String word1, String word2) {
+        if (word1.length() != word2.length()) {
+            return word2.length() - word1.length();
+        }
+        return WordList.compareRank(
+                wordList.idOf(word1),
+                wordList.idOf(word2));
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+/**
+ * A move that a player might make in an anagrams game: either making a new
+ * word from unclaimed letters, or changing a claimed word into a new word.
+ */
+public class AnagramsMove {
+    private String oldWord;
+    private String newWord;
+    
+    /**
+     * Create a move that makes a word from unclaimed letters.
+     */
+    public AnagramsMove(String newWord) {
+        this(null, newWord);
+    }
+    
+    /**
+     * Create a move that changes a claimed word into a new word.
+     * @param oldWord the claimed word, or null to make a word from
+     * unclaimed letters.
+     * @param newWord the word to make
+     */
+    public AnagramsMove(String oldWord, String newWord) {
+        if (newWord == null) {
+            throw new IllegalArgumentException("New word was null.");
+        }
+        this.oldWord = oldWord;
+        this.newWord = newWord;
+    }
+    
+    /** The claimed word to change, or null if this makes a new word. */
+    public String getOldWord() {
+        return oldWord;
+    }
+    
+    public String getNewWord() {
+        return newWord;
+    }
+    
+    @Override
+    public String toString() {
+        return oldWord == null
+                ? newWord
+                : oldWord + " => " + newWord;
+    }
+}
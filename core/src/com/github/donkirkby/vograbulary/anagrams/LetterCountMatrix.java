@@ -0,0 +1,146 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * The letter counts of every word in a word list, packed into one array
+ * with LetterCounts.LETTER_COUNT bytes per word, so finding all the words that
+ * can be made from some letters is a single pass through memory.
+ *
+ * Each word also has a bit mask of its letters, and most words are ruled out
+ * by comparing masks before their counts are checked.
+ */
+public class LetterCountMatrix {
+    /** The mask for words with characters other than upper case letters. */
+    public static final int NO_MASK = -1;
+
+    private static final Counter scanCount =
+            Metrics.getDefault().counter("letterCountMatrix.scans");
+
+    private WordList wordList;
+    private int wordCount;
+    private byte[] letterCounts; // LETTER_COUNT entries per word id
+    private int[] letterMasks; // indexed by word id
+
+    /**
+     * Count the letters in all the words in a word list. Words that are
+     * added to it later aren't included.
+     */
+    public LetterCountMatrix(WordList wordList) {
+        this.wordList = wordList;
+        wordCount = wordList.size();
+        letterCounts = new byte[wordCount * LetterCounts.LETTER_COUNT];
+        letterMasks = new int[wordCount];
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            String word = wordList.wordOf(wordId);
+            int start = wordId * LetterCounts.LETTER_COUNT;
+            int mask = 0;
+            for (int i = 0; i < word.length() && mask != NO_MASK; i++) {
+                int index = LetterCounts.letterIndex(word.charAt(i));
+                if (index < 0) {
+                    mask = NO_MASK;
+                }
+                else {
+                    letterCounts[start + index]++;
+                    mask |= 1 << index;
+                }
+            }
+            letterMasks[wordId] = mask;
+        }
+    }
+
+    /** The number of words that were counted. */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * Get the letters in a word as a bit mask.
+     * @return one bit for each letter index, or NO_MASK if the word has
+     * other characters.
+     */
+    public int getMask(int wordId) {
+        return letterMasks[wordId];
+    }
+
+    /**
+     * Check if a word can be made from some letters.
+     * @param wordId the word to check
+     * @param availableCounts the count of each letter that can be used
+     */
+    public boolean isMakeable(int wordId, int[] availableCounts) {
+        int mask = letterMasks[wordId];
+        return mask != NO_MASK &&
+                (mask & ~calculateMask(availableCounts)) == 0 &&
+                fits(wordId, mask, availableCounts);
+    }
+
+    /**
+     * Find all the words that can be made from some letters.
+     * @param availableCounts the count of each letter that can be used
+     * @param makeable the ids of the words that can be made are set in it
+     */
+    public void findMakeable(int[] availableCounts, BitSet makeable) {
+        scanCount.increment();
+        int availableMask = calculateMask(availableCounts);
+        int excludedMask = ~availableMask;
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            int mask = letterMasks[wordId];
+            if ((mask & excludedMask) == 0 &&
+                    mask != NO_MASK &&
+                    fits(wordId, mask, availableCounts)) {
+                makeable.set(wordId);
+            }
+        }
+    }
+
+    /**
+     * Find all the words that can be made from some letters.
+     * @param letters the upper case letters that can be used
+     * @return the words, from most common to least common
+     */
+    public List<String> findMakeable(String letters) {
+        int[] availableCounts = new int[LetterCounts.LETTER_COUNT];
+        LetterCounts.addLetterCounts(letters, availableCounts);
+        BitSet makeable = new BitSet(wordCount);
+        findMakeable(availableCounts, makeable);
+        List<String> words = new ArrayList<String>();
+        for (int wordId = makeable.nextSetBit(0);
+                wordId >= 0;
+                wordId = makeable.nextSetBit(wordId + 1)) {
+            words.add(wordList.wordOf(wordId));
+        }
+        return words;
+    }
+
+    private static int calculateMask(int[] availableCounts) {
+        int mask = 0;
+        for (int i = 0; i < LetterCounts.LETTER_COUNT; i++) {
+            if (availableCounts[i] > 0) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Compare a word's letter counts with the available counts, only
+     * checking the letters in its mask.
+     */
+    private boolean fits(int wordId, int mask, int[] availableCounts) {
+        int start = wordId * LetterCounts.LETTER_COUNT;
+        for (int i = 0; mask != 0; i++, mask >>>= 1) {
+            if ((mask & 1) != 0 &&
+                    letterCounts[start + i] > availableCounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+/**
+ * Count letters in arrays with one entry for each letter from A to Z, so
+ * words can be compared with the letters on the board without building any
+ * collections.
+ */
+public class LetterCounts {
+    /** The number of letters from A to Z that are counted. */
+    public static final int LETTER_COUNT = 26;
+    
+    private LetterCounts() {
+    }
+    
+    /**
+     * Find a letter's position in the alphabet.
+     * @param letter an upper case letter
+     * @return 0 for A through 25 for Z, or -1 for any other character
+     */
+    public static int letterIndex(char letter) {
+        int index = letter - 'A';
+        return 0 <= index && index < LETTER_COUNT ? index : -1;
+    }
+    
+    /**
+     * Count how many of each letter a word contains.
+     * @param word the upper case word to count
+     * @param counts an array of LETTER_COUNT entries to add the counts to
+     * @return false if the word contains any characters that aren't upper
+     * case letters, which aren't counted.
+     */
+    public static boolean addLetterCounts(CharSequence word, int[] counts) {
+        boolean isCounted = true;
+        for (int i = 0; i < word.length(); i++) {
+            int index = letterIndex(word.charAt(i));
+            if (index < 0) {
+                isCounted = false;
+            }
+            else {
+                counts[index]++;
+            }
+        }
+        return isCounted;
+    }
+}
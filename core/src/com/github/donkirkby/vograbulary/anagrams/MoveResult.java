@@ -0,0 +1,21 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+/**
+ * The result of checking a move in an anagrams game: either VALID, or the
+ * reason the move isn't allowed.
+ */
+public enum MoveResult {
+    //stopJesting
+    VALID,
+    TOO_SHORT,
+    ALREADY_PLAYED,
+    NOT_A_WORD,
+    NOT_CLAIMED,
+    LETTER_NOT_AVAILABLE,
+    LETTERS_NOT_USED;
+    //resumeJesting
+    
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -3,9 +3,16 @@ package com.github.donkirkby.vograbulary.bacronyms;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
 import com.github.donkirkby.vograbulary.ultraghost.WordList;
 
 public class Controller {
+    private static final Counter solveCount =
+            Metrics.getDefault().counter("bacronyms.solveAttempts");
+    private static final Counter solvedPuzzleCount =
+            Metrics.getDefault().counter("bacronyms.solved");
+    
     private WordList wordList;
     private BacronymsScreen screen;
     private List<String> puzzleLines;
@@ -42,7 +49,9 @@ public class Controller {
     
     public void solve() {
         String selectedWord = screen.getPuzzle().getSelectedWord();
+        solveCount.increment();
         if (wordList.contains(selectedWord)) {
+            solvedPuzzleCount.increment();
             screen.setState(BacronymsScreen.State.SOLVED);
         }
         else {
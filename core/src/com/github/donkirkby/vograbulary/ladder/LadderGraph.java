@@ -0,0 +1,377 @@
+package com.github.donkirkby.vograbulary.ladder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * All the steps in word ladders: each word is connected to the words that
+ * differ from it in one letter. CAT is connected to COT and CAR, but not to
+ * CART.
+ *
+ * Neighbors are found by filing each word under a wildcard pattern for each
+ * of its positions, so C_T holds CAT, COT, and CUT. The patterns are
+ * sorted by hash instead of being stored as strings. The connections are
+ * stored in two int arrays: the neighbors of every word in a row, and the
+ * position in that row where each word's neighbors start.
+ */
+public class LadderGraph {
+    private static final Histogram buildTime =
+            Metrics.getDefault().histogram("ladderGraph.build");
+    private static final Histogram searchTime =
+            Metrics.getDefault().histogram("ladderGraph.findLadder");
+
+    private WordList wordList;
+    private int wordCount;
+    private int[] neighborStarts; // wordCount + 1 entries
+    private int[] neighbors;
+
+    // Scratch space for searches.
+    private Frontier forward;
+    private Frontier backward;
+    private int stamp;
+
+    /**
+     * One side of a breadth first search. A word has been visited by the
+     * current search if its stamp matches, so nothing has to be cleared
+     * between searches.
+     */
+    private static class Frontier {
+        int[] stamps;
+        int[] parents;
+        int[] queue; // visited words in the order they were found
+        int levelStart; // start of the words that haven't been expanded
+        int end;
+
+        Frontier(int wordCount) {
+            stamps = new int[wordCount];
+            parents = new int[wordCount];
+            queue = new int[wordCount];
+        }
+
+        void start(int wordId, int stamp) {
+            stamps[wordId] = stamp;
+            parents[wordId] = -1;
+            queue[0] = wordId;
+            levelStart = 0;
+            end = 1;
+        }
+
+        int getLevelSize() {
+            return end - levelStart;
+        }
+    }
+
+    /**
+     * Build the graph from all the words in a word list. Words that are added
+     * to it later aren't included.
+     */
+    public LadderGraph(WordList wordList) {
+        long startTime = buildTime.startTimer();
+        this.wordList = wordList;
+        wordCount = wordList.size();
+        long[] patterns = collectPatterns();
+        Arrays.sort(patterns);
+        int[] degrees = new int[wordCount];
+        connect(patterns, degrees, null);
+        neighborStarts = new int[wordCount + 1];
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            neighborStarts[wordId + 1] = neighborStarts[wordId] +
+                    degrees[wordId];
+        }
+        neighbors = new int[neighborStarts[wordCount]];
+        Arrays.fill(degrees, 0);
+        connect(patterns, degrees, neighbors);
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            // Most common neighbors first.
+            Arrays.sort(
+                    neighbors,
+                    neighborStarts[wordId],
+                    neighborStarts[wordId + 1]);
+        }
+        forward = new Frontier(wordCount);
+        backward = new Frontier(wordCount);
+        buildTime.stopTimer(startTime);
+    }
+
+    /**
+     * Make one entry for each position in each word: the hash of the word's
+     * length and the word with that position blanked out, in the high bits,
+     * with the position and word id in the low bits. Duplicate words are
+     * skipped.
+     */
+    private long[] collectPatterns() {
+        int patternCount = 0;
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (wordList.idOf(word) == wordId) {
+                patternCount += word.length();
+            }
+        }
+        long[] patterns = new long[patternCount];
+        int count = 0;
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (wordList.idOf(word) != wordId) {
+                continue;
+            }
+            for (int position = 0; position < word.length(); position++) {
+                int hash = word.length();
+                for (int i = 0; i < word.length(); i++) {
+                    char c = i == position ? '_' : word.charAt(i);
+                    hash = 31 * hash + c;
+                }
+                patterns[count++] = (long) hash << 32 |
+                        (long) position << 24 |
+                        wordId;
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Connect the words in each group with the same pattern hash.
+     * @param patterns sorted pattern entries from collectPatterns()
+     * @param degrees the number of neighbors found so far for each word, is
+     * updated
+     * @param neighbors where to write the neighbors, after neighborStarts is
+     * filled in, or null to just count them
+     */
+    private void connect(long[] patterns, int[] degrees, int[] neighbors) {
+        int groupStart = 0;
+        while (groupStart < patterns.length) {
+            int groupEnd = groupStart + 1;
+            while (groupEnd < patterns.length &&
+                    patterns[groupEnd] >>> 32 ==
+                    patterns[groupStart] >>> 32) {
+                groupEnd++;
+            }
+            for (int i = groupStart; i < groupEnd; i++) {
+                int position = (int) (patterns[i] >>> 24) & 0xFF;
+                int wordId = (int) patterns[i] & 0xFFFFFF;
+                String word = wordList.wordOf(wordId);
+                for (int j = i + 1; j < groupEnd; j++) {
+                    int otherPosition = (int) (patterns[j] >>> 24) & 0xFF;
+                    int otherId = (int) patterns[j] & 0xFFFFFF;
+                    // Different patterns can have the same hash.
+                    if (position == otherPosition &&
+                            isNeighborAt(
+                                    word,
+                                    wordList.wordOf(otherId),
+                                    position)) {
+                        if (neighbors != null) {
+                            neighbors[neighborStarts[wordId] +
+                                      degrees[wordId]] = otherId;
+                            neighbors[neighborStarts[otherId] +
+                                      degrees[otherId]] = wordId;
+                        }
+                        degrees[wordId]++;
+                        degrees[otherId]++;
+                    }
+                }
+            }
+            groupStart = groupEnd;
+        }
+    }
+
+    /**
+     * Check if two words of the same length differ in one position, and
+     * match everywhere else.
+     */
+    private static boolean isNeighborAt(
+            String word1,
+            String word2,
+            int position) {
+        if (word1.length() != word2.length()) {
+            return false;
+        }
+        for (int i = 0; i < word1.length(); i++) {
+            if ((word1.charAt(i) == word2.charAt(i)) == (i == position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if two words differ in exactly one letter.
+     */
+    public static boolean isNeighbor(String word1, String word2) {
+        if (word1.length() != word2.length()) {
+            return false;
+        }
+        int differenceCount = 0;
+        for (int i = 0; i < word1.length(); i++) {
+            if (word1.charAt(i) != word2.charAt(i) &&
+                    ++differenceCount > 1) {
+                return false;
+            }
+        }
+        return differenceCount == 1;
+    }
+
+    /** The number of words in the graph, including duplicates. */
+    public int size() {
+        return wordCount;
+    }
+
+    /** The number of words that are one step from a word. */
+    public int getNeighborCount(int wordId) {
+        return neighborStarts[wordId + 1] - neighborStarts[wordId];
+    }
+
+    /**
+     * Get one of the words that are one step from a word.
+     * @param wordId the word to start from
+     * @param index from zero to getNeighborCount() - 1, in order from most
+     * common to least common.
+     * @return the neighbor's word id
+     */
+    public int getNeighbor(int wordId, int index) {
+        return neighbors[neighborStarts[wordId] + index];
+    }
+
+    /**
+     * Find one of the shortest ladders between two words.
+     * @param start the first word, case insensitive
+     * @param end the last word, case insensitive
+     * @return the words in the ladder, in upper case, including start and
+     * end, or null if either word is missing or there's no ladder.
+     */
+    public List<String> findLadder(String start, String end) {
+        int startId = wordList.idOf(start);
+        int endId = wordList.idOf(end);
+        if (startId == WordList.NOT_FOUND ||
+                endId == WordList.NOT_FOUND ||
+                startId >= wordCount ||
+                endId >= wordCount) {
+            return null;
+        }
+        int[] ladder = findLadder(startId, endId);
+        if (ladder == null) {
+            return null;
+        }
+        List<String> words = new ArrayList<String>(ladder.length);
+        for (int wordId : ladder) {
+            words.add(wordList.wordOf(wordId));
+        }
+        return words;
+    }
+
+    /**
+     * Find one of the shortest ladders between two words, searching
+     * forward from the start and backward from the end at the same time,
+     * and always expanding the smaller frontier.
+     * @return the word ids in the ladder, including start and end, or null
+     * if there's no ladder.
+     */
+    public synchronized int[] findLadder(int startId, int endId) {
+        long startTime = searchTime.startTimer();
+        nextStamp();
+        forward.start(startId, stamp);
+        backward.start(endId, stamp);
+        int meetingId = startId == endId ? startId : -1;
+        while (meetingId < 0 &&
+                forward.getLevelSize() > 0 &&
+                backward.getLevelSize() > 0) {
+            if (forward.getLevelSize() <= backward.getLevelSize()) {
+                meetingId = expandLevel(forward, backward);
+            }
+            else {
+                meetingId = expandLevel(backward, forward);
+            }
+        }
+        int[] ladder = meetingId < 0 ? null : buildLadder(meetingId);
+        searchTime.stopTimer(startTime);
+        return ladder;
+    }
+
+    private void nextStamp() {
+        if (++stamp == 0) {
+            Arrays.fill(forward.stamps, 0);
+            Arrays.fill(backward.stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Add the unvisited neighbors of one level of a search.
+     * @param side the side of the search to expand
+     * @param other the other side of the search, or null if there isn't one
+     * @return the first neighbor that the other side already visited, or -1
+     */
+    private int expandLevel(Frontier side, Frontier other) {
+        int levelEnd = side.end;
+        for (int i = side.levelStart; i < levelEnd; i++) {
+            int wordId = side.queue[i];
+            for (int j = neighborStarts[wordId];
+                    j < neighborStarts[wordId + 1];
+                    j++) {
+                int neighbor = neighbors[j];
+                if (side.stamps[neighbor] != stamp) {
+                    side.stamps[neighbor] = stamp;
+                    side.parents[neighbor] = wordId;
+                    side.queue[side.end++] = neighbor;
+                    if (other != null && other.stamps[neighbor] == stamp) {
+                        return neighbor;
+                    }
+                }
+            }
+        }
+        side.levelStart = levelEnd;
+        return -1;
+    }
+
+    private int[] buildLadder(int meetingId) {
+        int forwardLength = 0;
+        for (int id = meetingId; id >= 0; id = forward.parents[id]) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for (int id = backward.parents[meetingId];
+                id >= 0;
+                id = backward.parents[id]) {
+            backwardLength++;
+        }
+        int[] ladder = new int[forwardLength + backwardLength];
+        int position = forwardLength - 1;
+        for (int id = meetingId; id >= 0; id = forward.parents[id]) {
+            ladder[position--] = id;
+        }
+        position = forwardLength;
+        for (int id = backward.parents[meetingId];
+                id >= 0;
+                id = backward.parents[id]) {
+            ladder[position++] = id;
+        }
+        return ladder;
+    }
+
+    /**
+     * Find the words that are a number of steps from a word, and no closer.
+     * @param startId the word to start from
+     * @param stepCount the number of steps
+     * @return the word ids, from most common to least common, or an empty
+     * array if there are none
+     */
+    public synchronized int[] findWordsAtDistance(int startId, int stepCount) {
+        nextStamp();
+        forward.start(startId, stamp);
+        for (int step = 0; step < stepCount; step++) {
+            expandLevel(forward, null);
+        }
+        int[] wordIds = new int[forward.getLevelSize()];
+        System.arraycopy(
+                forward.queue,
+                forward.levelStart,
+                wordIds,
+                0,
+                wordIds.length);
+        Arrays.sort(wordIds);
+        return wordIds;
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.donkirkby.vograbulary.ladder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A word ladder puzzle: change the start word into the target word, one
+ * letter at a time, and every step has to be a word.
+ */
+public class Puzzle {
+    private List<String> solution;
+
+    /**
+     * Initialize.
+     * @param solution one of the shortest ladders from the start word to the
+     * target word, including both
+     */
+    public Puzzle(List<String> solution) {
+        if (solution.size() < 2) {
+            throw new IllegalArgumentException(
+                    "A ladder needs at least two words.");
+        }
+        this.solution = Collections.unmodifiableList(
+                new ArrayList<String>(solution));
+    }
+
+    public String getStart() {
+        return solution.get(0);
+    }
+
+    public String getTarget() {
+        return solution.get(solution.size() - 1);
+    }
+
+    /** The smallest number of steps it takes to reach the target. */
+    public int getStepCount() {
+        return solution.size() - 1;
+    }
+
+    /** One of the shortest ladders, including the start and target. */
+    public List<String> getSolution() {
+        return solution;
+    }
+
+    @Override
+    public String toString() {
+        return "Puzzle(" + getStart() + " to " + getTarget() + ")";
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.donkirkby.vograbulary.ladder;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * Choose random word ladder puzzles where the start and target are both
+ * common words.
+ */
+public class PuzzleGenerator {
+    //stopJesting
+    private static final int MAX_ATTEMPTS = 100;
+    //resumeJesting
+
+    private LadderGraph graph;
+    private WordList wordList;
+    private Random random;
+    private int vocabularySize;
+
+    /**
+     * Initialize.
+     * @param graph the steps that ladders can take
+     * @param wordList the words in the graph
+     * @param random the source of random choices
+     */
+    public PuzzleGenerator(
+            LadderGraph graph,
+            WordList wordList,
+            Random random) {
+        this.graph = graph;
+        this.wordList = wordList;
+        this.random = random;
+        vocabularySize = graph.size();
+    }
+
+    /**
+     * Only choose start and target words from the most common words. The
+     * steps in between can use any words. Default is the whole graph.
+     */
+    public void setVocabularySize(int vocabularySize) {
+        this.vocabularySize = vocabularySize;
+    }
+
+    public int getVocabularySize() {
+        return vocabularySize;
+    }
+
+    /**
+     * Choose a random puzzle.
+     * @param stepCount the smallest number of steps it should take to solve
+     * @return the puzzle, or null if none was found after several tries.
+     */
+    public Puzzle generate(int stepCount) {
+        if (stepCount < 1) {
+            throw new IllegalArgumentException(
+                    "A puzzle needs at least one step.");
+        }
+        int wordCount = Math.min(vocabularySize, graph.size());
+        for (int attempt = 0;
+                attempt < MAX_ATTEMPTS && wordCount > 0;
+                attempt++) {
+            int startId = random.nextInt(wordCount);
+            if (graph.getNeighborCount(startId) == 0) {
+                continue;
+            }
+            int[] targetIds = graph.findWordsAtDistance(startId, stepCount);
+            // They're sorted, so the common ones are at the start.
+            int targetCount = 0;
+            while (targetCount < targetIds.length &&
+                    targetIds[targetCount] < wordCount) {
+                targetCount++;
+            }
+            if (targetCount > 0) {
+                int targetId = targetIds[random.nextInt(targetCount)];
+                int[] ladder = graph.findLadder(startId, targetId);
+                String[] words = new String[ladder.length];
+                for (int i = 0; i < ladder.length; i++) {
+                    words[i] = wordList.wordOf(ladder[i]);
+                }
+                return new Puzzle(Arrays.asList(words));
+            }
+        }
+        return null;
+    }
+}
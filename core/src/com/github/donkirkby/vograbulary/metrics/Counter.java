@@ -0,0 +1,39 @@
+package com.github.donkirkby.vograbulary.metrics;
+
+/**
+ * Count how many times something happened. It can be updated from any
+ * thread.
+ */
+public class Counter {
+    private String name;
+    private long count;
+    
+    Counter(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public synchronized void increment() {
+        count++;
+    }
+    
+    public synchronized void add(long amount) {
+        count += amount;
+    }
+    
+    public synchronized long getCount() {
+        return count;
+    }
+    
+    synchronized void reset() {
+        count = 0;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return name + " count=" + count;
+    }
+}
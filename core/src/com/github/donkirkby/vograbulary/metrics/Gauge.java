@@ -0,0 +1,35 @@
+package com.github.donkirkby.vograbulary.metrics;
+
+/**
+ * Remember the latest value of some measurement, like the size of a list.
+ * It can be updated from any thread.
+ */
+public class Gauge {
+    private String name;
+    private long value;
+    
+    Gauge(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public synchronized void setValue(long value) {
+        this.value = value;
+    }
+    
+    public synchronized long getValue() {
+        return value;
+    }
+    
+    synchronized void reset() {
+        value = 0;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return name + " value=" + value;
+    }
+}
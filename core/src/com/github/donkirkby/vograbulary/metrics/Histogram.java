@@ -0,0 +1,138 @@
+package com.github.donkirkby.vograbulary.metrics;
+
+/**
+ * Count values in fixed buckets, usually to measure how long something takes
+ * in microseconds. Recording a value doesn't allocate any memory, so it's
+ * safe to use in the middle of a game, and it can be recorded from any
+ * thread.
+ * 
+ * Time a block of code like this:
+ * <pre>
+ * long startTime = histogram.startTimer();
+ * ...
+ * histogram.stopTimer(startTime);
+ * </pre>
+ */
+public class Histogram {
+    private String name;
+    private Metrics metrics;
+    // Each bucket holds values up to and including its bound, and the last
+    // bucket holds everything bigger than the last bound.
+    private long[] bounds;
+    private long[] bucketCounts;
+    private long count;
+    private long sum;
+    private long max;
+    
+    Histogram(String name, Metrics metrics, long[] bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException(
+                        "Histogram bounds must increase.");
+            }
+        }
+        this.name = name;
+        this.metrics = metrics;
+        this.bounds = bounds.clone();
+        bucketCounts = new long[bounds.length + 1];
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public synchronized void record(long value) {
+        int bucket = 0;
+        while (bucket < bounds.length && bounds[bucket] < value) {
+            bucket++;
+        }
+        bucketCounts[bucket]++;
+        if (count == 0 || max < value) {
+            max = value;
+        }
+        count++;
+        sum += value;
+    }
+    
+    /**
+     * Read the clock to start timing something.
+     * @return the start time to pass to stopTimer()
+     */
+    public long startTimer() {
+        return metrics.getClock().microseconds();
+    }
+    
+    /**
+     * Record the microseconds since startTimer() was called.
+     */
+    public void stopTimer(long startTime) {
+        record(metrics.getClock().microseconds() - startTime);
+    }
+    
+    /** The number of values recorded. */
+    public synchronized long getCount() {
+        return count;
+    }
+    
+    public synchronized long getSum() {
+        return sum;
+    }
+    
+    public synchronized long getMax() {
+        return max;
+    }
+    
+    /** The number of buckets, one more than the number of bounds. */
+    public int getBucketCount() {
+        return bucketCounts.length;
+    }
+    
+    /**
+     * The largest value that goes in a bucket, or Long.MAX_VALUE for the
+     * last bucket.
+     */
+    public long getBound(int bucket) {
+        return bucket < bounds.length ? bounds[bucket] : Long.MAX_VALUE;
+    }
+    
+    /** The number of values recorded in a bucket. */
+    public synchronized long getBucketValueCount(int bucket) {
+        return bucketCounts[bucket];
+    }
+    
+    /**
+     * Estimate a percentile from the bucket counts.
+     * @param percent a number from 0 to 100
+     * @return the bound of the bucket that holds the percentile, or the
+     * maximum value if it's in the last bucket, or 0 if nothing was recorded.
+     */
+    public synchronized long getPercentile(double percent) {
+        long target = (long) Math.ceil(count * percent / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < bounds.length; bucket++) {
+            seen += bucketCounts[bucket];
+            if (seen >= target && seen > 0) {
+                return Math.min(bounds[bucket], max);
+            }
+        }
+        return max;
+    }
+    
+    synchronized void reset() {
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = 0;
+        }
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return name + " count=" + count +
+                " mean=" + (count == 0 ? 0 : sum / count) +
+                " p50=" + getPercentile(50) +
+                " p95=" + getPercentile(95) +
+                " max=" + max;
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.donkirkby.vograbulary.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A registry of counters, gauges, and histograms that measure how the game
+ * engines perform.
+ * 
+ * Look up each metric once, usually in a static field, and then updating it
+ * is just arithmetic on a few fields. The updates are synchronized, because
+ * Android loads the word list on a timer thread while the games run on the
+ * UI thread. The engines all use the default registry, and a platform can
+ * print its report() to a log, or a test can check individual metrics.
+ */
+public class Metrics {
+    /** A source of time for timing histograms. */
+    public interface Clock {
+        long microseconds();
+    }
+    
+    //stopJesting
+    /** Default histogram bounds in microseconds, from 10us to 10s. */
+    public static final long[] DEFAULT_BOUNDS = new long[] {
+        10, 30, 100, 300,
+        1000, 3000, 10000, 30000,
+        100000, 300000, 1000000, 3000000, 10000000
+    };
+    //resumeJesting
+    
+    private static final Metrics defaultMetrics = new Metrics();
+    
+    private Clock clock = new Clock() {
+        @Override
+        public long microseconds() {
+            return System.currentTimeMillis() * 1000;
+        }
+    };
+    private Tracer tracer = new Tracer() {
+        @Override
+        public Object begin(String spanName) {
+            return null;
+        }
+        
+        @Override
+        public void end(
+                Object span,
+                String subject,
+                long count,
+                String result) {
+        }
+    };
+    private Map<String, Counter> counters = new HashMap<String, Counter>();
+    private Map<String, Gauge> gauges = new HashMap<String, Gauge>();
+    private Map<String, Histogram> histograms =
+            new HashMap<String, Histogram>();
+    
+    /** The registry that the game engines report to. */
+    public static Metrics getDefault() {
+        return defaultMetrics;
+    }
+    
+    /**
+     * Replace the clock. The default only has millisecond resolution, because
+     * that's all that's available on every platform, so platforms that have
+     * a better clock should set it.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+    
+    public Clock getClock() {
+        return clock;
+    }
+    
+    /**
+     * Replace the tracer that marks slow operations. The default does
+     * nothing.
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+    
+    public Tracer getTracer() {
+        return tracer;
+    }
+    
+    /** Find a counter by name, or create it. */
+    public synchronized Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = new Counter(name);
+            counters.put(name, counter);
+        }
+        return counter;
+    }
+    
+    /** Find a gauge by name, or create it. */
+    public synchronized Gauge gauge(String name) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            gauge = new Gauge(name);
+            gauges.put(name, gauge);
+        }
+        return gauge;
+    }
+    
+    /** Find a histogram by name, or create it with the default bounds. */
+    public Histogram histogram(String name) {
+        return histogram(name, DEFAULT_BOUNDS);
+    }
+    
+    /**
+     * Find a histogram by name, or create it.
+     * @param bounds the largest value for each bucket, in increasing order.
+     * Ignored if the histogram already exists.
+     */
+    public synchronized Histogram histogram(String name, long... bounds) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram(name, this, bounds);
+            histograms.put(name, histogram);
+        }
+        return histogram;
+    }
+    
+    /** Set all the metrics back to zero. */
+    public synchronized void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (Gauge gauge : gauges.values()) {
+            gauge.reset();
+        }
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+    
+    /**
+     * Describe all the metrics, one per line, sorted by name. Histogram
+     * values are in microseconds.
+     */
+    public synchronized String report() {
+        List<String> lines = new ArrayList<String>();
+        for (Counter counter : counters.values()) {
+            lines.add(counter.toString());
+        }
+        for (Gauge gauge : gauges.values()) {
+            lines.add(gauge.toString());
+        }
+        for (Histogram histogram : histograms.values()) {
+            lines.add(histogram.toString());
+        }
+        Collections.sort(lines);
+        StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            builder.append(line).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.donkirkby.vograbulary.metrics;
+
+/**
+ * Mark the start and end of slow operations, so a profiler can show them.
+ * The default tracer does nothing, and a platform with a profiler, like Java
+ * Flight Recorder, can set one with Metrics.setTracer().
+ * 
+ * Trace an operation like this:
+ * <pre>
+ * Tracer tracer = Metrics.getDefault().getTracer();
+ * Object span = tracer.begin(Tracer.READ_WORD_LIST);
+ * ...
+ * tracer.end(span, null, wordCount, null);
+ * </pre>
+ */
+public interface Tracer {
+    //stopJesting
+    String SEARCH_BATCH = "ultraghost.searchBatch";
+    String FIND_NEXT_BETTER = "ultraghost.findNextBetter";
+    String FIND_SOLUTION = "russian.findSolution";
+    String READ_WORD_LIST = "wordList.read";
+    //resumeJesting
+    
+    /**
+     * Start an operation.
+     * @param spanName one of the constants in this interface, or a name
+     * that the platform chose.
+     * @return a span to pass to end(), or null if the operation isn't being
+     * recorded.
+     */
+    Object begin(String spanName);
+    
+    /**
+     * Finish an operation.
+     * @param span the value that begin() returned, may be null
+     * @param subject what the operation worked on, like the puzzle letters,
+     * or null
+     * @param count how many items the operation handled, like the number of
+     * words it scanned
+     * @param result what the operation found, or null
+     */
+    void end(Object span, String subject, long count, String result);
+}
@@ -6,7 +6,13 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+
 public class Poem {
+    private static final Histogram loadTime =
+            Metrics.getDefault().histogram("poem.load");
+    
     private String title;
     private String author;
     private ArrayList<String> lines;
@@ -16,6 +22,7 @@ public class Poem {
     }
 
     public static List<Poem> load(List<String> lines) {
+        long startTime = loadTime.startTimer();
         List<Poem> poems = new ArrayList<Poem>();
         Poem poem = null;
         String title = null;
@@ -62,6 +69,7 @@ public class Poem {
         }
         poem.checkAuthor(author);
         poems.add(poem);
+        loadTime.stopTimer(startTime);
         return poems;
     }
     
@@ -4,7 +4,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+
 public class PoemDisplay {
+    private static final Histogram layoutTime =
+            Metrics.getDefault().histogram("poemDisplay.layout");
+    
     private int width;
     private Poem poem;
     private int clueLineCount;
@@ -12,6 +18,7 @@ public class PoemDisplay {
     private List<String> clueColumns = new ArrayList<String>();
     
     public PoemDisplay(Poem poem, int maxWidth) {
+        long startTime = layoutTime.startTimer();
         this.poem = poem;
         List<String> poemLines = new ArrayList<String>();
         Poem sortedPoem = poem.sortWords();
@@ -62,6 +69,7 @@ public class PoemDisplay {
             clueColumns.add(new String(column, 0, letterCount));
             clueLineCount = Math.max(clueLineCount, letterCount);
         }
+        layoutTime.stopTimer(startTime);
     }
     
     public Poem getPoem() {
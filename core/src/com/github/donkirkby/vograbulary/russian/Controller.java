@@ -3,9 +3,19 @@ package com.github.donkirkby.vograbulary.russian;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
 import com.github.donkirkby.vograbulary.ultraghost.WordList;
 
 public class Controller {
+    private static final Counter solveCount =
+            Metrics.getDefault().counter("russian.solveAttempts");
+    private static final Counter solvedPuzzleCount =
+            Metrics.getDefault().counter("russian.solved");
+    private static final Histogram newPuzzleTime =
+            Metrics.getDefault().histogram("russian.newPuzzle");
+    
     private RussianDollsScreen screen;
     private ArrayList<String> clues = new ArrayList<String>();
     private int clueIndex = -1;
@@ -32,10 +42,12 @@ public class Controller {
     public void next() {
         String clue = clues.get(++clueIndex);
         Puzzle previousPuzzle = screen.getPuzzle();
-        screen.setPuzzle(
-                previousPuzzle == null
+        long startTime = newPuzzleTime.startTimer();
+        Puzzle puzzle = previousPuzzle == null
                 ? new Puzzle(clue)
-                : new Puzzle(clue, previousPuzzle));
+                : new Puzzle(clue, previousPuzzle);
+        newPuzzleTime.stopTimer(startTime);
+        screen.setPuzzle(puzzle);
     }
 
     public void back() {
@@ -45,9 +57,13 @@ public class Controller {
 
     public void solve() {
         Puzzle puzzle = screen.getPuzzle();
+        solveCount.increment();
         puzzle.setSolved(
                 puzzle.isTargetSet() &&
                 wordList.contains(puzzle.getCombination()));
+        if (puzzle.isSolved()) {
+            solvedPuzzleCount.increment();
+        }
     }
 
     /**
@@ -4,6 +4,8 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.metrics.Tracer;
 import com.github.donkirkby.vograbulary.ultraghost.WordList;
 
 public class Puzzle {
@@ -173,16 +175,22 @@ public class Puzzle {
     }
 
     public String findSolution(WordList wordList) {
+        Tracer tracer = Metrics.getDefault().getTracer();
+        Object span = tracer.begin(Tracer.FIND_SOLUTION);
+        int checkedCount = 0;
         for (int wordIndex = 0; wordIndex < 2; wordIndex++) {
             setTargetWord(wordIndex);
             final int targetLength = targets[wordIndex].length();
             for (int charIndex = 1; charIndex < targetLength; charIndex++) {
                 setTargetCharacter(charIndex);
+                checkedCount++;
                 if (wordList.contains(getCombination())) {
+                    tracer.end(span, clue, checkedCount, getCombination());
                     return getCombination();
                 }
             }
         }
+        tracer.end(span, clue, checkedCount, null);
         throw new NoSolutionException("No solution for clue: " + clue);
     }
 }
@@ -0,0 +1,213 @@
+package com.github.donkirkby.vograbulary.stairs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * Find the words that can follow a word in a flight of stairs: the end of
+ * one word has to match the start of the next, like PLANT and ANTLER.
+ *
+ * Every prefix of every word is filed under its hash, and the entries are
+ * sorted so each hash is one run in an array. A search hashes each suffix
+ * of the word, adding one letter at a time from the end, so it only looks
+ * up one run per suffix length instead of comparing the word with the
+ * whole list.
+ */
+public class OverlapIndex {
+    private static final Histogram searchTime =
+            Metrics.getDefault().histogram("overlapIndex.findFollowers");
+
+    private WordList wordList;
+    private int minimumOverlap;
+    // One entry per prefix: the prefix hash in the high bits, and the
+    // word id in the low bits, sorted.
+    private long[] prefixes;
+
+    /**
+     * A word that can follow another, and the number of letters they share.
+     */
+    public static class Follower {
+        private int wordId;
+        private String word;
+        private int overlap;
+
+        public Follower(int wordId, String word, int overlap) {
+            this.wordId = wordId;
+            this.word = word;
+            this.overlap = overlap;
+        }
+
+        public int getWordId() {
+            return wordId;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getOverlap() {
+            return overlap;
+        }
+
+        @Override
+        public String toString() {
+            return word + "(" + overlap + ")";
+        }
+    }
+
+    /**
+     * Build the index from all the words in a word list. Words that are added
+     * to it later aren't included.
+     * @param minimumOverlap the smallest number of letters that the end of one
+     * word has to share with the start of the next
+     */
+    public OverlapIndex(WordList wordList, int minimumOverlap) {
+        this.wordList = wordList;
+        this.minimumOverlap = minimumOverlap;
+        int wordCount = wordList.size();
+        int prefixCount = 0;
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (wordList.idOf(word) == wordId) {
+                prefixCount += Math.max(0, word.length() - minimumOverlap);
+            }
+        }
+        prefixes = new long[prefixCount];
+        int count = 0;
+        for (int wordId = 0; wordId < wordCount; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (wordList.idOf(word) != wordId) {
+                continue; // skip duplicates
+            }
+            // A prefix can't be the whole word.
+            int hash = 0;
+            for (int length = 1; length < word.length(); length++) {
+                hash = 31 * hash + word.charAt(length - 1);
+                if (length >= minimumOverlap) {
+                    prefixes[count++] = (long) hash << 32 | wordId;
+                }
+            }
+        }
+        Arrays.sort(prefixes);
+    }
+
+    public int getMinimumOverlap() {
+        return minimumOverlap;
+    }
+
+    /**
+     * Find all the words that can follow a word.
+     * @param word the upper case word to follow
+     * @return the words that start with an end of word, from the longest
+     * overlap to the shortest, and from most common to least common for
+     * each overlap. The word itself is not included.
+     */
+    public List<Follower> findFollowers(String word) {
+        long startTime = searchTime.startTimer();
+        List<Follower> followers = new ArrayList<Follower>();
+        int length = word.length();
+        // Hash the suffixes from shortest to longest, then report them in
+        // the opposite order.
+        int[] suffixHashes = new int[length];
+        int hash = 0;
+        int power = 1;
+        for (int size = 1; size < length; size++) {
+            hash += word.charAt(length - size) * power;
+            power *= 31;
+            suffixHashes[size] = hash;
+        }
+        Set<Integer> foundIds = new HashSet<Integer>();
+        for (int size = length - 1; size >= minimumOverlap; size--) {
+            addFollowers(word, size, suffixHashes[size], followers, foundIds);
+        }
+        searchTime.stopTimer(startTime);
+        return followers;
+    }
+
+    private void addFollowers(
+            String word,
+            int size,
+            int hash,
+            List<Follower> followers,
+            Set<Integer> foundIds) {
+        long key = (long) hash << 32;
+        int position = findFirst(key);
+        int suffixStart = word.length() - size;
+        for (; position < prefixes.length &&
+                (prefixes[position] & 0xFFFFFFFF00000000L) == key;
+                position++) {
+            int wordId = (int) prefixes[position];
+            String candidate = wordList.wordOf(wordId);
+            // Different prefixes can have the same hash, and a word can
+            // follow with more than one overlap, so only count the longest.
+            if (candidate.length() > size &&
+                    ! candidate.equals(word) &&
+                    word.regionMatches(suffixStart, candidate, 0, size) &&
+                    foundIds.add(wordId)) {
+                followers.add(new Follower(wordId, candidate, size));
+            }
+        }
+    }
+
+    /** Binary search for the first entry that is at least as large as key. */
+    private int findFirst(long key) {
+        int low = 0;
+        int high = prefixes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prefixes[middle] < key) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the number of letters from the end of one word that match the
+     * start of another, without using the whole of either word.
+     * @return the longest overlap, or zero if there isn't one.
+     */
+    public static int getOverlap(String word1, String word2) {
+        // Match word1 against prefixes of word2, using the Knuth-Morris-Pratt
+        // failure table for word2, so each letter is only compared a few
+        // times.
+        int maxOverlap = Math.min(word1.length(), word2.length()) - 1;
+        if (maxOverlap <= 0) {
+            return 0;
+        }
+        int[] failures = new int[maxOverlap + 1];
+        int matched = 0;
+        for (int i = 1; i < maxOverlap; i++) {
+            while (matched > 0 && word2.charAt(i) != word2.charAt(matched)) {
+                matched = failures[matched];
+            }
+            if (word2.charAt(i) == word2.charAt(matched)) {
+                matched++;
+            }
+            failures[i + 1] = matched;
+        }
+        matched = 0;
+        for (int i = word1.length() - maxOverlap; i < word1.length(); i++) {
+            if (matched == maxOverlap) {
+                matched = failures[matched];
+            }
+            while (matched > 0 && word1.charAt(i) != word2.charAt(matched)) {
+                matched = failures[matched];
+            }
+            if (word1.charAt(i) == word2.charAt(matched)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.donkirkby.vograbulary.stairs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * A word stairs puzzle: starting from a word, add more words until the
+ * flight is long enough. The end of each word has to match the start of the
+ * next one, like PLANT, ANTLER, and LERP. Each flight scores the product of
+ * its overlaps, so longer overlaps are worth more.
+ */
+public class Puzzle {
+    private WordList wordList;
+    private int minimumOverlap;
+    private int targetLength;
+    private List<String> solution;
+    private ArrayList<String> words = new ArrayList<String>();
+    private List<String> wordsView = Collections.unmodifiableList(words);
+    private int score = 1;
+
+    /**
+     * Initialize.
+     * @param solution an example flight. Its first word starts the puzzle,
+     * and the player has to build a flight just as long.
+     * @param wordList the words that can be used
+     * @param minimumOverlap the smallest number of letters that the end of
+     * one word has to share with the start of the next
+     */
+    public Puzzle(
+            List<String> solution,
+            WordList wordList,
+            int minimumOverlap) {
+        if (solution.size() < 2) {
+            throw new IllegalArgumentException(
+                    "A flight needs at least two words.");
+        }
+        this.solution = Collections.unmodifiableList(
+                new ArrayList<String>(solution));
+        this.wordList = wordList;
+        this.minimumOverlap = minimumOverlap;
+        targetLength = solution.size();
+        words.add(solution.get(0));
+    }
+
+    /** The words in the player's flight so far, starting with the first. */
+    public List<String> getWords() {
+        return wordsView;
+    }
+
+    /** The number of words the flight needs, including the first. */
+    public int getTargetLength() {
+        return targetLength;
+    }
+
+    /** An example flight, including the first word. */
+    public List<String> getSolution() {
+        return solution;
+    }
+
+    /** The product of all the overlaps so far. */
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isCompleted() {
+        return words.size() >= targetLength;
+    }
+
+    /**
+     * Check if a word could be added to the flight, without changing it.
+     * @param word the word to check, case insensitive
+     */
+    public StepResult checkWord(String word) {
+        if (isCompleted()) {
+            return StepResult.COMPLETED;
+        }
+        String upper = word.toUpperCase();
+        if ( ! wordList.contains(upper)) {
+            return StepResult.NOT_A_WORD;
+        }
+        if (words.contains(upper)) {
+            return StepResult.ALREADY_USED;
+        }
+        int overlap = OverlapIndex.getOverlap(getLastWord(), upper);
+        return overlap < minimumOverlap
+                ? StepResult.NO_OVERLAP
+                : StepResult.VALID;
+    }
+
+    /**
+     * Add a word to the end of the flight, if it's valid. Nothing changes if
+     * it isn't.
+     * @param word the word to add, case insensitive
+     * @return VALID if the word was added, otherwise the reason it wasn't
+     */
+    public StepResult addWord(String word) {
+        StepResult result = checkWord(word);
+        if (result.isValid()) {
+            String upper = word.toUpperCase();
+            score *= OverlapIndex.getOverlap(getLastWord(), upper);
+            words.add(upper);
+        }
+        return result;
+    }
+
+    private String getLastWord() {
+        return words.get(words.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "Puzzle(" + words.get(0) + ", " + targetLength + ")";
+    }
+}
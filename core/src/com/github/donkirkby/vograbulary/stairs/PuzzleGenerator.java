@@ -0,0 +1,102 @@
+package com.github.donkirkby.vograbulary.stairs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.github.donkirkby.vograbulary.stairs.OverlapIndex.Follower;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * Choose random word stairs puzzles, using common words for every step.
+ */
+public class PuzzleGenerator {
+    //stopJesting
+    private static final int MAX_ATTEMPTS = 100;
+    //resumeJesting
+
+    private OverlapIndex index;
+    private WordList wordList;
+    private Random random;
+    private int vocabularySize;
+
+    /**
+     * Initialize.
+     * @param index the overlaps between words
+     * @param wordList the words in the index
+     * @param random the source of random choices
+     */
+    public PuzzleGenerator(
+            OverlapIndex index,
+            WordList wordList,
+            Random random) {
+        this.index = index;
+        this.wordList = wordList;
+        this.random = random;
+        vocabularySize = wordList.size();
+    }
+
+    /**
+     * Only use the most common words in the flights. Default is the whole
+     * word list.
+     */
+    public void setVocabularySize(int vocabularySize) {
+        this.vocabularySize = vocabularySize;
+    }
+
+    public int getVocabularySize() {
+        return vocabularySize;
+    }
+
+    /**
+     * Choose a random puzzle by starting from a random word, and choosing a
+     * random follower at each step.
+     * @param length the number of words in the flight, including the first
+     * @return the puzzle, or null if none was found after several tries.
+     */
+    public Puzzle generate(int length) {
+        if (length < 2) {
+            throw new IllegalArgumentException(
+                    "A flight needs at least two words.");
+        }
+        int wordCount = Math.min(vocabularySize, wordList.size());
+        List<String> flight = new ArrayList<String>();
+        for (int attempt = 0;
+                attempt < MAX_ATTEMPTS && wordCount > 0;
+                attempt++) {
+            flight.clear();
+            flight.add(wordList.wordOf(random.nextInt(wordCount)));
+            boolean isStuck = false;
+            while (flight.size() < length && ! isStuck) {
+                isStuck = ! addFollower(flight, wordCount);
+            }
+            if (flight.size() == length) {
+                return new Puzzle(
+                        flight,
+                        wordList,
+                        index.getMinimumOverlap());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a random common word that follows the last word in a flight.
+     * @return false if there weren't any.
+     */
+    private boolean addFollower(List<String> flight, int wordCount) {
+        String lastWord = flight.get(flight.size() - 1);
+        List<String> candidates = new ArrayList<String>();
+        for (Follower follower : index.findFollowers(lastWord)) {
+            if (follower.getWordId() < wordCount &&
+                    ! flight.contains(follower.getWord())) {
+                candidates.add(follower.getWord());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        flight.add(candidates.get(random.nextInt(candidates.size())));
+        return true;
+    }
+}
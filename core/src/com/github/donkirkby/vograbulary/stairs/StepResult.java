@@ -0,0 +1,19 @@
+package com.github.donkirkby.vograbulary.stairs;
+
+/**
+ * The result of adding a word to a flight of stairs: either VALID, or the
+ * reason the word can't be added.
+ */
+public enum StepResult {
+    //stopJesting
+    VALID,
+    NOT_A_WORD,
+    NO_OVERLAP,
+    ALREADY_USED,
+    COMPLETED;
+    //resumeJesting
+    
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -1,23 +1,40 @@
 package com.github.donkirkby.vograbulary.ultraghost;
 
-import java.util.Iterator;
-
+import com.github.donkirkby.vograbulary.SnapshotReader;
+import com.github.donkirkby.vograbulary.SnapshotWriter;
 import com.github.donkirkby.vograbulary.VograbularyPreferences;
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.metrics.Tracer;
 
 public class ComputerStudent extends Student {
     private static final long serialVersionUID = 2114858077675128651L;
+    private static final Histogram searchBatchTime =
+            Metrics.getDefault().histogram("computerStudent.searchBatch");
     private int searchBatchSize = 1;
     private int maxSearchBatchCount = Integer.MAX_VALUE;
     private int vocabularySize;
-    private transient int searchBatchCount;
-    private transient int searchedWordsCount;
     private transient Puzzle currentPuzzle;
-    private transient Puzzle searchPuzzle; // used to search for the best solution.
-    private transient Iterator<String> itr;
+    private transient Puzzle searchPuzzle; // used to check search candidates
+    private transient SolutionSearch solutionSearch;
+    
+    // The search cursor identifies the puzzle being searched, the next word
+    // to check, and the best word so far, so an interrupted search can resume.
+    private String searchLetters;
+    private String searchPreviousWord;
+    private int searchMinimumWordLength;
+    private int searchIndex;
+    private int bestWordId = WordList.NOT_FOUND;
+    private int searchBatchCount;
+    private int searchedWordsCount;
     
     public ComputerStudent(VograbularyPreferences preferences) {
+        this(preferences.getComputerStudentVocabularySize());
+    }
+    
+    private ComputerStudent(int vocabularySize) {
         super("Computer");
-        vocabularySize = preferences.getComputerStudentVocabularySize();
+        this.vocabularySize = vocabularySize;
     }
     
     public void setSearchBatchSize(int searchBatchSize) {
@@ -33,46 +50,152 @@ public class ComputerStudent extends Student {
         searchBatchSize = vocabularySize / maxSearchBatchCount;
     }
     
+    /**
+     * Start searching for solutions to a puzzle. If the search cursor is
+     * already on an equivalent puzzle, the search continues from where it
+     * stopped.
+     */
     @Override
     public void startSolving(Puzzle puzzle) {
         currentPuzzle = puzzle;
-        searchPuzzle = new Puzzle(puzzle.getLetters(), this);
-        searchPuzzle.setMinimumWordLength(puzzle.getMinimumWordLength());
-        searchPuzzle.setPreviousWord(puzzle.getPreviousWord());
-        searchPuzzle.setSolution(Puzzle.NO_SOLUTION);
-        searchBatchCount = 0;
-        searchedWordsCount = 0;
+        if ( ! isSearching(puzzle)) {
+            searchLetters = puzzle.getLetters();
+            searchPreviousWord = puzzle.getPreviousWord();
+            searchMinimumWordLength = puzzle.getMinimumWordLength();
+            searchIndex = 0;
+            bestWordId = WordList.NOT_FOUND;
+            searchBatchCount = 0;
+            searchedWordsCount = 0;
+        }
+        searchPuzzle = new Puzzle(searchLetters, this);
+        searchPuzzle.setMinimumWordLength(searchMinimumWordLength);
+        searchPuzzle.setPreviousWord(searchPreviousWord);
         if (currentPuzzle.getOwner() == this) {
             getListener().showThinking();
         }
-        itr = getWordList().iterator();
+    }
+    
+    /**
+     * Check if the search cursor is on a puzzle with the same letters and
+     * restrictions.
+     */
+    private boolean isSearching(Puzzle puzzle) {
+        return puzzle.getLetters().equals(searchLetters) &&
+                puzzle.getMinimumWordLength() == searchMinimumWordLength &&
+                (puzzle.getPreviousWord() == null
+                ? searchPreviousWord == null
+                : puzzle.getPreviousWord().equals(searchPreviousWord));
     }
     
     @Override
     public boolean runSearchBatch() {
+        Tracer tracer = Metrics.getDefault().getTracer();
+        Object span = tracer.begin(Tracer.SEARCH_BATCH);
+        long startTime = searchBatchTime.startTimer();
+        int startCount = searchedWordsCount;
+        try {
+            return runTimedSearchBatch();
+        }
+        finally {
+            searchBatchTime.stopTimer(startTime);
+            tracer.end(
+                    span,
+                    searchLetters,
+                    searchedWordsCount - startCount,
+                    getBestWord());
+        }
+    }
+    
+    private boolean runTimedSearchBatch() {
         checkCurrentPuzzle();
         searchBatchCount++;
+        WordList wordList = getWordList();
+        if (isHyperghostChain() && searchIndex < wordList.size()) {
+            findBestInIndex(wordList);
+        }
         int wordCount = Math.min(
                 searchBatchSize, 
                 vocabularySize 
                 - searchedWordsCount);
-        for (int i = 0; i < wordCount && itr.hasNext(); i++) {
-            searchPuzzle.setResponse(itr.next());
-            if (searchPuzzle.getResult().isImproved()) {
-                searchPuzzle.setSolution(searchPuzzle.getResponse());
-            }
+        int searchEnd = searchIndex + Math.min(
+                wordCount,
+                wordList.size() - searchIndex);
+        // Other students in the match may have scanned these words already.
+        SolutionSearch search = getSolutionSearch(wordList);
+        search.scanTo(searchEnd);
+        int candidateId = search.findBestId(searchEnd);
+        if (candidateId != WordList.NOT_FOUND &&
+                searchPuzzle.isImprovement(
+                        wordList.wordOf(candidateId),
+                        getBestWord())) {
+            bestWordId = candidateId;
         }
+        searchIndex = searchEnd;
         searchedWordsCount += wordCount;
+        boolean isWordListFinished = searchIndex >= wordList.size();
         if (searchBatchCount >= maxSearchBatchCount 
-                || ! itr.hasNext()
+                || isWordListFinished
                 || searchedWordsCount >= vocabularySize) {
             if (currentPuzzle.getOwner() == this) {
-                currentPuzzle.setSolution(searchPuzzle.getSolution());
+                currentPuzzle.setSolution(getBestWord());
                 getListener().askForResponse();
                 return true;
             }
         }
-        return ! itr.hasNext();
+        return isWordListFinished;
+    }
+    
+    /**
+     * Check if the current puzzle continues a Hyperghost chain, where the same
+     * letters are used with a new previous word. The solution index for the
+     * letters is probably cached from the last puzzle.
+     */
+    private boolean isHyperghostChain() {
+        Match match = getMatch();
+        return match != null &&
+                match.isHyperghost() &&
+                searchPuzzle.getPreviousWord() != null;
+    }
+    
+    /**
+     * Jump to the end of the search by looking up the best solution in the
+     * index of solutions for the puzzle letters.
+     */
+    private void findBestInIndex(WordList wordList) {
+        int searchEnd = Math.min(
+                wordList.size(),
+                searchIndex + vocabularySize - searchedWordsCount);
+        String best = wordList.getSolutionIndex(searchLetters).findBest(
+                searchPuzzle.getPreviousWordUpper(),
+                searchMinimumWordLength,
+                searchEnd);
+        if (best != null) {
+            int wordId = wordList.idOf(best);
+            if (bestWordId == WordList.NOT_FOUND ||
+                    searchPuzzle.isImprovement(best, getBestWord())) {
+                bestWordId = wordId;
+            }
+        }
+        searchedWordsCount += searchEnd - searchIndex;
+        searchIndex = searchEnd;
+    }
+    
+    private SolutionSearch getSolutionSearch(WordList wordList) {
+        if (solutionSearch == null ||
+                ! solutionSearch.isSearching(searchPuzzle, wordList)) {
+            Match match = getMatch();
+            solutionSearch = match == null
+                    ? new SolutionSearch(searchPuzzle, wordList)
+                    : match.getSolutionSearch(searchPuzzle, wordList);
+        }
+        return solutionSearch;
+    }
+    
+    /** The best solution found so far, or NO_SOLUTION if none. */
+    private String getBestWord() {
+        return bestWordId == WordList.NOT_FOUND
+                ? Puzzle.NO_SOLUTION
+                : getWordList().wordOf(bestWordId);
     }
 
     private void checkCurrentPuzzle() {
@@ -89,7 +212,7 @@ public class ComputerStudent extends Student {
             throw new IllegalStateException(
                     "Called prepareResponse() before startSolving().");
         }
-        String challenge = searchPuzzle.getSolution();
+        String challenge = getBestWord();
         currentPuzzle.setResponse(challenge);
         if ( ! currentPuzzle.getResult().isImproved()) {
             currentPuzzle.setResponse(Puzzle.NO_SOLUTION);
@@ -99,4 +222,49 @@ public class ComputerStudent extends Student {
     public Puzzle getCurrentPuzzle() {
         return currentPuzzle;
     }
+    
+    @Override
+    void writeSnapshot(SnapshotWriter writer) {
+        super.writeSnapshot(writer);
+        writer.writeInt(vocabularySize);
+        writer.writeInt(searchBatchSize);
+        writer.writeInt(maxSearchBatchCount);
+        writer.writeString(searchLetters);
+        writer.writeString(searchPreviousWord);
+        writer.writeInt(searchMinimumWordLength);
+        writer.writeInt(searchIndex);
+        writer.writeString(getBestWord());
+        writer.writeInt(searchBatchCount);
+        writer.writeInt(searchedWordsCount);
+    }
+    
+    /**
+     * Read a computer student from a snapshot.
+     * @param wordList the word list the student will use. If it's shorter
+     * than when the snapshot was saved, the search goes back to the end of
+     * it, and the best word is forgotten if it isn't in the list.
+     */
+    static ComputerStudent readSnapshot(
+            SnapshotReader reader,
+            WordList wordList) {
+        reader.readString(); // name is always the same
+        ComputerStudent student = new ComputerStudent(0);
+        student.readSnapshotFields(reader);
+        student.vocabularySize = reader.readInt();
+        student.searchBatchSize = reader.readInt();
+        student.maxSearchBatchCount = reader.readInt();
+        student.searchLetters = reader.readString();
+        student.searchPreviousWord = reader.readString();
+        student.searchMinimumWordLength = reader.readInt();
+        int savedSearchIndex = reader.readInt();
+        String bestWord = reader.readString();
+        student.searchBatchCount = reader.readInt();
+        student.searchedWordsCount = reader.readInt();
+        student.searchIndex = Math.min(savedSearchIndex, wordList.size());
+        student.searchedWordsCount -= savedSearchIndex - student.searchIndex;
+        student.bestWordId = bestWord.equals(Puzzle.NO_SOLUTION)
+                ? WordList.NOT_FOUND
+                : wordList.idOf(bestWord);
+        return student;
+    }
 }
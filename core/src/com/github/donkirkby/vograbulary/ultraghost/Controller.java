@@ -1,11 +1,15 @@
 package com.github.donkirkby.vograbulary.ultraghost;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 
 import com.github.donkirkby.vograbulary.Scheduler;
 import com.github.donkirkby.vograbulary.VograbularyPreferences;
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
 import com.github.donkirkby.vograbulary.ultraghost.Student.StudentListener;
 
 public class Controller implements StudentListener {
@@ -14,6 +18,12 @@ public class Controller implements StudentListener {
     private static final int SEARCH_MILLISECONDS = 10;
     private static final int MATCH_SCORE = 300;
     //resumeJesting
+    private static final Counter puzzleCount =
+            Metrics.getDefault().counter("ultraghost.puzzles");
+    private static final Histogram searchTime =
+            Metrics.getDefault().histogram("ultraghost.searchTask");
+    private static final Histogram hintTime =
+            Metrics.getDefault().histogram("ultraghost.findNextBetter");
 
     private UltraghostRandom random = new UltraghostRandom();
     private VograbularyPreferences preferences;
@@ -88,6 +98,7 @@ public class Controller implements StudentListener {
 
         @Override
         public void run() {
+            long startTime = searchTime.startTimer();
             Iterator<Student> itr = searchingStudents.iterator();
             while(itr.hasNext()) {
                 Student student = itr.next();
@@ -99,6 +110,7 @@ public class Controller implements StudentListener {
             if (searchingStudents.size() == 0) {
                 scheduler.cancel(this);
             }
+            searchTime.stopTimer(startTime);
         }
     }
     
@@ -117,6 +129,23 @@ public class Controller implements StudentListener {
         screen.focusResponse();
     }
     
+    /**
+     * Resume a match that was restored from a snapshot, replacing the
+     * current students with the match's students.
+     */
+    public void resumeMatch(Match match) {
+        students.clear();
+        for (Student student : match.getStudents()) {
+            students.add(student);
+            student.setListener(this);
+            student.setWordList(wordList);
+            student.setMatch(match);
+        }
+        match.setRandom(random);
+        screen.setMatch(match);
+        restart();
+    }
+    
     public void start() {
         getMatch().createPuzzle(wordList);
         restart();
@@ -124,6 +153,7 @@ public class Controller implements StudentListener {
 
     public void restart() {
         Puzzle puzzle = getMatch().getPuzzle();
+        puzzleCount.increment();
         watchPuzzle(puzzle);
         screen.refreshPuzzle();
         for (Student student : students) {
@@ -150,14 +180,16 @@ public class Controller implements StudentListener {
                 scheduler.cancel(searchTask);
                 searchTask = null;
                 puzzle.getOwner().addScore(puzzle.getScore());
+                long startTime = hintTime.startTimer();
                 String hint = puzzle.findNextBetter();
+                hintTime.stopTimer(startTime);
                 puzzle.setHint(hint == null ? "Perfect!" : "hint: " + hint);
                 screen.focusNextButton();
             }
             
             @Override
             public void changed() {
-                screen.refreshPuzzle();
+                screen.refreshPuzzle(puzzle.getChangedFields());
                 if (puzzle.getResponse() != null && ! puzzle.isCompleted()) {
                     screen.focusResponse();
                 }
@@ -188,17 +220,34 @@ public class Controller implements StudentListener {
             return;
         }
         if ( ! puzzle.getResult().isValidSolution()) {
+            if (puzzle.getResult() == WordResult.NOT_A_WORD) {
+                List<String> suggestions =
+                        puzzle.suggestSolutions(puzzle.getSolution(), 1);
+                puzzle.setHint(
+                        suggestions.isEmpty()
+                        ? null
+                        : "Did you mean " + suggestions.get(0) + "?");
+            }
+            else {
+                // Nothing changed, but show the rejected solution again.
+                screen.refreshPuzzle(EnumSet.of(Puzzle.Field.SOLUTION));
+            }
             screen.focusSolution();
         }
         else {
-            for (Student student : students) {
-                if (student != puzzle.getOwner()) {
-                    student.prepareResponse();
+            puzzle.beginUpdate();
+            try {
+                for (Student student : students) {
+                    if (student != puzzle.getOwner()) {
+                        student.prepareResponse();
+                    }
                 }
             }
+            finally {
+                puzzle.endUpdate();
+            }
             scheduler.cancel(searchTask);
         }
-        screen.refreshPuzzle();
     }
 
     public void cancelMatch() {
@@ -4,6 +4,8 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
 
+import com.github.donkirkby.vograbulary.SnapshotReader;
+import com.github.donkirkby.vograbulary.SnapshotWriter;
 
 public class Match implements Serializable {
     private static final long serialVersionUID = 3147466969252314807L;
@@ -14,6 +16,7 @@ public class Match implements Serializable {
     private int studentIndex = Integer.MIN_VALUE;
     private Puzzle puzzle;
     private int minimumWordLength = 4;
+    private transient SolutionSearch solutionSearch;
 
     public Match(int matchScore, Student... students) {
         this.matchScore = matchScore;
@@ -143,7 +146,50 @@ public class Match implements Serializable {
         return isHyperghost;
     }
     
+    /**
+     * Get a search for solutions that is shared by all the computer students
+     * in this match, so the word list is only scanned once for each puzzle.
+     * @param searchPuzzle a puzzle with the letters and restrictions to
+     * search for
+     * @param wordList the words to search
+     */
+    public SolutionSearch getSolutionSearch(
+            Puzzle searchPuzzle,
+            WordList wordList) {
+        if (solutionSearch == null ||
+                ! solutionSearch.isSearching(searchPuzzle, wordList)) {
+            solutionSearch = new SolutionSearch(searchPuzzle, wordList);
+        }
+        return solutionSearch;
+    }
+    
     public List<Student> getStudents() {
         return Arrays.asList(students);
     }
+    
+    /** Write this match's state for MatchSnapshot, after the students. */
+    void writeSnapshot(SnapshotWriter writer) {
+        writer.writeInt(matchScore);
+        writer.writeBoolean(isHyperghost);
+        writer.writeInt(studentIndex);
+        writer.writeInt(minimumWordLength);
+        writer.writeBoolean(puzzle != null);
+        if (puzzle != null) {
+            puzzle.writeSnapshot(writer, getStudents());
+        }
+    }
+    
+    static Match readSnapshot(
+            SnapshotReader reader,
+            Student[] students,
+            WordList wordList) {
+        Match match = new Match(reader.readInt(), students);
+        match.isHyperghost = reader.readBoolean();
+        match.studentIndex = reader.readInt();
+        match.minimumWordLength = reader.readInt();
+        if (reader.readBoolean()) {
+            match.puzzle = Puzzle.readSnapshot(reader, students, wordList);
+        }
+        return match;
+    }
 }
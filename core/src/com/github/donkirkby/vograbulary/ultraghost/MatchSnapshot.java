@@ -0,0 +1,79 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.SnapshotReader;
+import com.github.donkirkby.vograbulary.SnapshotWriter;
+
+/**
+ * Save a match's state to a compact binary snapshot, and restore it again.
+ * 
+ * The computer students keep their settings. This is much smaller and faster
+ * than Java serialization, and it can be stored in an Android bundle.
+ * 
+ * Words are stored as strings, not word ids, because a snapshot may be
+ * restored before the whole word list has loaded again, or with a different
+ * version of the word list.
+ */
+public class MatchSnapshot {
+    //stopJesting
+    private static final int VERSION = 3;
+    private static final int STUDENT_TYPE = 0;
+    private static final int COMPUTER_STUDENT_TYPE = 1;
+    //resumeJesting
+    
+    private MatchSnapshot() {
+    }
+    
+    /**
+     * Save a match, its students, and its current puzzle.
+     * @param match the match to save
+     * @return the snapshot
+     */
+    public static byte[] save(Match match) {
+        SnapshotWriter writer = new SnapshotWriter();
+        writer.writeInt(VERSION);
+        List<Student> students = match.getStudents();
+        writer.writeInt(students.size());
+        for (Student student : students) {
+            writer.writeInt(
+                    student instanceof ComputerStudent
+                    ? COMPUTER_STUDENT_TYPE
+                    : STUDENT_TYPE);
+            student.writeSnapshot(writer);
+        }
+        match.writeSnapshot(writer);
+        return writer.toByteArray();
+    }
+    
+    /**
+     * Restore a match from a snapshot.
+     * @param snapshot the bytes that were returned by save()
+     * @param wordList the word list to play with. It doesn't have to have
+     * the same words as when the match was saved.
+     * @return a new match with new students and a new puzzle. Listeners have
+     * to be added again.
+     */
+    public static Match restore(byte[] snapshot, WordList wordList) {
+        SnapshotReader reader = new SnapshotReader(snapshot);
+        int version = reader.readInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException(
+                    "Unknown snapshot version: " + version + ".");
+        }
+        Student[] students = new Student[reader.readInt()];
+        for (int i = 0; i < students.length; i++) {
+            int studentType = reader.readInt();
+            Student student = studentType == COMPUTER_STUDENT_TYPE
+                    ? ComputerStudent.readSnapshot(reader, wordList)
+                    : Student.readSnapshot(reader);
+            student.setWordList(wordList);
+            students[i] = student;
+        }
+        Match match = Match.readSnapshot(reader, students, wordList);
+        for (Student student : students) {
+            student.setMatch(match);
+        }
+        return match;
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Convert a word list to a compact binary form, and back again. It's about
+ * two thirds the size of the text file.
+ *
+ * The form starts with the number of words in four bytes, then each letter
+ * takes five bits: A is 1, Z is 26, and 0 ends a word. This doesn't use
+ * java.io streams, because they aren't available under GWT.
+ */
+public class PackedWordList {
+    //stopJesting
+    private static final int BITS_PER_LETTER = 5;
+    private static final int END_OF_WORD = 0;
+    private static final int HEADER_SIZE = 4;
+    //resumeJesting
+
+    private byte[] buffer;
+    private int bitPosition;
+
+    private PackedWordList(byte[] buffer, int bitPosition) {
+        this.buffer = buffer;
+        this.bitPosition = bitPosition;
+    }
+
+    /**
+     * Pack a list of words.
+     * @param words the words, in either case. They can only contain the
+     * letters A to Z.
+     * @return the packed bytes
+     */
+    public static byte[] pack(List<String> words) {
+        int letterCount = 0;
+        for (String word : words) {
+            letterCount += word.length() + 1;
+        }
+        int bitCount = HEADER_SIZE * 8 + letterCount * BITS_PER_LETTER;
+        PackedWordList packed =
+                new PackedWordList(new byte[(bitCount + 7) / 8], 0);
+        packed.write(words.size() >>> 16, 16);
+        packed.write(words.size(), 16);
+        for (String word : words) {
+            if (word.length() == 0) {
+                throw new IllegalArgumentException(
+                        "Empty words can't be packed.");
+            }
+            for (int i = 0; i < word.length(); i++) {
+                char c = Character.toUpperCase(word.charAt(i));
+                if (c < 'A' || 'Z' < c) {
+                    throw new IllegalArgumentException(
+                            "Only letters can be packed: " + word + ".");
+                }
+                packed.write(c - 'A' + 1, BITS_PER_LETTER);
+            }
+            packed.write(END_OF_WORD, BITS_PER_LETTER);
+        }
+        return packed.buffer;
+    }
+
+    /**
+     * Unpack a list of words that was packed by pack().
+     * @return the words in lower case, like the text file
+     */
+    public static List<String> unpack(byte[] packedWords) {
+        PackedWordList packed = new PackedWordList(packedWords, 0);
+        int wordCount = packed.read(16) << 16 | packed.read(16);
+        List<String> words = new ArrayList<String>(wordCount);
+        char[] letters = new char[16];
+        for (int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+            int length = 0;
+            int code;
+            while ((code = packed.read(BITS_PER_LETTER)) != END_OF_WORD) {
+                if (length == letters.length) {
+                    letters = Arrays.copyOf(letters, length * 2);
+                }
+                letters[length++] = (char) ('a' + code - 1);
+            }
+            words.add(new String(letters, 0, length));
+        }
+        return words;
+    }
+
+    private void write(int value, int bitCount) {
+        for (int bit = bitCount - 1; bit >= 0; bit--) {
+            if ((value >>> bit & 1) != 0) {
+                buffer[bitPosition >>> 3] |= 0x80 >>> (bitPosition & 7);
+            }
+            bitPosition++;
+        }
+    }
+
+    private int read(int bitCount) {
+        if (bitPosition + bitCount > buffer.length * 8) {
+            throw new IllegalArgumentException(
+                    "Packed word list is truncated.");
+        }
+        int value = 0;
+        for (int i = 0; i < bitCount; i++) {
+            int bit = buffer[bitPosition >>> 3] >>> (7 - (bitPosition & 7));
+            value = value << 1 | (bit & 1);
+            bitPosition++;
+        }
+        return value;
+    }
+}
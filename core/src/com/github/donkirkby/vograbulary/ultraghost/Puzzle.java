@@ -2,26 +2,51 @@ package com.github.donkirkby.vograbulary.ultraghost;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.SnapshotReader;
+import com.github.donkirkby.vograbulary.SnapshotWriter;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.metrics.Tracer;
 
 public class Puzzle implements Serializable {
     private static final long serialVersionUID = -3638349068583271443L;
 
     public interface Listener {
         /**
-         * This is called whenever one of the fields is changed.
+         * This is called whenever one of the fields is changed. Several
+         * changes may be reported together, so call getChangedFields() to
+         * see which ones.
          */
         void changed();
         
         /**
          * This is called when the puzzle is finished. Solution and response
-         * are set.
+         * are set. It's called before the changed event that finished the
+         * puzzle, so any changes that listeners make here are reported in
+         * the same event.
          */
         void completed();
     }
+    
+    /** The parts of a puzzle that can change. */
+    public enum Field {
+        SOLUTION,
+        RESPONSE,
+        HINT,
+        PAUSED,
+        COMPLETED;
+        
+        int getFlag() {
+            return 1 << ordinal();
+        }
+    }
     public static String NOT_SET = null;
     public static String NO_SOLUTION = "";
     public static float MAX_DELAY = 50; // seconds
     public static float PENALTY_SECONDS = 5;
+    public static int MAX_SUGGESTION_DISTANCE = 2;
     
     private String letters;
     private String solution;
@@ -31,6 +56,7 @@ public class Puzzle implements Serializable {
     private transient WordList wordList;
     private int minimumWordLength = 4;
     private String previousWord;
+    private transient String previousWordUpper;
     private transient ArrayList<Listener> listeners = 
             new ArrayList<Listener>();
     private boolean isComplete;
@@ -39,6 +65,12 @@ public class Puzzle implements Serializable {
     private float solutionDelay;
     private float responseDelay;
     private WordResult cachedResult = WordResult.UNKNOWN;
+    // Change events are queued as flags from Field.getFlag().
+    private transient int pendingFields;
+    private transient int changedFields;
+    private transient int updateDepth;
+    private transient boolean isNotifying;
+    private transient boolean isCompletionPending;
     
     public Puzzle(String letters, Student owner, WordList wordList) {
         if (letters == null) {
@@ -103,28 +135,90 @@ public class Puzzle implements Serializable {
     }
     public void setSolution(String solution) {
         this.solution = solution;
-        onChanged();
+        onChanged(Field.SOLUTION);
         if ( ! getResult().isValidSolution()) {
             adjustScore(PENALTY_SECONDS);
         }
     }
 
     /**
-     * Raise the changed event to any listeners.
+     * Queue a change event for any listeners. The event is raised right away,
+     * unless an update is in progress or the listeners are already being
+     * notified. Then it's combined with any other changes and raised when
+     * that finishes.
      */
-    private void onChanged() {
+    private void onChanged(Field field) {
         cachedResult = WordResult.UNKNOWN;
         getResult();
-        boolean isJustCompleted =
-                isComplete
-                ? false
-                : (isComplete = isTimedOut || cachedResult.isCompleted());
-        for (Listener listener : listeners) {
-            listener.changed();
-            if (isJustCompleted) {
-                listener.completed();
+        pendingFields |= field.getFlag();
+        if ( ! isComplete && (isTimedOut || cachedResult.isCompleted())) {
+            isComplete = true;
+            isCompletionPending = true;
+            pendingFields |= Field.COMPLETED.getFlag();
+        }
+        raiseChanges();
+    }
+    
+    private void raiseChanges() {
+        if (updateDepth > 0 || isNotifying) {
+            return;
+        }
+        isNotifying = true;
+        try {
+            while (pendingFields != 0) {
+                if (isCompletionPending) {
+                    isCompletionPending = false;
+                    for (Listener listener : listeners) {
+                        listener.completed();
+                    }
+                }
+                changedFields = pendingFields;
+                pendingFields = 0;
+                for (Listener listener : listeners) {
+                    listener.changed();
+                }
+            }
+        }
+        finally {
+            changedFields = 0;
+            isNotifying = false;
+        }
+    }
+    
+    /**
+     * Start a group of changes that will be reported in a single changed
+     * event when endUpdate() is called. Calls can be nested.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+    
+    /**
+     * Finish a group of changes that was started by beginUpdate(), and raise
+     * the changed event if anything changed.
+     */
+    public void endUpdate() {
+        if (updateDepth == 0) {
+            throw new IllegalStateException(
+                    "endUpdate() was called without beginUpdate().");
+        }
+        updateDepth--;
+        raiseChanges();
+    }
+    
+    /**
+     * Get the fields that changed in the current changed event. Outside a
+     * changed event, all the fields are returned, because a listener that
+     * refreshes then should show everything.
+     */
+    public EnumSet<Field> getChangedFields() {
+        EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+        for (Field field : Field.values()) {
+            if (changedFields == 0 || (changedFields & field.getFlag()) != 0) {
+                fields.add(field);
             }
         }
+        return fields;
     }
     
     /**
@@ -138,7 +232,7 @@ public class Puzzle implements Serializable {
     }
     public void setResponse(String response) {
         this.response = response;
-        onChanged();
+        onChanged(Field.RESPONSE);
         if ( ! isComplete) {
             adjustScore(PENALTY_SECONDS);
         }
@@ -152,7 +246,7 @@ public class Puzzle implements Serializable {
     }
     public void setHint(String hint) {
         this.hint = hint;
-        onChanged();
+        onChanged(Field.HINT);
     }
     
     /**
@@ -224,13 +318,13 @@ public class Puzzle implements Serializable {
                     ? WordResult.SKIP_NOT_IMPROVED
                     : WordResult.NOT_IMPROVED;
         }
-        String challengeUpper = response.toUpperCase();
-        if ( ! wordList.contains(challengeUpper)) {
+        if ( ! wordList.contains(response)) {
             return isSkipped
                     ? WordResult.IMPROVED_SKIP_NOT_A_WORD
                     : WordResult.IMPROVEMENT_NOT_A_WORD;
         }
-        if ( ! isMatch(challengeUpper)) {
+        String challengeUpper = response.toUpperCase();
+        if ( ! isMatchUpper(challengeUpper)) {
             return isSkipped
                     ? WordResult.IMPROVED_SKIP_NOT_A_MATCH
                     : WordResult.IMPROVEMENT_NOT_A_MATCH;
@@ -261,14 +355,14 @@ public class Puzzle implements Serializable {
         if (solution.length() == 0) {
             return WordResult.SKIPPING;
         }
-        String solutionUpper = solution.toUpperCase();
-        if ( ! wordList.contains(solutionUpper)) {
+        if ( ! wordList.contains(solution)) {
             return WordResult.NOT_A_WORD;
         }
+        String solutionUpper = solution.toUpperCase();
         if (isTooSoon(solutionUpper)) {
             return WordResult.TOO_SOON;
         }
-        return ! isMatch(solution)
+        return ! isMatchUpper(solutionUpper)
                 ? WordResult.NOT_A_MATCH
                 : solution.length() < getMinimumWordLength()
                 ? WordResult.TOO_SHORT
@@ -285,7 +379,7 @@ public class Puzzle implements Serializable {
     private boolean isTooSoon(String wordUpper) {
         if (previousWord != null) {
             WordResult solutionOverPrevious = 
-                    challengeWord(previousWord.toUpperCase(), wordUpper);
+                    challengeWord(getPreviousWordUpper(), wordUpper);
             if (solutionOverPrevious != WordResult.LATER &&
                     solutionOverPrevious != WordResult.LONGER) {
                 return true;
@@ -313,7 +407,19 @@ public class Puzzle implements Serializable {
      * @param word the word to check, case insensitive
      */
     public boolean isMatch(String word) {
-        String upper = word.toUpperCase();
+        return isMatchUpper(word.toUpperCase());
+    }
+    
+    private boolean isMatchUpper(String upper) {
+        return matchesLetters(letters, upper);
+    }
+    
+    /**
+     * Check if a word is a match to some puzzle letters.
+     * @param letters the three puzzle letters
+     * @param upper the word to check, in upper case
+     */
+    static boolean matchesLetters(String letters, String upper) {
         if (upper.charAt(upper.length()-1) != letters.charAt(2)) {
             return false;
         }
@@ -347,23 +453,62 @@ public class Puzzle implements Serializable {
      * @return a valid solution that beats both, or null if none found
      */
     public String findNextBetter() {
+        Tracer tracer = Metrics.getDefault().getTracer();
+        Object span = tracer.begin(Tracer.FIND_NEXT_BETTER);
         String bestSoFar = 
                 getResult().isImproved() 
                 ? response.toUpperCase() 
                 : getResult().isValidSolution() ? solution.toUpperCase() : "";
-        Puzzle searchPuzzle = new Puzzle(letters, owner);
-        searchPuzzle.setPreviousWord(previousWord);
-        searchPuzzle.setSolution(bestSoFar);
-        for (String word : wordList) {
-            if (word.length() < getMinimumWordLength()) {
-                continue;
-            }
-            searchPuzzle.setResponse(word);
-            if (searchPuzzle.getResult().isImproved()) {
-                return word;
+        SolutionIndex index = wordList.getSolutionIndex(letters);
+        String nextBetter = index.findMostCommonBetter(
+                bestSoFar,
+                getPreviousWordUpper(),
+                getMinimumWordLength());
+        tracer.end(span, letters, index.size(), nextBetter);
+        return nextBetter;
+    }
+    
+    /**
+     * Find valid solutions that are spelled like a word that isn't in the
+     * word list.
+     * @param word the rejected solution or response, case insensitive
+     * @param maxCount the largest number of suggestions to return
+     * @return upper case words that match the puzzle letters and
+     * restrictions, closest first, then from most common to least common
+     */
+    public List<String> suggestSolutions(String word, int maxCount) {
+        SpellingIndex.Filter filter = new SpellingIndex.Filter() {
+            @Override
+            public boolean accept(String wordUpper) {
+                return isImprovement(wordUpper, NO_SOLUTION);
             }
+        };
+        return wordList.getSpellingIndex().suggest(
+                word,
+                MAX_SUGGESTION_DISTANCE,
+                maxCount,
+                filter);
+    }
+    
+    /**
+     * Check if a word from the word list would be a valid solution that beats
+     * the best solution so far, without changing this puzzle or raising any
+     * events.
+     * @param wordUpper a word from the word list, in upper case
+     * @param bestUpper the best solution so far in upper case, or
+     * NO_SOLUTION if there isn't one yet.
+     */
+    boolean isImprovement(String wordUpper, String bestUpper) {
+        if (wordUpper.length() < getMinimumWordLength() ||
+                ! isMatchUpper(wordUpper) ||
+                isTooSoon(wordUpper)) {
+            return false;
         }
-        return null; // no improvement found.
+        if (bestUpper.length() == 0) {
+            return true;
+        }
+        WordResult result = challengeWord(bestUpper, wordUpper);
+        return result == WordResult.SHORTER || result == WordResult.EARLIER;
     }
 
     /**
@@ -386,11 +531,20 @@ public class Puzzle implements Serializable {
      */
     public void setPreviousWord(String previousWord) {
         this.previousWord = previousWord;
+        previousWordUpper = null;
     }
     public String getPreviousWord() {
         return previousWord;
     }
     
+    /** The previous word in upper case, or null if it isn't set. */
+    String getPreviousWordUpper() {
+        if (previousWordUpper == null && previousWord != null) {
+            previousWordUpper = previousWord.toUpperCase();
+        }
+        return previousWordUpper;
+    }
+    
     public void addListener(Listener listener) {
         listeners.add(listener);
     }
@@ -429,16 +583,16 @@ public class Puzzle implements Serializable {
         }
         if (getResult().isValidSolution()) {
             responseDelay += seconds;
-            if (responseDelay >= MAX_DELAY/2) {
+            if (responseDelay >= MAX_DELAY/2 && ! isTimedOut) {
                 isTimedOut = true;
-                onChanged();
+                onChanged(Field.COMPLETED);
             }
         }
         else {
             solutionDelay += seconds;
-            if (solutionDelay >= MAX_DELAY) {
+            if (solutionDelay >= MAX_DELAY && ! isTimedOut) {
                 isTimedOut = true;
-                onChanged();
+                onChanged(Field.COMPLETED);
             }
         }
     }
@@ -453,10 +607,50 @@ public class Puzzle implements Serializable {
     }
     public void setPaused(boolean isPaused) {
         this.isPaused = isPaused;
-        onChanged();
+        onChanged(Field.PAUSED);
     }
 
     public void togglePause() {
         setPaused( ! this.isPaused);
     }
+    
+    /**
+     * Write this puzzle's state for MatchSnapshot.
+     * @param students the match's students, so the owner can be written as
+     * an index.
+     */
+    void writeSnapshot(SnapshotWriter writer, List<Student> students) {
+        writer.writeString(letters);
+        writer.writeInt(students.indexOf(owner));
+        writer.writeString(solution);
+        writer.writeString(response);
+        writer.writeString(hint);
+        writer.writeString(previousWord);
+        writer.writeInt(minimumWordLength);
+        writer.writeBoolean(isComplete);
+        writer.writeBoolean(isTimedOut);
+        writer.writeBoolean(isPaused);
+        writer.writeFloat(solutionDelay);
+        writer.writeFloat(responseDelay);
+    }
+    
+    static Puzzle readSnapshot(
+            SnapshotReader reader,
+            Student[] students,
+            WordList wordList) {
+        String letters = reader.readString();
+        Student owner = students[reader.readInt()];
+        Puzzle puzzle = new Puzzle(letters, owner, wordList);
+        puzzle.solution = reader.readString();
+        puzzle.response = reader.readString();
+        puzzle.hint = reader.readString();
+        puzzle.previousWord = reader.readString();
+        puzzle.minimumWordLength = reader.readInt();
+        puzzle.isComplete = reader.readBoolean();
+        puzzle.isTimedOut = reader.readBoolean();
+        puzzle.isPaused = reader.readBoolean();
+        puzzle.solutionDelay = reader.readFloat();
+        puzzle.responseDelay = reader.readFloat();
+        return puzzle;
+    }
 }
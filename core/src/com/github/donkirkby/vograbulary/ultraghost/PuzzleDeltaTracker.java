@@ -0,0 +1,87 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+/**
+ * Remember the state of a puzzle that was last sent to clients, so that only
+ * the fields that change have to be sent next time.
+ */
+public class PuzzleDeltaTracker {
+    /** The puzzle fields that are tracked, in the order they are sent. */
+    public enum PuzzleField {
+        SOLUTION,
+        RESPONSE,
+        HINT,
+        RESULT,
+        COMPLETED;
+        
+        /** The bit for this field in a message's flags. */
+        public int getFlag() {
+            return 1 << ordinal();
+        }
+    }
+    
+    private static final PuzzleField[] FIELDS = PuzzleField.values();
+    
+    private String[] sentValues = new String[FIELDS.length];
+    
+    /** Forget what was sent, because a new puzzle has started. */
+    public void reset() {
+        for (int i = 0; i < sentValues.length; i++) {
+            sentValues[i] = null;
+        }
+    }
+    
+    /**
+     * Build a message with the fields that changed since the last one.
+     * @return the message, or null if nothing changed.
+     */
+    public UltraghostMessage createDelta(Puzzle puzzle) {
+        String[] currentValues = new String[] {
+                puzzle.getSolution(),
+                puzzle.getResponse(),
+                puzzle.getHint(),
+                puzzle.getResultDisplay(),
+                puzzle.isCompleted() ? "completed" : null
+        };
+        int flags = 0;
+        int changedCount = 0;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ( ! equals(currentValues[i], sentValues[i])) {
+                flags |= FIELDS[i].getFlag();
+                changedCount++;
+            }
+        }
+        if (flags == 0) {
+            return null;
+        }
+        String[] changedValues = new String[changedCount];
+        int changedIndex = 0;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((flags & FIELDS[i].getFlag()) != 0) {
+                changedValues[changedIndex++] = currentValues[i];
+                sentValues[i] = currentValues[i];
+            }
+        }
+        return new UltraghostMessage(
+                UltraghostMessage.Type.PUZZLE_CHANGED,
+                flags,
+                changedValues);
+    }
+    
+    /**
+     * Apply a delta message to a client's copy of the puzzle fields.
+     * @param values the field values, indexed by PuzzleField ordinal. The
+     * changed ones are replaced.
+     */
+    public static void applyDelta(UltraghostMessage message, String[] values) {
+        int valueIndex = 0;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((message.getFlags() & FIELDS[i].getFlag()) != 0) {
+                values[i] = message.getValue(valueIndex++);
+            }
+        }
+    }
+    
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
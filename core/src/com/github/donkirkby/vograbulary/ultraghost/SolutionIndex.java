@@ -0,0 +1,192 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * All the solutions to one puzzle's letters, sorted from best to worst:
+ * shortest first, then alphabetical within each length. That's the same
+ * order that solutions and previous words are compared in, so the valid
+ * solutions after a previous word are a range that can be found with a
+ * binary search.
+ *
+ * Get an index from WordList.getSolutionIndex(), which caches them.
+ */
+public class SolutionIndex {
+    private String letters;
+    private String[] words;
+    private int[] wordIds;
+
+    /**
+     * Sort solutions from best to worst.
+     */
+    private static class BetterComparator implements Comparator<String> {
+        @Override
+        public int compare(String word1, String word2) {
+            return compareSolutions(word1, word2);
+        }
+    }
+
+    /**
+     * Build the index from the words in a word list that match the letters.
+     * @param letters the three upper case letters for the puzzle
+     */
+    SolutionIndex(String letters, WordList wordList) {
+        this.letters = letters;
+        WordBitmap matches = wordList.getBitmapIndex().query()
+                .startsWith(letters.charAt(0))
+                .hasInterior(letters.charAt(1))
+                .endsWith(letters.charAt(2))
+                .find();
+        List<String> solutions = new ArrayList<String>(matches.size());
+        for (int wordId = matches.nextId(0);
+                wordId >= 0;
+                wordId = matches.nextId(wordId + 1)) {
+            solutions.add(wordList.wordOf(wordId));
+        }
+        Collections.sort(solutions, new BetterComparator());
+        words = solutions.toArray(new String[solutions.size()]);
+        wordIds = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            wordIds[i] = wordList.idOf(words[i]);
+        }
+    }
+
+    /**
+     * Compare two upper case solutions.
+     * @return a negative number if word1 is a better solution than word2,
+     * zero if they're the same, or a positive number if word1 is worse.
+     */
+    static int compareSolutions(String word1, String word2) {
+        if (word1.length() != word2.length()) {
+            return word1.length() - word2.length();
+        }
+        return word1.compareTo(word2);
+    }
+
+    public String getLetters() {
+        return letters;
+    }
+
+    /** The number of solutions in the index. */
+    public int size() {
+        return words.length;
+    }
+
+    /** Get a solution by its position, from best to worst. */
+    public String getWord(int position) {
+        return words[position];
+    }
+
+    /**
+     * Find the position of the first solution that is worse than a word.
+     * @param wordUpper any upper case word, or null to start at the beginning
+     * @return a position in the index, or size() if no solutions are worse
+     */
+    public int findFirstWorse(String wordUpper) {
+        if (wordUpper == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareSolutions(words[middle], wordUpper) <= 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the position of the first solution with at least a minimum
+     * length.
+     * @return a position in the index, or size() if all are shorter
+     */
+    public int findFirstLength(int minimumLength) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (words[middle].length() < minimumLength) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the next solution in a Hyperghost chain: the best one that is
+     * worse than the previous word.
+     * @param previousWordUpper the previous word in upper case, or null
+     * @return the solution, or null if there are none left
+     */
+    public String findNextWorse(String previousWordUpper) {
+        int position = findFirstWorse(previousWordUpper);
+        return position < words.length ? words[position] : null;
+    }
+
+    /**
+     * Find the best valid solution that is one of the most common words.
+     * @param previousWordUpper solutions must be worse than this upper case
+     * word, or null for no restriction
+     * @param minimumLength solutions must be at least this long
+     * @param vocabularySize only words with ids less than this are used
+     * @return the solution, or null if there are none
+     */
+    public String findBest(
+            String previousWordUpper,
+            int minimumLength,
+            int vocabularySize) {
+        int start = Math.max(
+                findFirstWorse(previousWordUpper),
+                findFirstLength(minimumLength));
+        for (int i = start; i < words.length; i++) {
+            if (wordIds[i] < vocabularySize) {
+                return words[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the most common valid solution that is better than the best one
+     * so far.
+     * @param bestUpper the best solution so far in upper case, or
+     * Puzzle.NO_SOLUTION if there isn't one yet.
+     * @param previousWordUpper solutions must be worse than this upper case
+     * word, or null for no restriction
+     * @param minimumLength solutions must be at least this long
+     * @return the solution, or null if there are none
+     */
+    public String findMostCommonBetter(
+            String bestUpper,
+            String previousWordUpper,
+            int minimumLength) {
+        int start = Math.max(
+                findFirstWorse(previousWordUpper),
+                findFirstLength(minimumLength));
+        int end = bestUpper.length() == 0
+                ? words.length
+                : findFirstWorse(bestUpper);
+        if (end > start && bestUpper.length() > 0 &&
+                words[end - 1].equals(bestUpper)) {
+            end--; // the same word isn't better
+        }
+        int bestPosition = -1;
+        for (int i = start; i < end; i++) {
+            if (bestPosition < 0 || wordIds[i] < wordIds[bestPosition]) {
+                bestPosition = i;
+            }
+        }
+        return bestPosition < 0 ? null : words[bestPosition];
+    }
+}
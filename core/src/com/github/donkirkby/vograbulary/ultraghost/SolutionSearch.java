@@ -0,0 +1,117 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+
+/**
+ * A search through the word list for solutions to one puzzle, shared by all
+ * the computer students in a match.
+ *
+ * The word list is sorted from most common to least common, so a student's
+ * vocabulary is a prefix of it. The search scans the list once, and records
+ * each word that improves on the best solution so far. The best solution
+ * within any vocabulary is then the last improvement before the cutoff, and
+ * students with different vocabularies only pay for scanning the largest
+ * one.
+ *
+ * Get a search from Match.getSolutionSearch().
+ */
+public class SolutionSearch {
+    private static final Counter scannedWords =
+            Metrics.getDefault().counter("solutionSearch.scannedWords");
+    
+    private WordList wordList;
+    private Puzzle searchPuzzle; // used to check search candidates
+    private int scannedCount;
+
+    // The ids of the words that improved on the best solution so far, in
+    // the order they were found.
+    private int[] improvementIds = new int[8];
+    private int improvementCount;
+
+    /**
+     * Initialize.
+     * @param searchPuzzle a puzzle with the letters and restrictions to
+     * search for. It won't be changed.
+     * @param wordList the words to search
+     */
+    public SolutionSearch(Puzzle searchPuzzle, WordList wordList) {
+        this.searchPuzzle = searchPuzzle;
+        this.wordList = wordList;
+    }
+
+    /**
+     * Check if this search is for a puzzle with the same letters and
+     * restrictions, in the same word list.
+     */
+    public boolean isSearching(Puzzle puzzle, WordList wordList) {
+        String previousWord = puzzle.getPreviousWord();
+        return wordList == this.wordList &&
+                puzzle.getLetters().equals(searchPuzzle.getLetters()) &&
+                puzzle.getMinimumWordLength() ==
+                searchPuzzle.getMinimumWordLength() &&
+                (previousWord == null
+                ? searchPuzzle.getPreviousWord() == null
+                : previousWord.equals(searchPuzzle.getPreviousWord()));
+    }
+
+    /** The number of words at the start of the word list that were checked. */
+    public int getScannedCount() {
+        return scannedCount;
+    }
+
+    /**
+     * Make sure that the search has checked the words at the start of the
+     * word list.
+     * @param wordCount the number of words to check, including any that
+     * were already checked.
+     */
+    public void scanTo(int wordCount) {
+        int searchEnd = Math.min(wordCount, wordList.size());
+        if (searchEnd <= scannedCount) {
+            return;
+        }
+        String bestWord = improvementCount == 0
+                ? Puzzle.NO_SOLUTION
+                : wordList.wordOf(improvementIds[improvementCount - 1]);
+        for (int wordId = scannedCount; wordId < searchEnd; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (searchPuzzle.isImprovement(word, bestWord)) {
+                bestWord = word;
+                addImprovement(wordId);
+            }
+        }
+        scannedWords.add(searchEnd - scannedCount);
+        scannedCount = searchEnd;
+    }
+
+    private void addImprovement(int wordId) {
+        if (improvementCount == improvementIds.length) {
+            int[] larger = new int[improvementIds.length * 2];
+            System.arraycopy(improvementIds, 0, larger, 0, improvementCount);
+            improvementIds = larger;
+        }
+        improvementIds[improvementCount++] = wordId;
+    }
+
+    /**
+     * Find the best solution among the most common words. Call scanTo()
+     * first to make sure those words have been checked.
+     * @param vocabularySize only words with ids less than this are used
+     * @return the solution's id, or WordList.NOT_FOUND if there are none
+     */
+    public int findBestId(int vocabularySize) {
+        int low = 0;
+        int high = improvementCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (improvementIds[middle] < vocabularySize) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low == 0 ? WordList.NOT_FOUND : improvementIds[low - 1];
+    }
+}
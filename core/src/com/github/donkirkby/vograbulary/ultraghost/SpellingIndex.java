@@ -0,0 +1,274 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+
+/**
+ * Find the words in a word list that are closest to a misspelled word, so
+ * players can be asked "Did you mean...?"
+ *
+ * Instead of comparing the misspelling with every word, the index files each
+ * word under itself and every way of deleting one of its letters. A search
+ * deletes letters from the misspelling and only compares the words that are
+ * filed under the same results. That finds every word that is one edit away,
+ * words with two letters swapped, and words that the misspelling has extra
+ * letters for, after comparing a few dozen words instead of the whole list.
+ *
+ * Each entry is only a hash and a word id in parallel arrays, chained in
+ * buckets, so the index doesn't hold any strings of its own.
+ *
+ * Get an index from WordList.getSpellingIndex(), which caches it.
+ */
+public class SpellingIndex {
+    private static final Counter comparisonCount =
+            Metrics.getDefault().counter("spellingIndex.comparisons");
+
+    /** Choose which words can be suggested. */
+    public interface Filter {
+        /**
+         * @param wordUpper a word from the word list, in upper case
+         * @return true if the word can be suggested
+         */
+        boolean accept(String wordUpper);
+    }
+
+    private WordList wordList;
+    private int wordCount; // distinct words
+    private int[] bucketStarts; // first entry in each bucket, or -1
+    private int bucketMask;
+    // One entry per word and per deletion from each word.
+    private int[] entryHashes;
+    private int[] entryWordIds;
+    private int[] nextEntries; // next entry in the same bucket, or -1
+    private int entryCount;
+
+    // Scratch space for searches.
+    private int[] checkedStamps; // the search that last checked each word id
+    private int stamp;
+    private int[] previousRow = new int[16];
+    private int[] currentRow = new int[16];
+    private String searchUpper;
+    private int searchDistance;
+    private Filter searchFilter;
+    private int[] bestDistances;
+    private int[] bestIds;
+    private int bestCount;
+
+    /**
+     * Build the index from all the words in a word list.
+     */
+    SpellingIndex(WordList wordList) {
+        this.wordList = wordList;
+        int size = wordList.size();
+        int totalEntries = 0;
+        for (int wordId = 0; wordId < size; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (wordList.idOf(word) == wordId) { // skip duplicates
+                totalEntries += word.length() + 1;
+            }
+        }
+        int bucketCount = Integer.highestOneBit(Math.max(totalEntries, 1));
+        bucketStarts = new int[bucketCount];
+        bucketMask = bucketCount - 1;
+        for (int i = 0; i < bucketCount; i++) {
+            bucketStarts[i] = -1;
+        }
+        entryHashes = new int[totalEntries];
+        entryWordIds = new int[totalEntries];
+        nextEntries = new int[totalEntries];
+        checkedStamps = new int[size];
+        for (int wordId = 0; wordId < size; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (wordList.idOf(word) == wordId) {
+                wordCount++;
+                addEntry(hashWithout(word, -1), wordId);
+                for (int i = 0; i < word.length(); i++) {
+                    // Deleting either letter of a double gives the same hash.
+                    if (i == 0 || word.charAt(i) != word.charAt(i - 1)) {
+                        addEntry(hashWithout(word, i), wordId);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addEntry(int hash, int wordId) {
+        int entry = entryCount++;
+        int bucket = hash & bucketMask;
+        entryHashes[entry] = hash;
+        entryWordIds[entry] = wordId;
+        nextEntries[entry] = bucketStarts[bucket];
+        bucketStarts[bucket] = entry;
+    }
+
+    /**
+     * Hash a word with one of its letters deleted.
+     * @param skip the position of the letter to delete, or -1 to keep them
+     * all
+     */
+    private static int hashWithout(String word, int skip) {
+        int hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (i != skip) {
+                hash = 31 * hash + word.charAt(i);
+            }
+        }
+        return hash;
+    }
+
+    /** The number of distinct words in the index. */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * Find the words closest to a misspelled word.
+     * @param word the misspelled word, case insensitive
+     * @param maxDistance the largest number of letters that can be inserted,
+     * deleted, or replaced to get from word to a suggestion. Words that need
+     * more than one letter deleted from them or more than one letter
+     * replaced aren't found, even if they're within this distance.
+     * @param maxCount the largest number of suggestions to return
+     * @param filter chooses which words can be suggested, or null to allow
+     * any word
+     * @return the upper case suggestions, closest first, then from most
+     * common to least common
+     */
+    public synchronized List<String> suggest(
+            String word,
+            int maxDistance,
+            int maxCount,
+            Filter filter) {
+        searchUpper = word.toUpperCase();
+        searchDistance = maxDistance;
+        searchFilter = filter;
+        bestDistances = new int[maxCount];
+        bestIds = new int[maxCount];
+        bestCount = 0;
+        if (++stamp == 0) {
+            for (int i = 0; i < checkedStamps.length; i++) {
+                checkedStamps[i] = 0;
+            }
+            stamp = 1;
+        }
+        if (maxCount > 0) {
+            searchDeletions(searchUpper, 0, maxDistance);
+        }
+        List<String> suggestions = new ArrayList<String>(bestCount);
+        for (int i = 0; i < bestCount; i++) {
+            suggestions.add(wordList.wordOf(bestIds[i]));
+        }
+        searchUpper = null;
+        searchFilter = null;
+        return suggestions;
+    }
+
+    /**
+     * Check the words filed under a variant of the misspelling, and under
+     * every way of deleting more letters from it.
+     * @param variant the misspelling with some letters deleted
+     * @param start the position of the last deletion, so the same variants
+     * aren't generated in a different order
+     * @param deletionCount the number of letters that can still be deleted
+     */
+    private void searchDeletions(String variant, int start, int deletionCount) {
+        int hash = hashWithout(variant, -1);
+        for (int entry = bucketStarts[hash & bucketMask];
+                entry >= 0;
+                entry = nextEntries[entry]) {
+            if (entryHashes[entry] == hash) {
+                check(entryWordIds[entry]);
+            }
+        }
+        if (deletionCount == 0) {
+            return;
+        }
+        for (int i = start; i < variant.length(); i++) {
+            if (i == start || variant.charAt(i) != variant.charAt(i - 1)) {
+                searchDeletions(
+                        variant.substring(0, i) + variant.substring(i + 1),
+                        i,
+                        deletionCount - 1);
+            }
+        }
+    }
+
+    /** Compare a candidate with the misspelling, and keep it if it's close. */
+    private void check(int wordId) {
+        if (checkedStamps[wordId] == stamp) {
+            return;
+        }
+        checkedStamps[wordId] = stamp;
+        String candidate = wordList.wordOf(wordId);
+        int distance = findDistance(searchUpper, candidate);
+        int maxCount = bestDistances.length;
+        if (distance > searchDistance ||
+                (bestCount == maxCount &&
+                        ! isCloser(
+                                distance,
+                                wordId,
+                                bestDistances[maxCount - 1],
+                                bestIds[maxCount - 1])) ||
+                (searchFilter != null && ! searchFilter.accept(candidate))) {
+            return;
+        }
+        int position = Math.min(bestCount, maxCount - 1);
+        while (position > 0 &&
+                isCloser(
+                        distance,
+                        wordId,
+                        bestDistances[position - 1],
+                        bestIds[position - 1])) {
+            bestDistances[position] = bestDistances[position - 1];
+            bestIds[position] = bestIds[position - 1];
+            position--;
+        }
+        bestDistances[position] = distance;
+        bestIds[position] = wordId;
+        bestCount = Math.min(bestCount + 1, maxCount);
+    }
+
+    private static boolean isCloser(
+            int distance1,
+            int wordId1,
+            int distance2,
+            int wordId2) {
+        return distance1 != distance2
+                ? distance1 < distance2
+                : wordId1 < wordId2;
+    }
+
+    /**
+     * Count the letters that have to be inserted, deleted, or replaced to
+     * change one word into another.
+     */
+    int findDistance(String word1, String word2) {
+        comparisonCount.increment();
+        int length1 = word1.length();
+        int length2 = word2.length();
+        if (previousRow.length <= length2) {
+            previousRow = new int[length2 + 1];
+            currentRow = new int[length2 + 1];
+        }
+        for (int j = 0; j <= length2; j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= length1; i++) {
+            char c1 = word1.charAt(i - 1);
+            currentRow[0] = i;
+            for (int j = 1; j <= length2; j++) {
+                int cost = c1 == word2.charAt(j - 1) ? 0 : 1;
+                currentRow[j] = Math.min(
+                        Math.min(currentRow[j - 1], previousRow[j]) + 1,
+                        previousRow[j - 1] + cost);
+            }
+            int[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+        return previousRow[length2];
+    }
+}
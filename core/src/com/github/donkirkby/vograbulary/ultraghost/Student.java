@@ -2,6 +2,9 @@ package com.github.donkirkby.vograbulary.ultraghost;
 
 import java.io.Serializable;
 
+import com.github.donkirkby.vograbulary.SnapshotReader;
+import com.github.donkirkby.vograbulary.SnapshotWriter;
+
 public class Student implements Serializable {
     private static final long serialVersionUID = -3342014979878536752L;
     public interface StudentListener {
@@ -48,6 +51,12 @@ public class Student implements Serializable {
         return score;
     }
     
+    /** Clear the score before starting a new match. */
+    public void resetScore() {
+        score = 0;
+        scoreCount = 0;
+    }
+    
     public String getName() {
         return name;
     }
@@ -93,4 +102,23 @@ public class Student implements Serializable {
     public void setMatch(Match match) {
         this.match = match;
     }
+    
+    /** Write this student's state for MatchSnapshot. */
+    void writeSnapshot(SnapshotWriter writer) {
+        writer.writeString(name);
+        writer.writeInt(score);
+        writer.writeInt(scoreCount);
+    }
+    
+    /** Read the fields written by writeSnapshot(). */
+    void readSnapshotFields(SnapshotReader reader) {
+        score = reader.readInt();
+        scoreCount = reader.readInt();
+    }
+    
+    static Student readSnapshot(SnapshotReader reader) {
+        Student student = new Student(reader.readString());
+        student.readSnapshotFields(reader);
+        return student;
+    }
 }
@@ -0,0 +1,513 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.donkirkby.vograbulary.Scheduler;
+
+/**
+ * Run many Ultraghost matches at once, pair up students for each round,
+ * and keep standings across the rounds.
+ *
+ * All the matches share one word list, so the solution indexes it caches are
+ * shared too. Instead of a screen, each match is played at a table that
+ * starts the next puzzle as soon as one is completed. Two scheduled tasks
+ * serve every table: one runs a search batch for each computer student that
+ * is searching, and one runs the score timers.
+ */
+public class Tournament {
+    //stopJesting
+    private static final int SEARCH_MILLISECONDS = 10;
+    private static final int DEFAULT_MATCH_SCORE = 300;
+    //resumeJesting
+
+    public enum Pairing {
+        /** Every student plays every other student once. */
+        ROUND_ROBIN,
+        /**
+         * Students with similar standings play each other, without
+         * repeating a pairing.
+         */
+        SWISS
+    }
+
+    public interface Listener {
+        /** This is called when a match has a winner. */
+        void matchCompleted(Match match);
+
+        /** This is called when all the matches in a round are completed. */
+        void roundCompleted(int roundNumber);
+    }
+
+    /** A student's results so far in the tournament. */
+    public static class Standing {
+        private Student student;
+        private int wins;
+        private int losses;
+        private int byes;
+        private int totalScore;
+
+        private Standing(Student student) {
+            this.student = student;
+        }
+
+        public Student getStudent() {
+            return student;
+        }
+
+        /** Matches won, including byes. */
+        public int getWins() {
+            return wins;
+        }
+
+        public int getLosses() {
+            return losses;
+        }
+
+        /** Rounds where there was no one left to play, counted as wins. */
+        public int getByes() {
+            return byes;
+        }
+
+        /** Points scored in all matches. */
+        public int getTotalScore() {
+            return totalScore;
+        }
+
+        @Override
+        public String toString() {
+            return student.getName() + " " + wins + "-" + losses +
+                    " (" + totalScore + ")";
+        }
+    }
+
+    private static final Comparator<Standing> STANDING_ORDER =
+            new Comparator<Standing>() {
+        @Override
+        public int compare(Standing standing1, Standing standing2) {
+            if (standing1.wins != standing2.wins) {
+                return standing2.wins - standing1.wins;
+            }
+            return standing2.totalScore - standing1.totalScore;
+        }
+    };
+
+    private WordList wordList;
+    private Scheduler scheduler;
+    private UltraghostRandom random = new UltraghostRandom();
+    private Pairing pairing = Pairing.ROUND_ROBIN;
+    private int matchScore = DEFAULT_MATCH_SCORE;
+    private int minimumWordLength = 4;
+    private boolean isHyperghost;
+    private Listener listener;
+
+    private List<Student> students = new ArrayList<Student>();
+    private Map<Student, Standing> standings =
+            new HashMap<Student, Standing>();
+    private Set<String> playedPairs = new HashSet<String>();
+    private int roundNumber;
+    private List<Table> tables = new ArrayList<Table>();
+    private Map<Student, Table> searchingStudents =
+            new HashMap<Student, Table>();
+    private Runnable searchTask;
+    private Runnable scoreTask;
+
+    public Tournament(WordList wordList, Scheduler scheduler) {
+        this.wordList = wordList;
+        this.scheduler = scheduler;
+        random.loadWordList(wordList);
+    }
+
+    /**
+     * Replace the default implementation of the random generator. Useful for
+     * testing.
+     */
+    public void setRandom(UltraghostRandom random) {
+        this.random = random;
+        random.loadWordList(wordList);
+    }
+
+    public void setPairing(Pairing pairing) {
+        this.pairing = pairing;
+    }
+
+    /** Set the score required to win each match. */
+    public void setMatchScore(int matchScore) {
+        this.matchScore = matchScore;
+    }
+
+    public void setMinimumWordLength(int minimumWordLength) {
+        this.minimumWordLength = minimumWordLength;
+    }
+
+    public void setHyperghost(boolean isHyperghost) {
+        this.isHyperghost = isHyperghost;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void addStudent(Student student) {
+        if (roundNumber > 0) {
+            throw new IllegalStateException(
+                    "Students can't join after the tournament starts.");
+        }
+        students.add(student);
+        standings.put(student, new Standing(student));
+        student.setWordList(wordList);
+    }
+
+    /** The number of the current round, starting at 1. */
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    /**
+     * The number of rounds needed for every student to play every other
+     * student once.
+     */
+    public int getRoundRobinRoundCount() {
+        int studentCount = students.size();
+        return studentCount % 2 == 0 ? studentCount - 1 : studentCount;
+    }
+
+    /** True if a round is being played. */
+    public boolean isRoundActive() {
+        return ! tables.isEmpty();
+    }
+
+    /** Get the matches in the current round that haven't finished yet. */
+    public List<Match> getActiveMatches() {
+        List<Match> matches = new ArrayList<Match>();
+        for (Table table : tables) {
+            matches.add(table.match);
+        }
+        return matches;
+    }
+
+    /** Get the standings, from best to worst. */
+    public List<Standing> getStandings() {
+        List<Standing> sorted = new ArrayList<Standing>(standings.values());
+        Collections.sort(sorted, STANDING_ORDER);
+        return sorted;
+    }
+
+    /**
+     * Pair up the students and start a match for each pair.
+     * @return the new matches
+     */
+    public List<Match> startRound() {
+        if (isRoundActive()) {
+            throw new IllegalStateException(
+                    "Round " + roundNumber + " is still being played.");
+        }
+        if (students.size() < 2) {
+            throw new IllegalStateException(
+                    "A tournament needs at least two students.");
+        }
+        roundNumber++;
+        List<Student[]> pairs = pairing == Pairing.SWISS
+                ? pairSwiss()
+                : pairRoundRobin(roundNumber - 1);
+        List<Match> matches = new ArrayList<Match>();
+        for (Student[] pair : pairs) {
+            if (pair[1] == null) {
+                Standing standing = standings.get(pair[0]);
+                standing.byes++;
+                standing.wins++;
+                continue;
+            }
+            playedPairs.add(getPairKey(pair[0], pair[1]));
+            Table table = new Table(pair);
+            tables.add(table);
+            matches.add(table.match);
+        }
+        if (searchTask == null) {
+            searchTask = new SearchTask();
+            scheduler.scheduleRepeating(searchTask, SEARCH_MILLISECONDS);
+            scoreTask = new ScoreTask();
+            scheduler.scheduleRepeating(
+                    scoreTask,
+                    Controller.SCORE_MILLISECONDS);
+        }
+        for (Table table : new ArrayList<Table>(tables)) {
+            table.startPuzzle();
+        }
+        return matches;
+    }
+
+    /**
+     * Pair students with the circle method: the first student stays in
+     * place, and the others rotate one seat each round.
+     * @param round the round number, starting at zero
+     * @return the pairs, with a null opponent for a bye.
+     */
+    private List<Student[]> pairRoundRobin(int round) {
+        List<Student> seats = new ArrayList<Student>(students);
+        if (seats.size() % 2 != 0) {
+            seats.add(null);
+        }
+        int seatCount = seats.size();
+        int rotation = round % (seatCount - 1);
+        List<Student> rotated = new ArrayList<Student>(seatCount);
+        rotated.add(seats.get(0));
+        for (int i = 0; i < seatCount - 1; i++) {
+            rotated.add(seats.get(
+                    1 + (i + seatCount - 1 - rotation) % (seatCount - 1)));
+        }
+        List<Student[]> pairs = new ArrayList<Student[]>();
+        for (int i = 0; i < seatCount / 2; i++) {
+            Student student1 = rotated.get(i);
+            Student student2 = rotated.get(seatCount - 1 - i);
+            if (student1 == null) {
+                pairs.add(new Student[] {student2, null});
+            }
+            else {
+                pairs.add(new Student[] {student1, student2});
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Pair each student with the best ranked student below them that they
+     * haven't played yet, backing up to an earlier pair when that leaves
+     * someone with nobody new to play. If there's no way to avoid a repeat,
+     * each student plays the next one in the standings instead. If there's
+     * an odd number, the lowest ranked student without a bye gets one.
+     */
+    private List<Student[]> pairSwiss() {
+        List<Student> unpaired = new ArrayList<Student>();
+        for (Standing standing : getStandings()) {
+            unpaired.add(standing.student);
+        }
+        List<Student[]> pairs = new ArrayList<Student[]>();
+        if (unpaired.size() % 2 != 0) {
+            Student byeStudent = unpaired.get(unpaired.size() - 1);
+            for (int i = unpaired.size() - 1; i >= 0; i--) {
+                if (standings.get(unpaired.get(i)).byes == 0) {
+                    byeStudent = unpaired.get(i);
+                    break;
+                }
+            }
+            unpaired.remove(byeStudent);
+            pairs.add(new Student[] {byeStudent, null});
+        }
+        if ( ! pairNewOpponents(unpaired, pairs)) {
+            for (int i = 0; i < unpaired.size(); i += 2) {
+                pairs.add(new Student[] {
+                        unpaired.get(i),
+                        unpaired.get(i + 1)});
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Pair up students who haven't played each other yet.
+     * @param unpaired the students to pair, in ranked order. It is restored
+     * before returning.
+     * @param pairs the pairs are added here
+     * @return true if everyone was paired, or false if there was no way to
+     * do it without repeats, and no pairs were added.
+     */
+    private boolean pairNewOpponents(
+            List<Student> unpaired,
+            List<Student[]> pairs) {
+        if (unpaired.isEmpty()) {
+            return true;
+        }
+        Student student = unpaired.remove(0);
+        for (int i = 0; i < unpaired.size(); i++) {
+            Student opponent = unpaired.get(i);
+            if ( ! playedPairs.contains(getPairKey(student, opponent))) {
+                unpaired.remove(i);
+                pairs.add(new Student[] {student, opponent});
+                if (pairNewOpponents(unpaired, pairs)) {
+                    unpaired.add(i, opponent);
+                    unpaired.add(0, student);
+                    return true;
+                }
+                pairs.remove(pairs.size() - 1);
+                unpaired.add(i, opponent);
+            }
+        }
+        unpaired.add(0, student);
+        return false;
+    }
+
+    private String getPairKey(Student student1, Student student2) {
+        int index1 = students.indexOf(student1);
+        int index2 = students.indexOf(student2);
+        return Math.min(index1, index2) + "," + Math.max(index1, index2);
+    }
+
+    /**
+     * Tell the tournament that a student has entered a solution to their
+     * puzzle, so the other students can respond.
+     */
+    public void solve(Match match) {
+        for (Table table : tables) {
+            if (table.match == match) {
+                table.solve();
+                return;
+            }
+        }
+    }
+
+    /** Stop all the matches and scheduled tasks. */
+    public void cancel() {
+        tables.clear();
+        searchingStudents.clear();
+        stopTasks();
+    }
+
+    private void stopTasks() {
+        scheduler.cancel(searchTask);
+        searchTask = null;
+        scheduler.cancel(scoreTask);
+        scoreTask = null;
+    }
+
+    private void finishTable(Table table) {
+        tables.remove(table);
+        Student winner = table.match.getWinner();
+        for (Student student : table.match.getStudents()) {
+            Standing standing = standings.get(student);
+            standing.totalScore += student.getScore();
+            if (student == winner) {
+                standing.wins++;
+            }
+            else {
+                standing.losses++;
+            }
+            searchingStudents.remove(student);
+        }
+        if (listener != null) {
+            listener.matchCompleted(table.match);
+        }
+        if (tables.isEmpty()) {
+            stopTasks();
+            if (listener != null) {
+                listener.roundCompleted(roundNumber);
+            }
+        }
+    }
+
+    /**
+     * One match being played. It plays the part of the screen and
+     * controller for the students in the match.
+     */
+    private class Table implements Student.StudentListener, Puzzle.Listener {
+        private Match match;
+        private boolean isSolving;
+
+        public Table(Student[] pair) {
+            match = new Match(matchScore, pair.clone());
+            match.setRandom(random);
+            match.setMinimumWordLength(minimumWordLength);
+            match.setHyperghost(isHyperghost);
+            for (Student student : pair) {
+                student.resetScore();
+                student.setListener(this);
+                student.setMatch(match);
+            }
+        }
+
+        public void startPuzzle() {
+            Puzzle puzzle = match.createPuzzle(wordList);
+            puzzle.addListener(this);
+            for (Student student : match.getStudents()) {
+                searchingStudents.put(student, this);
+                student.startSolving(puzzle);
+            }
+        }
+
+        public void solve() {
+            Puzzle puzzle = match.getPuzzle();
+            if (isSolving ||
+                    puzzle.isCompleted() ||
+                    ! puzzle.getResult().isValidSolution()) {
+                return;
+            }
+            isSolving = true;
+            try {
+                for (Student student : match.getStudents()) {
+                    if (student != puzzle.getOwner()) {
+                        searchingStudents.remove(student);
+                        student.prepareResponse();
+                    }
+                }
+            }
+            finally {
+                isSolving = false;
+            }
+        }
+
+        @Override
+        public void askForSolution() {
+            // Human students enter solutions through the puzzle.
+        }
+
+        @Override
+        public void showThinking() {
+        }
+
+        @Override
+        public void askForResponse() {
+            solve();
+        }
+
+        @Override
+        public void changed() {
+        }
+
+        @Override
+        public void completed() {
+            Puzzle puzzle = match.getPuzzle();
+            puzzle.getOwner().addScore(puzzle.getScore());
+            if (match.getWinner() != null) {
+                finishTable(this);
+            }
+            else {
+                startPuzzle();
+            }
+        }
+    }
+
+    private class SearchTask implements Runnable {
+        @Override
+        public void run() {
+            List<Student> searching =
+                    new ArrayList<Student>(searchingStudents.keySet());
+            for (Student student : searching) {
+                Table table = searchingStudents.get(student);
+                if (table == null) {
+                    continue;
+                }
+                Puzzle puzzle = table.match.getPuzzle();
+                boolean isFinished = student.runSearchBatch();
+                if (isFinished && table.match.getPuzzle() == puzzle) {
+                    searchingStudents.remove(student);
+                }
+            }
+        }
+    }
+
+    private class ScoreTask implements Runnable {
+        @Override
+        public void run() {
+            for (Table table : new ArrayList<Table>(tables)) {
+                table.match.getPuzzle().adjustScore(
+                        Controller.SCORE_MILLISECONDS / 1000f);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import com.github.donkirkby.vograbulary.SnapshotReader;
+import com.github.donkirkby.vograbulary.SnapshotWriter;
+
+/**
+ * A message between an Ultraghost game server and its clients. Each message
+ * has a type, some flags, and a list of text values. It's encoded with a
+ * SnapshotWriter, so most messages only take a few bytes.
+ */
+public class UltraghostMessage {
+    public enum Type {
+        //stopJesting
+        /** Client asks to join a match. Values: student name. */
+        JOIN,
+        /** Client enters a solution. Values: the word, or empty to skip. */
+        SOLUTION,
+        /** Client enters a response. Values: the word, or empty to pass. */
+        RESPONSE,
+        /** Server starts a match. Values: the students' names in order. */
+        MATCH,
+        /**
+         * Server starts a puzzle. Values: letters, owner name, previous word.
+         */
+        PUZZLE,
+        /**
+         * Server reports changes to the puzzle. Flags say which fields
+         * changed, and values hold them in PuzzleField order.
+         */
+        PUZZLE_CHANGED,
+        /** Server reports the end of a match. Values: the winner's name. */
+        MATCH_OVER,
+        /** Server rejects a message. Values: the reason. */
+        ERROR
+        //resumeJesting
+    }
+    
+    private static final String[] NO_VALUES = new String[0];
+    
+    private Type type;
+    private int flags;
+    private String[] values;
+    
+    public UltraghostMessage(Type type, String... values) {
+        this(type, 0, values);
+    }
+    
+    public UltraghostMessage(Type type, int flags, String... values) {
+        if (type == null) {
+            throw new IllegalArgumentException("Message type was null.");
+        }
+        this.type = type;
+        this.flags = flags;
+        this.values = values == null ? NO_VALUES : values;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public int getFlags() {
+        return flags;
+    }
+    
+    public int getValueCount() {
+        return values.length;
+    }
+    
+    /**
+     * Get one of the message's values.
+     * @return the value, or null if there aren't that many values
+     */
+    public String getValue(int index) {
+        return index < values.length ? values[index] : null;
+    }
+    
+    /** Encode this message as bytes. */
+    public byte[] encode() {
+        SnapshotWriter writer = new SnapshotWriter();
+        writer.writeInt(type.ordinal());
+        writer.writeInt(flags);
+        writer.writeInt(values.length);
+        for (String value : values) {
+            writer.writeString(value);
+        }
+        return writer.toByteArray();
+    }
+    
+    /**
+     * Decode a message from the bytes written by encode().
+     * @throws IllegalArgumentException if the bytes aren't a valid message.
+     */
+    public static UltraghostMessage decode(byte[] bytes) {
+        SnapshotReader reader = new SnapshotReader(bytes);
+        int typeIndex = reader.readInt();
+        Type[] types = Type.values();
+        if (typeIndex < 0 || types.length <= typeIndex) {
+            throw new IllegalArgumentException(
+                    "Unknown message type: " + typeIndex + ".");
+        }
+        int flags = reader.readInt();
+        int valueCount = reader.readInt();
+        if (valueCount < 0 || bytes.length < valueCount) {
+            throw new IllegalArgumentException(
+                    "Invalid value count: " + valueCount + ".");
+        }
+        String[] values = new String[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            values[i] = reader.readString();
+        }
+        return new UltraghostMessage(types[typeIndex], flags, values);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(type.toString());
+        if (flags != 0) {
+            builder.append('/').append(flags);
+        }
+        for (String value : values) {
+            builder.append(' ').append(value);
+        }
+        return builder.toString();
+    }
+}
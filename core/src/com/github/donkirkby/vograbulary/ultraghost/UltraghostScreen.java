@@ -1,5 +1,6 @@
 package com.github.donkirkby.vograbulary.ultraghost;
 
+import java.util.Set;
 
 public interface UltraghostScreen {
     public void clear();
@@ -36,6 +37,11 @@ public interface UltraghostScreen {
      */
     public void refreshPuzzle();
     
+    /**
+     * Update the display to show the parts of the puzzle that changed.
+     */
+    public void refreshPuzzle(Set<Puzzle.Field> changedFields);
+    
     /**
      * Update the score on the display.
      */
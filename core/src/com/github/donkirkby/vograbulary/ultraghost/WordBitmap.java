@@ -0,0 +1,221 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+/**
+ * An immutable set of word ids. Because the word list is sorted from most
+ * common to least common, stepping through the ids gives the words in
+ * frequency order.
+ *
+ * Small sets are stored as a sorted array of ids, and large ones as a
+ * bitmap with one bit for each word in the list, whichever is smaller.
+ */
+public class WordBitmap {
+    private int universe; // all ids are less than this
+    private int size;
+    private int[] ids; // sorted, or null if the set is stored as bits
+    private int[] bits; // or null if the set is stored as ids
+
+    private WordBitmap(int universe, int size, int[] ids, int[] bits) {
+        this.universe = universe;
+        this.size = size;
+        this.ids = ids;
+        this.bits = bits;
+    }
+
+    /**
+     * Create a set from a bitmap, converting it to an array of ids if that's
+     * smaller.
+     * @param bits one bit for each id, 32 ids per entry. It isn't copied, so
+     * don't change it after creating the set.
+     * @param universe all ids are less than this
+     */
+    static WordBitmap fromBits(int[] bits, int universe) {
+        int size = 0;
+        for (int i = 0; i < bits.length; i++) {
+            size += Integer.bitCount(bits[i]);
+        }
+        if (size >= bits.length) {
+            return new WordBitmap(universe, size, null, bits);
+        }
+        int[] ids = new int[size];
+        int count = 0;
+        for (int i = 0; i < bits.length; i++) {
+            int word = bits[i];
+            while (word != 0) {
+                ids[count++] = i * 32 + Integer.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return new WordBitmap(universe, size, ids, null);
+    }
+
+    /**
+     * Create a set from a sorted array of ids.
+     * @param ids sorted ids. Only the first count are used, and they're
+     * copied.
+     * @param universe all ids are less than this
+     */
+    static WordBitmap fromIds(int[] ids, int count, int universe) {
+        int bitCount = (universe + 31) / 32;
+        if (count < bitCount) {
+            int[] copy = new int[count];
+            System.arraycopy(ids, 0, copy, 0, count);
+            return new WordBitmap(universe, count, copy, null);
+        }
+        int[] bits = new int[bitCount];
+        for (int i = 0; i < count; i++) {
+            bits[ids[i] >>> 5] |= 1 << ids[i];
+        }
+        return new WordBitmap(universe, count, null, bits);
+    }
+
+    /** Create a set of all the ids less than universe. */
+    static WordBitmap all(int universe) {
+        int[] bits = new int[(universe + 31) / 32];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = -1;
+        }
+        int extra = bits.length * 32 - universe;
+        if (extra > 0) {
+            bits[bits.length - 1] = -1 >>> extra;
+        }
+        return new WordBitmap(universe, universe, null, bits);
+    }
+
+    /** The number of ids in the set. */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0 || id >= universe) {
+            return false;
+        }
+        if (bits != null) {
+            return (bits[id >>> 5] & 1 << id) != 0;
+        }
+        return findPosition(id) >= 0;
+    }
+
+    /**
+     * Binary search for an id.
+     * @return the id's position in ids, or -(insertion point) - 1 if it's
+     * not there.
+     */
+    private int findPosition(int id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < id) {
+                low = middle + 1;
+            }
+            else if (ids[middle] > id) {
+                high = middle;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Find the first id in the set that is at least as large as an id. Use
+     * it to step through the set from most common to least common:
+     * <pre>
+     * for (int id = set.nextId(0); id >= 0; id = set.nextId(id + 1))
+     * </pre>
+     * @return the id, or -1 if there are none left
+     */
+    public int nextId(int fromId) {
+        if (fromId < 0) {
+            fromId = 0;
+        }
+        if (fromId >= universe) {
+            return -1;
+        }
+        if (ids != null) {
+            int position = findPosition(fromId);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            return position < size ? ids[position] : -1;
+        }
+        int index = fromId >>> 5;
+        int word = bits[index] & (-1 << fromId);
+        while (word == 0) {
+            if (++index == bits.length) {
+                return -1;
+            }
+            word = bits[index];
+        }
+        return index * 32 + Integer.numberOfTrailingZeros(word);
+    }
+
+    /** Copy all the ids into a sorted array. */
+    public int[] toIds() {
+        if (ids != null) {
+            return ids.clone();
+        }
+        int[] result = new int[size];
+        int count = 0;
+        for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+            result[count++] = id;
+        }
+        return result;
+    }
+
+    /** Find the ids that are in this set and another. */
+    public WordBitmap and(WordBitmap other) {
+        if (ids == null && other.ids == null) {
+            int length = Math.min(bits.length, other.bits.length);
+            int[] result = new int[length];
+            for (int i = 0; i < length; i++) {
+                result[i] = bits[i] & other.bits[i];
+            }
+            return fromBits(result, Math.min(universe, other.universe));
+        }
+        WordBitmap sparse = ids != null ? this : other;
+        WordBitmap filter = sparse == this ? other : this;
+        return sparse.filter(filter, true);
+    }
+
+    /** Find the ids that are in this set, but not another. */
+    public WordBitmap andNot(WordBitmap other) {
+        if (ids != null) {
+            return filter(other, false);
+        }
+        int[] result = bits.clone();
+        if (other.ids != null) {
+            for (int i = 0; i < other.size && other.ids[i] < universe; i++) {
+                int id = other.ids[i];
+                result[id >>> 5] &= ~(1 << id);
+            }
+        }
+        else {
+            int length = Math.min(result.length, other.bits.length);
+            for (int i = 0; i < length; i++) {
+                result[i] &= ~other.bits[i];
+            }
+        }
+        return fromBits(result, universe);
+    }
+
+    /**
+     * Keep the ids from this sparse set that are, or aren't, in another.
+     */
+    private WordBitmap filter(WordBitmap other, boolean isKept) {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (other.contains(ids[i]) == isKept) {
+                result[count++] = ids[i];
+            }
+        }
+        return fromIds(result, count, universe);
+    }
+}
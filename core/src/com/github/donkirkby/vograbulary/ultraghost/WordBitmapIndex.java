@@ -0,0 +1,274 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.metrics.Counter;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+
+/**
+ * Sets of word ids for each letter feature that the games ask about: the
+ * first letter, the last letter, the letters between them, any letter,
+ * the length, and whether the word is still a word when it's reversed.
+ * The games' restrictions become intersections of those sets, and the
+ * results come out in frequency order.
+ *
+ * Only the first copy of each word is included.
+ *
+ * Get an index from WordList.getBitmapIndex(), which caches it, and
+ * search it with a Query:
+ * <pre>
+ * index.query().startsWith('P').hasInterior('I').endsWith('E').find()
+ * </pre>
+ */
+public class WordBitmapIndex {
+    //stopJesting
+    private static final int LETTER_COUNT = 26;
+    //resumeJesting
+    private static final Counter queryCount =
+            Metrics.getDefault().counter("wordBitmapIndex.queries");
+
+    private WordList wordList;
+    private int universe;
+    private WordBitmap allWords;
+    private WordBitmap[] firstLetters;
+    private WordBitmap[] lastLetters;
+    private WordBitmap[] interiorLetters;
+    private WordBitmap[] containedLetters;
+    // Words that are at least as long as the index, up to the longest word.
+    private WordBitmap[] minimumLengths;
+    private WordBitmap reversibleWords;
+
+    /**
+     * Sort sets from smallest to largest, so intersections shrink quickly.
+     */
+    private static class SizeComparator implements Comparator<WordBitmap> {
+        @Override
+        public int compare(WordBitmap set1, WordBitmap set2) {
+            return set1.size() - set2.size();
+        }
+    }
+
+    /**
+     * A search for the words that have all of a list of features. Each
+     * method adds a restriction and returns the same query, so they can be
+     * chained.
+     */
+    public class Query {
+        private List<WordBitmap> included = new ArrayList<WordBitmap>();
+        private List<WordBitmap> excluded = new ArrayList<WordBitmap>();
+        private boolean isEmpty;
+
+        private Query add(WordBitmap[] sets, char letter, boolean isIncluded) {
+            int index = letterIndex(letter);
+            if (index < 0) {
+                isEmpty |= isIncluded;
+            }
+            else {
+                (isIncluded ? included : excluded).add(sets[index]);
+            }
+            return this;
+        }
+
+        public Query startsWith(char letter) {
+            return add(firstLetters, letter, true);
+        }
+
+        public Query endsWith(char letter) {
+            return add(lastLetters, letter, true);
+        }
+
+        /**
+         * The letter is somewhere between the first and last letters.
+         */
+        public Query hasInterior(char letter) {
+            return add(interiorLetters, letter, true);
+        }
+
+        public Query contains(char letter) {
+            return add(containedLetters, letter, true);
+        }
+
+        public Query excludes(char letter) {
+            return add(containedLetters, letter, false);
+        }
+
+        /**
+         * Only use letters from a set, but each one can be used any number
+         * of times.
+         * @param letters the letters that can be used, in upper case
+         */
+        public Query usesOnly(String letters) {
+            for (int i = 0; i < LETTER_COUNT; i++) {
+                char letter = (char) ('A' + i);
+                if (letters.indexOf(letter) < 0) {
+                    excludes(letter);
+                }
+            }
+            return this;
+        }
+
+        public Query minLength(int length) {
+            if (length >= minimumLengths.length) {
+                isEmpty = true;
+            }
+            else if (length > 0) {
+                included.add(minimumLengths[length]);
+            }
+            return this;
+        }
+
+        public Query maxLength(int length) {
+            if (length < 0) {
+                isEmpty = true;
+            }
+            else if (length + 1 < minimumLengths.length) {
+                excluded.add(minimumLengths[length + 1]);
+            }
+            return this;
+        }
+
+        /**
+         * The word reversed is also in the list. That includes palindromes.
+         */
+        public Query reversible() {
+            included.add(reversibleWords);
+            return this;
+        }
+
+        /** Find the ids of all the words that match the query. */
+        public WordBitmap find() {
+            queryCount.increment();
+            if (isEmpty) {
+                return WordBitmap.fromIds(new int[0], 0, universe);
+            }
+            if (included.isEmpty()) {
+                included.add(allWords);
+            }
+            Collections.sort(included, new SizeComparator());
+            WordBitmap result = included.get(0);
+            for (int i = 1; i < included.size() && ! result.isEmpty(); i++) {
+                result = result.and(included.get(i));
+            }
+            for (int i = 0; i < excluded.size() && ! result.isEmpty(); i++) {
+                result = result.andNot(excluded.get(i));
+            }
+            return result;
+        }
+
+        /** Count the words that match the query. */
+        public int count() {
+            return find().size();
+        }
+
+        /**
+         * Find the most common words that match the query.
+         * @param maxCount the largest number of words to return
+         * @return the upper case words, from most common to least common
+         */
+        public List<String> findWords(int maxCount) {
+            WordBitmap ids = find();
+            List<String> words = new ArrayList<String>();
+            for (int id = ids.nextId(0);
+                    id >= 0 && words.size() < maxCount;
+                    id = ids.nextId(id + 1)) {
+                words.add(wordList.wordOf(id));
+            }
+            return words;
+        }
+    }
+
+    /**
+     * Build the index by checking every word in a word list.
+     */
+    WordBitmapIndex(WordList wordList) {
+        this.wordList = wordList;
+        universe = wordList.size();
+        int bitCount = (universe + 31) / 32;
+        int[][] firstBits = new int[LETTER_COUNT][bitCount];
+        int[][] lastBits = new int[LETTER_COUNT][bitCount];
+        int[][] interiorBits = new int[LETTER_COUNT][bitCount];
+        int[][] containedBits = new int[LETTER_COUNT][bitCount];
+        List<int[]> lengthBits = new ArrayList<int[]>();
+        int[] allBits = new int[bitCount];
+        int[] reversibleBits = new int[bitCount];
+        StringBuilder reversed = new StringBuilder();
+        for (int wordId = 0; wordId < universe; wordId++) {
+            String word = wordList.wordOf(wordId);
+            if (wordList.idOf(word) != wordId) {
+                continue; // skip duplicates
+            }
+            int wordIndex = wordId >>> 5;
+            int bit = 1 << wordId;
+            allBits[wordIndex] |= bit;
+            int length = word.length();
+            while (lengthBits.size() <= length) {
+                lengthBits.add(new int[bitCount]);
+            }
+            lengthBits.get(length)[wordIndex] |= bit;
+            for (int i = 0; i < length; i++) {
+                int letter = letterIndex(word.charAt(i));
+                if (letter < 0) {
+                    continue;
+                }
+                containedBits[letter][wordIndex] |= bit;
+                if (i == 0) {
+                    firstBits[letter][wordIndex] |= bit;
+                }
+                if (i == length - 1) {
+                    lastBits[letter][wordIndex] |= bit;
+                }
+                if (0 < i && i < length - 1) {
+                    interiorBits[letter][wordIndex] |= bit;
+                }
+            }
+            reversed.setLength(0);
+            reversed.append(word).reverse();
+            if (wordList.idOf(reversed) != WordList.NOT_FOUND) {
+                reversibleBits[wordIndex] |= bit;
+            }
+        }
+        allWords = WordBitmap.fromBits(allBits, universe);
+        reversibleWords = WordBitmap.fromBits(reversibleBits, universe);
+        firstLetters = toSets(firstBits);
+        lastLetters = toSets(lastBits);
+        interiorLetters = toSets(interiorBits);
+        containedLetters = toSets(containedBits);
+        // Add up the lengths from longest to shortest.
+        minimumLengths = new WordBitmap[lengthBits.size()];
+        int[] longerBits = new int[bitCount];
+        for (int length = lengthBits.size() - 1; length >= 0; length--) {
+            int[] bits = lengthBits.get(length);
+            for (int i = 0; i < bitCount; i++) {
+                bits[i] |= longerBits[i];
+            }
+            minimumLengths[length] = WordBitmap.fromBits(bits, universe);
+            longerBits = bits;
+        }
+    }
+
+    private static int letterIndex(char letter) {
+        int index = letter - 'A';
+        return 0 <= index && index < LETTER_COUNT ? index : -1;
+    }
+
+    private WordBitmap[] toSets(int[][] bits) {
+        WordBitmap[] sets = new WordBitmap[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            sets[i] = WordBitmap.fromBits(bits[i], universe);
+        }
+        return sets;
+    }
+
+    /** Start a search that matches all the words in the index. */
+    public Query query() {
+        return new Query();
+    }
+
+    /** The number of distinct words in the index. */
+    public int size() {
+        return allWords.size();
+    }
+}
@@ -1,12 +1,114 @@
 package com.github.donkirkby.vograbulary.ultraghost;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
+import com.github.donkirkby.vograbulary.metrics.Gauge;
+import com.github.donkirkby.vograbulary.metrics.Histogram;
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.metrics.Tracer;
+
+/**
+ * A list of words, sorted from most common to least common.
+ * 
+ * Words can be added by one thread while other threads read, and iterators
+ * will include any words that are added before they reach the end. Adding
+ * words publishes a new snapshot of the list, so looking up words and
+ * iterating never has to lock.
+ */
 public class WordList implements Iterable<String> {
-    private ArrayList<String> wordList = new ArrayList<String>();
+    /** The id for words that aren't in the list. */
+    public static final int NOT_FOUND = -1;
+    
+    private static final Histogram readTime =
+            Metrics.getDefault().histogram("wordList.read");
+    private static final Gauge wordCount =
+            Metrics.getDefault().gauge("wordList.size");
+    private static final Histogram solutionIndexTime =
+            Metrics.getDefault().histogram("wordList.buildSolutionIndex");
+    private static final Histogram spellingIndexTime =
+            Metrics.getDefault().histogram("wordList.buildSpellingIndex");
+    private static final Histogram bitmapIndexTime =
+            Metrics.getDefault().histogram("wordList.buildBitmapIndex");
+    
+    private volatile Snapshot snapshot =
+            new Snapshot(new String[0], 0, new int[1]);
+    // Solution indexes for Ultraghost puzzles, keyed by letters. They're
+    // dropped whenever words are added.
+    private HashMap<String, SolutionIndex> solutionIndexes =
+            new HashMap<String, SolutionIndex>();
+    private SpellingIndex spellingIndex; // also dropped when words are added
+    private WordBitmapIndex bitmapIndex; // also dropped when words are added
+    
+    /**
+     * The words that have been read so far, and a hash table of their ids.
+     * The next snapshot may share the same arrays, but it only writes past
+     * this one's count, so this one never changes after it's published.
+     */
+    private static class Snapshot {
+        final String[] words;
+        final int count;
+        // Open addressing with linear probing. Each slot holds a word id + 1,
+        // or 0 if it's empty. Duplicate words only have their first id.
+        final int[] idSlots;
+        
+        Snapshot(String[] words, int count, int[] idSlots) {
+            this.words = words;
+            this.count = count;
+            this.idSlots = idSlots;
+        }
+        
+        int idOf(String word) {
+            int mask = idSlots.length - 1;
+            for (int i = hash(word) & mask; ; i = (i + 1) & mask) {
+                int id = idSlots[i] - 1;
+                if (id < 0 || id >= count) {
+                    // Empty, or a word that was added after this snapshot,
+                    // so it filled a slot that was empty when word was added.
+                    return NOT_FOUND;
+                }
+                if (words[id].equals(word)) {
+                    return id;
+                }
+            }
+        }
+        
+        /** Build a new table of slots for the first count words. */
+        static int[] buildIdSlots(String[] words, int count, int slotCount) {
+            int[] idSlots = new int[slotCount];
+            for (int id = 0; id < count; id++) {
+                addId(idSlots, words, id);
+            }
+            return idSlots;
+        }
+        
+        /**
+         * Add a word's id to a table of slots, unless the same word is
+         * already there. Only the thread that adds words calls this.
+         */
+        static void addId(int[] idSlots, String[] words, int id) {
+            String word = words[id];
+            int mask = idSlots.length - 1;
+            for (int i = hash(word) & mask; ; i = (i + 1) & mask) {
+                int oldId = idSlots[i] - 1;
+                if (oldId < 0) {
+                    idSlots[i] = id + 1;
+                    return;
+                }
+                if (words[oldId].equals(word)) {
+                    return;
+                }
+            }
+        }
+        
+        private static int hash(String word) {
+            int hash = word.hashCode();
+            return hash ^ (hash >>> 16);
+        }
+    }
     
     public WordList() {
     }
@@ -17,16 +119,154 @@ public class WordList implements Iterable<String> {
     
     /** Add all the words in a list.
      */
-    public void read(List<String> words) {
+    public synchronized void read(List<String> words) {
+        Tracer tracer = Metrics.getDefault().getTracer();
+        Object span = tracer.begin(Tracer.READ_WORD_LIST);
+        long startTime = readTime.startTimer();
+        Snapshot oldSnapshot = snapshot;
+        String[] newWords = oldSnapshot.words;
+        int[] idSlots = oldSnapshot.idSlots;
+        int count = oldSnapshot.count;
+        int maxCount = count + words.size();
+        if (maxCount > newWords.length) {
+            newWords = Arrays.copyOf(
+                    newWords,
+                    Math.max(maxCount, newWords.length * 2));
+        }
+        if (maxCount * 2 > idSlots.length) {
+            // Keep the table at most half full.
+            int slotCount = idSlots.length;
+            while (maxCount * 2 > slotCount) {
+                slotCount *= 2;
+            }
+            idSlots = Snapshot.buildIdSlots(newWords, count, slotCount);
+        }
         for (String word : words) {
             if (word.length() > 3) {
-                wordList.add(word.toUpperCase());
+                newWords[count] = word.toUpperCase();
+                Snapshot.addId(idSlots, newWords, count);
+                count++;
             }
         }
+        snapshot = new Snapshot(newWords, count, idSlots);
+        solutionIndexes.clear();
+        spellingIndex = null;
+        bitmapIndex = null;
+        wordCount.setValue(count);
+        readTime.stopTimer(startTime);
+        tracer.end(span, null, words.size(), null);
+    }
+    
+    /**
+     * Get an index of all the solutions to a puzzle's letters, sorted from
+     * best to worst. It's built the first time it's requested, and kept until
+     * more words are added.
+     * @param letters the three upper case letters for the puzzle
+     */
+    public synchronized SolutionIndex getSolutionIndex(String letters) {
+        SolutionIndex index = solutionIndexes.get(letters);
+        if (index == null) {
+            long startTime = solutionIndexTime.startTimer();
+            index = new SolutionIndex(letters, this);
+            solutionIndexTime.stopTimer(startTime);
+            solutionIndexes.put(letters, index);
+        }
+        return index;
+    }
+    
+    /**
+     * Get an index for suggesting words that are close to a misspelled word.
+     * It's built the first time it's requested, and kept until more words
+     * are added.
+     */
+    public synchronized SpellingIndex getSpellingIndex() {
+        if (spellingIndex == null) {
+            long startTime = spellingIndexTime.startTimer();
+            spellingIndex = new SpellingIndex(this);
+            spellingIndexTime.stopTimer(startTime);
+        }
+        return spellingIndex;
+    }
+    
+    /**
+     * Get an index for finding the words that have a set of letter
+     * features. It's built the first time it's requested, and kept until
+     * more words are added.
+     */
+    public synchronized WordBitmapIndex getBitmapIndex() {
+        if (bitmapIndex == null) {
+            long startTime = bitmapIndexTime.startTimer();
+            bitmapIndex = new WordBitmapIndex(this);
+            bitmapIndexTime.stopTimer(startTime);
+        }
+        return bitmapIndex;
     }
     
+    /** Drop any cached indexes to save memory. */
+    public synchronized void trimCaches() {
+        solutionIndexes.clear();
+        spellingIndex = null;
+        bitmapIndex = null;
+    }
+    
+    /**
+     * Check if a word is in the list.
+     * @param word the word to check, case insensitive
+     */
     public boolean contains(String word) {
-        return wordList.contains(word);
+        return idOf(word) != NOT_FOUND;
+    }
+    
+    /**
+     * Find a word's position in the list, from most common to least common.
+     * Because the list is sorted, a lower id means a more common word.
+     * @param word the word to find, case insensitive. Upper case words are
+     * found without copying.
+     * @return the word's id, or NOT_FOUND
+     */
+    public int idOf(CharSequence word) {
+        Snapshot current = snapshot;
+        String key = word.toString();
+        int id = current.idOf(key);
+        if (id == NOT_FOUND) {
+            String upper = key.toUpperCase();
+            if ( ! upper.equals(key)) {
+                id = current.idOf(upper);
+            }
+        }
+        return id;
+    }
+    
+    /**
+     * Compare two word ids by how common the words are.
+     * @return a negative number if id1 is more common than id2, zero if they
+     * are the same, or a positive number if id1 is less common. NOT_FOUND is
+     * less common than any word in the list.
+     */
+    public static int compareRank(int id1, int id2) {
+        if (id1 == id2) {
+            return 0;
+        }
+        if (id1 == NOT_FOUND) {
+            return 1;
+        }
+        if (id2 == NOT_FOUND) {
+            return -1;
+        }
+        return id1 < id2 ? -1 : 1;
+    }
+    
+    /**
+     * Get a word by its position in the list.
+     * @param id the word's id, as returned by idOf()
+     */
+    public String wordOf(int id) {
+        Snapshot current = snapshot;
+        if (id < 0 || id >= current.count) {
+            throw new IndexOutOfBoundsException(
+                    "Word id " + id + " is not in the list.");
+        }
+        return current.words[id];
     }
 
     /**
@@ -35,7 +275,28 @@ public class WordList implements Iterable<String> {
      */
     @Override
     public Iterator<String> iterator() {
-        return wordList.iterator();
+        return new Iterator<String>() {
+            private int nextIndex;
+            
+            @Override
+            public boolean hasNext() {
+                return nextIndex < size();
+            }
+            
+            @Override
+            public String next() {
+                Snapshot current = snapshot;
+                if (nextIndex >= current.count) {
+                    throw new NoSuchElementException();
+                }
+                return current.words[nextIndex++];
+            }
+            
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
     }
 
     /**
@@ -43,6 +304,6 @@ public class WordList implements Iterable<String> {
      * minimum word length.
      */
     public int size() {
-        return wordList.size();
+        return snapshot.count;
     }
 }
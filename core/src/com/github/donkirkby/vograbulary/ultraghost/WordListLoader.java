@@ -0,0 +1,91 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.Scheduler;
+
+/**
+ * Load a word list in batches so the games can start before all the words
+ * are loaded.
+ * 
+ * The source is sorted from most common to least common, so the first batch
+ * is loaded right away, and that's enough for most puzzles. The rest are
+ * loaded by a scheduled task, and they appear in the same WordList object,
+ * so anyone using it gets the full list as soon as it's ready.
+ */
+public class WordListLoader implements Runnable {
+    //stopJesting
+    public static final int DEFAULT_INITIAL_COUNT = 5000;
+    public static final int DEFAULT_BATCH_SIZE = 2000;
+    private static final int BATCH_MILLISECONDS = 10;
+    //resumeJesting
+    
+    private WordList wordList;
+    private List<String> source;
+    private Scheduler scheduler;
+    private int initialCount = DEFAULT_INITIAL_COUNT;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile int loadedCount;
+    
+    /**
+     * Initialize the loader.
+     * @param wordList the word list to add words to
+     * @param source the lines to read, from most common to least common
+     * @param scheduler runs the batches after the first one
+     */
+    public WordListLoader(
+            WordList wordList,
+            List<String> source,
+            Scheduler scheduler) {
+        this.wordList = wordList;
+        this.source = source;
+        this.scheduler = scheduler;
+    }
+    
+    /** Set the number of lines to read before start() returns. */
+    public void setInitialCount(int initialCount) {
+        this.initialCount = initialCount;
+    }
+    
+    /** Set the number of lines to read in each scheduled batch. */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Read the most common words, and schedule a task to read the rest.
+     */
+    public void start() {
+        readLines(initialCount);
+        if ( ! isComplete()) {
+            scheduler.scheduleRepeating(this, BATCH_MILLISECONDS);
+        }
+    }
+    
+    /** Read the next batch of words. */
+    @Override
+    public void run() {
+        readLines(batchSize);
+        if (isComplete()) {
+            scheduler.cancel(this);
+        }
+    }
+    
+    /** Stop loading words, leaving the word list incomplete. */
+    public void cancel() {
+        scheduler.cancel(this);
+    }
+    
+    private void readLines(int count) {
+        int end = Math.min(source.size(), loadedCount + count);
+        if (end > loadedCount) {
+            wordList.read(source.subList(loadedCount, end));
+            loadedCount = end;
+        }
+    }
+    
+    /** True if all the lines in the source have been read. */
+    public boolean isComplete() {
+        return loadedCount >= source.size();
+    }
+}
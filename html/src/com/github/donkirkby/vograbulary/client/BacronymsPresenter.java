@@ -1,7 +1,6 @@
 package com.github.donkirkby.vograbulary.client;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import com.github.donkirkby.vograbulary.WordDisplay;
@@ -9,7 +8,6 @@ import com.github.donkirkby.vograbulary.WordDisplay.WordDisplayListener;
 import com.github.donkirkby.vograbulary.bacronyms.BacronymsScreen;
 import com.github.donkirkby.vograbulary.bacronyms.Controller;
 import com.github.donkirkby.vograbulary.bacronyms.Puzzle;
-import com.github.donkirkby.vograbulary.ultraghost.WordList;
 import com.google.gwt.animation.client.Animation;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.dom.client.ParagraphElement;
@@ -121,14 +119,10 @@ extends VograbularyPresenter implements BacronymsScreen {
                 
         });
 
-        String puzzleLines = Assets.INSTANCE.bacronyms().getText();
-        String wordListText = Assets.INSTANCE.wordList().getText();
-        WordList wordList = new WordList();
-        wordList.read(Arrays.asList(wordListText.split("\\n")));
         controller = new Controller();
         controller.setScreen(this);
-        controller.setWordList(wordList);
-        controller.loadPuzzles(Arrays.asList(puzzleLines.split("\\n")));
+        controller.setWordList(GwtCorpus.INSTANCE.getWordList());
+        controller.loadPuzzles(GwtCorpus.INSTANCE.getBacronyms());
         controller.next();
     }
     
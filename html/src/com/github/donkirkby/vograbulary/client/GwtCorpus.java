@@ -0,0 +1,35 @@
+package com.github.donkirkby.vograbulary.client;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.Corpus;
+import com.google.gwt.resources.client.TextResource;
+
+public class GwtCorpus extends Corpus {
+    /** The corpus that is shared by all the presenters. */
+    public static final GwtCorpus INSTANCE = new GwtCorpus();
+    
+    private GwtCorpus() {
+        setScheduler(new GwtScheduler());
+    }
+
+    @Override
+    protected List<String> loadTextAsset(String assetName) {
+        TextResource resource;
+        if (assetName.equals(WORD_LIST_ASSET)) {
+            resource = Assets.INSTANCE.wordList();
+        }
+        else if (assetName.equals(RUSSIAN_DOLLS_ASSET)) {
+            resource = Assets.INSTANCE.russianDolls();
+        }
+        else if (assetName.equals(BACRONYMS_ASSET)) {
+            resource = Assets.INSTANCE.bacronyms();
+        }
+        else {
+            throw new IllegalArgumentException(
+                    "Unknown asset: " + assetName + ".");
+        }
+        return Arrays.asList(resource.getText().split("\\n"));
+    }
+}
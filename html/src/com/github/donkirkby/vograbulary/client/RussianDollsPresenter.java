@@ -1,12 +1,9 @@
 package com.github.donkirkby.vograbulary.client;
 
-import java.util.Arrays;
-
 import com.github.donkirkby.vograbulary.russian.Controller;
 import com.github.donkirkby.vograbulary.russian.Puzzle;
 import com.github.donkirkby.vograbulary.russian.PuzzleDisplay;
 import com.github.donkirkby.vograbulary.russian.RussianDollsScreen;
-import com.github.donkirkby.vograbulary.ultraghost.WordList;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.dom.client.ParagraphElement;
 import com.google.gwt.event.dom.client.ClickEvent;
@@ -97,13 +94,9 @@ extends VograbularyPresenter implements RussianDollsScreen {
         targetDisplay1.setDragVisible(false);
         targetDisplay2.setDragVisible(false);
 
-        String puzzleText = Assets.INSTANCE.russianDolls().getText();
-        String wordListText = Assets.INSTANCE.wordList().getText();
-        WordList wordList = new WordList();
-        wordList.read(Arrays.asList(wordListText.split("\\n")));
         controller.setScreen(this);
-        controller.setWordList(wordList);
-        controller.loadPuzzles(Arrays.asList(puzzleText.split("\\n")));
+        controller.setWordList(GwtCorpus.INSTANCE.getWordList());
+        controller.loadPuzzles(GwtCorpus.INSTANCE.getRussianDolls());
 
         final int periodMilliseconds = 100;
         final float periodSeconds = periodMilliseconds / 1000.0f;
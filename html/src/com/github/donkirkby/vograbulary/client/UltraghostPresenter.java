@@ -2,7 +2,9 @@ package com.github.donkirkby.vograbulary.client;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import com.github.donkirkby.vograbulary.ultraghost.ComputerStudent;
 import com.github.donkirkby.vograbulary.ultraghost.Controller;
@@ -10,7 +12,6 @@ import com.github.donkirkby.vograbulary.ultraghost.Match;
 import com.github.donkirkby.vograbulary.ultraghost.Puzzle;
 import com.github.donkirkby.vograbulary.ultraghost.Student;
 import com.github.donkirkby.vograbulary.ultraghost.UltraghostScreen;
-import com.github.donkirkby.vograbulary.ultraghost.WordList;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.dom.client.DivElement;
 import com.google.gwt.dom.client.HeadingElement;
@@ -85,11 +86,8 @@ public class UltraghostPresenter extends VograbularyPresenter implements Ultragh
         ownerName.setId("ownerName");
         
         this.preferences = preferences;
-        String wordListText = Assets.INSTANCE.wordList().getText();
-        WordList wordList = new WordList();
-        wordList.read(Arrays.asList(wordListText.split("\\n")));
         controller.setPreferences(preferences);
-        controller.setWordList(wordList);
+        controller.setWordList(GwtCorpus.INSTANCE.getWordList());
         scheduler = new GwtScheduler();
         controller.setScheduler(scheduler);
   
@@ -202,30 +200,45 @@ public class UltraghostPresenter extends VograbularyPresenter implements Ultragh
     
     @Override
     public void refreshPuzzle() {
-        Student winner = match.getWinner();
+        refreshPuzzle(EnumSet.allOf(Puzzle.Field.class));
+    }
+
+    @Override
+    public void refreshPuzzle(Set<Puzzle.Field> changedFields) {
         Puzzle puzzle = match.getPuzzle();
-        if (winner != null) {
-            String resultText = winner.getName() + " win";
-            if (winner.getName() != "You") {
-                resultText += "s";
+        if (changedFields.contains(Puzzle.Field.COMPLETED)) {
+            Student winner = match.getWinner();
+            if (winner != null) {
+                String resultText = winner.getName() + " win";
+                if (winner.getName() != "You") {
+                    resultText += "s";
+                }
+                ownerName.setInnerText(resultText);
+                focusButton(null);
             }
-            ownerName.setInnerText(resultText);
-            focusButton(null);
+            else {
+                ownerName.setInnerText(puzzle.getOwner().getName());
+            }
+            String letterText = puzzle.getLetters();
+            if (puzzle.getPreviousWord() != null) {
+                letterText = letterText + " after " + puzzle.getPreviousWord();
+            }
+            letters.setInnerText(letterText);
+            summary.setInnerText(match.getSummary());
+        }
+        if (changedFields.contains(Puzzle.Field.SOLUTION)) {
+            solution.setText(puzzle.getSolution());
+        }
+        if (changedFields.contains(Puzzle.Field.RESPONSE)) {
+            response.setText(puzzle.getResponse());
         }
-        else {
-            ownerName.setInnerText(puzzle.getOwner().getName());
+        if (changedFields.contains(Puzzle.Field.HINT)) {
+            hint.setInnerText(puzzle.getHint());
         }
-        String letterText = puzzle.getLetters();
-        if (puzzle.getPreviousWord() != null) {
-            letterText = letterText + " after " + puzzle.getPreviousWord();
+        if (changedFields.contains(Puzzle.Field.PAUSED)) {
+            pauseButton.setText(puzzle.isPaused() ? "Resume" : "Pause");
         }
-        letters.setInnerText(letterText);
-        solution.setText(puzzle.getSolution());
-        response.setText(puzzle.getResponse());
-        hint.setInnerText(puzzle.getHint());
         refreshScore();
-        summary.setInnerText(match.getSummary());
-        pauseButton.setText(puzzle.isPaused() ? "Resume" : "Pause");
     }
 
     @Override
@@ -0,0 +1,131 @@
+package com.github.donkirkby.vograbulary.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage;
+
+/**
+ * One client's socket. Each message is sent as a frame: a four byte length,
+ * followed by the encoded message.
+ */
+public class Connection {
+    //stopJesting
+    public static final int MAX_FRAME_LENGTH = 64 * 1024;
+    private static final int HEADER_LENGTH = 4;
+    //resumeJesting
+    
+    private SocketChannel channel;
+    private SelectionKey key;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    private ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<ByteBuffer>();
+    private ServerMatch match;
+    private String studentName;
+    
+    public Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+    
+    public ServerMatch getMatch() {
+        return match;
+    }
+    
+    public void setMatch(ServerMatch match) {
+        this.match = match;
+    }
+    
+    public String getStudentName() {
+        return studentName;
+    }
+    
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+    
+    /**
+     * Read whatever is available from the socket.
+     * @return the complete messages that were read, or null if the client
+     * closed the connection.
+     */
+    public List<UltraghostMessage> read() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            return null;
+        }
+        List<UltraghostMessage> messages = new ArrayList<UltraghostMessage>();
+        readBuffer.flip();
+        while (readBuffer.remaining() >= HEADER_LENGTH) {
+            int frameLength = readBuffer.getInt(readBuffer.position());
+            if (frameLength < 0 || MAX_FRAME_LENGTH < frameLength) {
+                throw new IOException(
+                        "Invalid frame length: " + frameLength + ".");
+            }
+            if (readBuffer.remaining() < HEADER_LENGTH + frameLength) {
+                if (readBuffer.capacity() < HEADER_LENGTH + frameLength) {
+                    ByteBuffer larger =
+                            ByteBuffer.allocate(HEADER_LENGTH + frameLength);
+                    larger.put(readBuffer);
+                    readBuffer = larger;
+                    readBuffer.flip();
+                }
+                break;
+            }
+            readBuffer.getInt();
+            byte[] frame = new byte[frameLength];
+            readBuffer.get(frame);
+            try {
+                messages.add(UltraghostMessage.decode(frame));
+            }
+            catch (IllegalArgumentException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+        }
+        readBuffer.compact();
+        return messages;
+    }
+    
+    /** Queue a message to be sent when the socket is ready. */
+    public void send(UltraghostMessage message) {
+        writeQueue.add(encodeFrame(message));
+        if (key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+    
+    /** Encode a message with its frame header. */
+    public static ByteBuffer encodeFrame(UltraghostMessage message) {
+        byte[] bytes = message.encode();
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_LENGTH + bytes.length);
+        frame.putInt(bytes.length);
+        frame.put(bytes);
+        frame.flip();
+        return frame;
+    }
+    
+    /** Write as many queued messages as the socket will take. */
+    public void flush() throws IOException {
+        while ( ! writeQueue.isEmpty()) {
+            ByteBuffer frame = writeQueue.peek();
+            channel.write(frame);
+            if (frame.hasRemaining()) {
+                return;
+            }
+            writeQueue.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+    
+    public void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            // Already closed, nothing else to do.
+        }
+    }
+}
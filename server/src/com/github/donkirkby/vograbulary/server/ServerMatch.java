@@ -0,0 +1,208 @@
+package com.github.donkirkby.vograbulary.server;
+
+import com.github.donkirkby.vograbulary.ultraghost.Match;
+import com.github.donkirkby.vograbulary.ultraghost.Puzzle;
+import com.github.donkirkby.vograbulary.ultraghost.PuzzleDeltaTracker;
+import com.github.donkirkby.vograbulary.ultraghost.Student;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage.Type;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostRandom;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * A match between clients that are connected to the server. The core Match
+ * and Puzzle classes check all the words and keep score, and this sends the
+ * changes to the clients.
+ */
+public class ServerMatch implements Puzzle.Listener, Student.StudentListener {
+    //stopJesting
+    private static final int MATCH_SCORE = 300;
+    //resumeJesting
+    
+    private Match match;
+    private Connection[] connections;
+    private Student[] students; // in the same order as connections
+    private WordList wordList;
+    private PuzzleDeltaTracker deltaTracker = new PuzzleDeltaTracker();
+    private boolean isOver;
+    
+    public ServerMatch(
+            Connection[] connections,
+            WordList wordList,
+            UltraghostRandom random,
+            int minimumWordLength) {
+        this.connections = connections;
+        this.wordList = wordList;
+        students = new Student[connections.length];
+        for (int i = 0; i < connections.length; i++) {
+            students[i] = new Student(connections[i].getStudentName());
+            students[i].setListener(this);
+            students[i].setWordList(wordList);
+            connections[i].setMatch(this);
+        }
+        // The match shuffles its array, so give it a copy.
+        match = new Match(MATCH_SCORE, students.clone());
+        match.setRandom(random);
+        match.setMinimumWordLength(minimumWordLength);
+        for (Student student : students) {
+            student.setMatch(match);
+        }
+    }
+    
+    public boolean isOver() {
+        return isOver;
+    }
+    
+    /** Start the first puzzle. */
+    public void start() {
+        startPuzzle();
+    }
+    
+    private void startPuzzle() {
+        Puzzle puzzle = match.createPuzzle(wordList);
+        broadcast(new UltraghostMessage(Type.MATCH, match.getSummary()));
+        deltaTracker.reset();
+        puzzle.addListener(this);
+        broadcast(new UltraghostMessage(
+                Type.PUZZLE,
+                puzzle.getLetters(),
+                puzzle.getOwner().getName(),
+                puzzle.getPreviousWord()));
+        for (Student student : students) {
+            student.startSolving(puzzle);
+        }
+    }
+    
+    /** Handle a message from one of this match's clients. */
+    public void receive(Connection connection, UltraghostMessage message) {
+        if (isOver) {
+            connection.send(new UltraghostMessage(
+                    Type.ERROR,
+                    "The match is over."));
+            return;
+        }
+        Puzzle puzzle = match.getPuzzle();
+        Student student = findStudent(connection);
+        String word = message.getValue(0);
+        if (word == null) {
+            word = Puzzle.NO_SOLUTION;
+        }
+        switch (message.getType()) {
+        case SOLUTION:
+            if (puzzle.getOwner() != student) {
+                sendError(connection, "It's not your puzzle.");
+            }
+            else if (puzzle.getResult().isValidSolution()) {
+                sendError(connection, "The solution was already entered.");
+            }
+            else {
+                puzzle.setSolution(word);
+            }
+            break;
+        case RESPONSE:
+            if (puzzle.getOwner() == student) {
+                sendError(connection, "You can't respond to your own puzzle.");
+            }
+            else if ( ! puzzle.getResult().isValidSolution()) {
+                sendError(connection, "There's no solution to respond to.");
+            }
+            else if (puzzle.isCompleted()) {
+                sendError(connection, "The puzzle is already completed.");
+            }
+            else {
+                puzzle.setResponse(word);
+            }
+            break;
+        default:
+            sendError(connection, "Unexpected message: " + message.getType());
+            break;
+        }
+    }
+    
+    private void sendError(Connection connection, String reason) {
+        connection.send(new UltraghostMessage(Type.ERROR, reason));
+    }
+    
+    private Student findStudent(Connection connection) {
+        for (int i = 0; i < connections.length; i++) {
+            if (connections[i] == connection) {
+                return students[i];
+            }
+        }
+        return null;
+    }
+    
+    /** Advance the score timer on the current puzzle. */
+    public void adjustScore(float seconds) {
+        if ( ! isOver) {
+            match.getPuzzle().adjustScore(seconds);
+        }
+    }
+    
+    /** End the match because a client disconnected. */
+    public void abandon(Connection connection) {
+        if (isOver) {
+            return;
+        }
+        isOver = true;
+        for (Connection other : connections) {
+            if (other != connection) {
+                other.send(new UltraghostMessage(
+                        Type.MATCH_OVER,
+                        other.getStudentName()));
+            }
+        }
+    }
+    
+    private void broadcast(UltraghostMessage message) {
+        for (Connection connection : connections) {
+            connection.send(message);
+        }
+    }
+    
+    @Override
+    public void changed() {
+        Puzzle puzzle = match.getPuzzle();
+        UltraghostMessage delta = deltaTracker.createDelta(puzzle);
+        if (delta != null) {
+            broadcast(delta);
+        }
+        if (puzzle.getChangedFields().contains(Puzzle.Field.COMPLETED) &&
+                puzzle.isCompleted() &&
+                ! isOver) {
+            Student winner = match.getWinner();
+            if (winner != null) {
+                isOver = true;
+                broadcast(new UltraghostMessage(
+                        Type.MATCH_OVER,
+                        winner.getName()));
+            }
+            else {
+                startPuzzle();
+            }
+        }
+    }
+    
+    @Override
+    public void completed() {
+        // The score and hint are sent with the final changes, and then the
+        // next puzzle starts.
+        Puzzle puzzle = match.getPuzzle();
+        puzzle.getOwner().addScore(puzzle.getScore());
+        String hint = puzzle.findNextBetter();
+        puzzle.setHint(hint == null ? "Perfect!" : "hint: " + hint);
+    }
+    
+    @Override
+    public void askForSolution() {
+        // The owner's client asks the player when it gets the puzzle.
+    }
+    
+    @Override
+    public void askForResponse() {
+    }
+    
+    @Override
+    public void showThinking() {
+    }
+}
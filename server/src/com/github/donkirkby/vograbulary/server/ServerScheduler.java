@@ -0,0 +1,72 @@
+package com.github.donkirkby.vograbulary.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.donkirkby.vograbulary.Scheduler;
+
+/**
+ * Run scheduled tasks on the server's event loop thread, so the games never
+ * have to deal with more than one thread. The event loop calls runDueTasks()
+ * each time it wakes up.
+ */
+public class ServerScheduler implements Scheduler {
+    private static class ScheduledTask {
+        private Runnable task;
+        private int periodMilliseconds;
+        private long nextRunTime;
+    }
+    
+    private List<ScheduledTask> scheduledTasks =
+            new ArrayList<ScheduledTask>();
+    
+    @Override
+    public void scheduleRepeating(Runnable task, int periodMilliseconds) {
+        ScheduledTask scheduledTask = new ScheduledTask();
+        scheduledTask.task = task;
+        scheduledTask.periodMilliseconds = periodMilliseconds;
+        scheduledTask.nextRunTime = 
+                System.currentTimeMillis() + periodMilliseconds;
+        scheduledTasks.add(scheduledTask);
+    }
+
+    @Override
+    public void cancel(Runnable task) {
+        for (int i = scheduledTasks.size() - 1; i >= 0; i--) {
+            if (scheduledTasks.get(i).task == task) {
+                scheduledTasks.remove(i);
+            }
+        }
+    }
+    
+    /** Run all the tasks that are due. */
+    public void runDueTasks() {
+        long now = System.currentTimeMillis();
+        // Tasks may schedule or cancel others while they run.
+        for (ScheduledTask scheduledTask :
+                new ArrayList<ScheduledTask>(scheduledTasks)) {
+            if (scheduledTask.nextRunTime <= now &&
+                    scheduledTasks.contains(scheduledTask)) {
+                scheduledTask.nextRunTime =
+                        now + scheduledTask.periodMilliseconds;
+                scheduledTask.task.run();
+            }
+        }
+    }
+    
+    /**
+     * Get the time until the next task is due.
+     * @return the time in milliseconds, at least 1, or 0 if nothing is
+     * scheduled.
+     */
+    public long getMillisecondsUntilNextTask() {
+        if (scheduledTasks.isEmpty()) {
+            return 0;
+        }
+        long nextRunTime = Long.MAX_VALUE;
+        for (ScheduledTask scheduledTask : scheduledTasks) {
+            nextRunTime = Math.min(nextRunTime, scheduledTask.nextRunTime);
+        }
+        return Math.max(1, nextRunTime - System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,267 @@
+package com.github.donkirkby.vograbulary.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import com.github.donkirkby.vograbulary.metrics.Metrics;
+import com.github.donkirkby.vograbulary.ultraghost.Controller;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage.Type;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostRandom;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+/**
+ * Host Ultraghost matches for clients on the local network.
+ * 
+ * A single thread runs the event loop with a selector, so the matches never
+ * need any locking. Clients send a JOIN message, and every two clients that
+ * join are paired in a new match. All the matches share the word list and
+ * its cached solution indexes.
+ */
+public class UltraghostServer {
+    //stopJesting
+    public static final int DEFAULT_PORT = 6283;
+    private static final int STUDENTS_PER_MATCH = 2;
+    private static final int REPORT_MILLISECONDS = 10 * 60 * 1000;
+    //resumeJesting
+    private static final Logger logger =
+            Logger.getLogger(UltraghostServer.class.getName());
+    
+    private WordList wordList;
+    private UltraghostRandom random = new UltraghostRandom();
+    private int minimumWordLength = 4;
+    private ServerScheduler scheduler = new ServerScheduler();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private List<Connection> waitingConnections = new ArrayList<Connection>();
+    private Set<ServerMatch> matches = new HashSet<ServerMatch>();
+    private volatile boolean isRunning;
+    
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Metrics.getDefault().setClock(new Metrics.Clock() {
+            @Override
+            public long microseconds() {
+                return System.nanoTime() / 1000;
+            }
+        });
+        UltraghostServer server =
+                new UltraghostServer(new ServerCorpus().getWordList());
+        server.bind(new InetSocketAddress(port));
+        logger.info("Ultraghost server listening on port " +
+                server.getPort() + ".");
+        server.run();
+    }
+    
+    public UltraghostServer(WordList wordList) {
+        this.wordList = wordList;
+        random.loadWordList(wordList);
+        scheduler.scheduleRepeating(new Runnable() {
+            @Override
+            public void run() {
+                float seconds = Controller.SCORE_MILLISECONDS / 1000f;
+                for (ServerMatch match : new ArrayList<ServerMatch>(matches)) {
+                    match.adjustScore(seconds);
+                    if (match.isOver()) {
+                        matches.remove(match);
+                    }
+                }
+            }
+        }, Controller.SCORE_MILLISECONDS);
+        scheduler.scheduleRepeating(new Runnable() {
+            @Override
+            public void run() {
+                logMetrics();
+            }
+        }, REPORT_MILLISECONDS);
+    }
+    
+    private void logMetrics() {
+        logger.info("Metrics:\n" + Metrics.getDefault().report());
+    }
+    
+    /** Replace the source of puzzles and starting students. */
+    public void setRandom(UltraghostRandom random) {
+        this.random = random;
+        random.loadWordList(wordList);
+    }
+    
+    public void setMinimumWordLength(int minimumWordLength) {
+        this.minimumWordLength = minimumWordLength;
+    }
+    
+    /**
+     * Start listening for clients.
+     * @param address the address to listen on. Use port 0 to choose any free
+     * port.
+     */
+    public void bind(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+    
+    /** The port the server is listening on, after bind(). */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+    
+    /** The number of matches being played. */
+    public int getMatchCount() {
+        return matches.size();
+    }
+    
+    /**
+     * Run the event loop until stop() is called. The metrics report is
+     * logged every ten minutes, and when the loop stops.
+     */
+    public void run() throws IOException {
+        isRunning = true;
+        try {
+            while (isRunning) {
+                selector.select(scheduler.getMillisecondsUntilNextTask());
+                Iterator<SelectionKey> keys =
+                        selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                scheduler.runDueTasks();
+            }
+        }
+        finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+            logMetrics();
+        }
+    }
+    
+    /** Stop the event loop. This can be called from any thread. */
+    public void stop() {
+        isRunning = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+    
+    private void handle(SelectionKey key) {
+        if ( ! key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                List<UltraghostMessage> messages = connection.read();
+                if (messages == null) {
+                    disconnect(connection);
+                    return;
+                }
+                for (UltraghostMessage message : messages) {
+                    receive(connection, message);
+                }
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (IOException ex) {
+            disconnect(connection);
+        }
+    }
+    
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        } catch (IOException ex) {
+            // The client gave up before it was accepted.
+        }
+    }
+    
+    private void receive(Connection connection, UltraghostMessage message) {
+        if (message.getType() == Type.JOIN) {
+            join(connection, message.getValue(0));
+        }
+        else if (connection.getMatch() == null) {
+            connection.send(new UltraghostMessage(
+                    Type.ERROR,
+                    "Join a match first."));
+        }
+        else {
+            connection.getMatch().receive(connection, message);
+        }
+    }
+    
+    private void join(Connection connection, String name) {
+        if (connection.getStudentName() != null) {
+            connection.send(new UltraghostMessage(
+                    Type.ERROR,
+                    "You already joined."));
+            return;
+        }
+        if (name == null || name.trim().length() == 0) {
+            name = "Student";
+        }
+        String uniqueName = name;
+        for (int suffix = 2; isWaiting(uniqueName); suffix++) {
+            uniqueName = name + " " + suffix;
+        }
+        connection.setStudentName(uniqueName);
+        waitingConnections.add(connection);
+        if (waitingConnections.size() >= STUDENTS_PER_MATCH) {
+            Connection[] players = waitingConnections.toArray(
+                    new Connection[waitingConnections.size()]);
+            waitingConnections.clear();
+            ServerMatch match = new ServerMatch(
+                    players,
+                    wordList,
+                    random,
+                    minimumWordLength);
+            matches.add(match);
+            match.start();
+        }
+    }
+    
+    private boolean isWaiting(String name) {
+        for (Connection other : waitingConnections) {
+            if (other.getStudentName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void disconnect(Connection connection) {
+        waitingConnections.remove(connection);
+        ServerMatch match = connection.getMatch();
+        if (match != null) {
+            match.abandon(connection);
+            matches.remove(match);
+        }
+        connection.close();
+    }
+}
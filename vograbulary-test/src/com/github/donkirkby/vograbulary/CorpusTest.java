@@ -0,0 +1,185 @@
+package com.github.donkirkby.vograbulary;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.github.donkirkby.vograbulary.poemsorting.Poem;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class CorpusTest {
+    private DummyCorpus corpus;
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    private static class DummyCorpus extends Corpus {
+        private List<String> loadedAssets = new ArrayList<String>();
+        
+        @Override
+        protected List<String> loadTextAsset(String assetName) {
+            loadedAssets.add(assetName);
+            if (assetName.equals(WORD_LIST_ASSET)) {
+                return Arrays.asList("ones", "two", "three");
+            }
+            if (assetName.equals(RUSSIAN_DOLLS_ASSET)) {
+                return Arrays.asList("When you are *unable* to find *comfort*.");
+            }
+            if (assetName.equals(BACRONYMS_ASSET)) {
+                return Arrays.asList("alpha ateb gamma");
+            }
+            return Arrays.asList(
+                    "## A Poem ##",
+                    "The first line,  ",
+                    "And the second.");
+        }
+        
+        public List<String> getLoadedAssets() {
+            return loadedAssets;
+        }
+    }
+    
+    @Before
+    public void setUp() {
+        corpus = new DummyCorpus();
+    }
+    
+    @Test
+    public void lazyLoad() {
+        assertThat("loaded assets", corpus.getLoadedAssets().size(), is(0));
+    }
+    
+    @Test
+    public void wordList() {
+        WordList wordList = corpus.getWordList();
+        
+        assertThat("size", wordList.size(), is(2));
+        assertThat("contains", wordList.contains("THREE"), is(true));
+    }
+    
+    @Test
+    public void wordListLoadedOnce() {
+        WordList wordList1 = corpus.getWordList();
+        WordList wordList2 = corpus.getWordList();
+        
+        assertThat("word list", wordList2, sameInstance(wordList1));
+        assertThat(
+                "loaded assets",
+                corpus.getLoadedAssets(),
+                is(Arrays.asList(Corpus.WORD_LIST_ASSET)));
+    }
+    
+    @Test
+    public void wordListInBackground() {
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        corpus.setScheduler(new Scheduler() {
+            @Override
+            public void scheduleRepeating(Runnable task, int periodMilliseconds) {
+                tasks.add(task);
+            }
+            
+            @Override
+            public void cancel(Runnable task) {
+                tasks.remove(task);
+            }
+        });
+        
+        WordList wordList = corpus.getWordList();
+        boolean isCompleteBeforeTask = corpus.isWordListComplete();
+        
+        assertThat("size", wordList.size(), is(2));
+        assertThat("is complete before", isCompleteBeforeTask, is(true));
+        assertThat("tasks", tasks.size(), is(0));
+    }
+    
+    @Test
+    public void acquireWordList() {
+        WordList wordList1 = corpus.acquireWordList();
+        WordList wordList2 = corpus.acquireWordList();
+        
+        assertThat("word list", wordList2, sameInstance(wordList1));
+        assertThat("size", wordList1.size(), is(2));
+    }
+    
+    @Test
+    public void trimMemoryKeepsAcquiredWordList() {
+        WordList wordList1 = corpus.acquireWordList();
+        
+        corpus.trimMemory();
+        WordList wordList2 = corpus.getWordList();
+        
+        assertThat("word list", wordList2, sameInstance(wordList1));
+    }
+    
+    @Test
+    public void trimMemoryDropsReleasedWordList() {
+        WordList wordList1 = corpus.acquireWordList();
+        corpus.acquireWordList();
+        corpus.releaseWordList();
+        corpus.releaseWordList();
+        
+        corpus.trimMemory();
+        WordList wordList2 = corpus.getWordList();
+        
+        assertThat("word list", wordList2, not(sameInstance(wordList1)));
+        assertThat("size", wordList2.size(), is(2));
+    }
+    
+    @Test
+    public void trimMemoryDropsPuzzles() {
+        List<String> bacronyms1 = corpus.getBacronyms();
+        
+        corpus.trimMemory();
+        List<String> bacronyms2 = corpus.getBacronyms();
+        
+        assertThat("bacronyms", bacronyms2, not(sameInstance(bacronyms1)));
+        assertThat("bacronyms", bacronyms2, is(bacronyms1));
+    }
+    
+    @Test
+    public void puzzleLists() {
+        List<String> russianDolls1 = corpus.getRussianDolls();
+        List<String> russianDolls2 = corpus.getRussianDolls();
+        List<String> bacronyms = corpus.getBacronyms();
+        corpus.getBacronyms();
+        
+        assertThat("russian dolls", russianDolls2, sameInstance(russianDolls1));
+        assertThat("bacronyms", bacronyms.get(0), is("alpha ateb gamma"));
+        assertThat(
+                "loaded assets",
+                corpus.getLoadedAssets(),
+                is(Arrays.asList(
+                        Corpus.RUSSIAN_DOLLS_ASSET,
+                        Corpus.BACRONYMS_ASSET)));
+    }
+    
+    @Test
+    public void unmodifiable() {
+        List<String> bacronyms = corpus.getBacronyms();
+        
+        thrown.expect(UnsupportedOperationException.class);
+        bacronyms.remove(0);
+    }
+    
+    @Test
+    public void poems() {
+        List<Poem> poems1 = corpus.getPoems("whitman.md");
+        List<Poem> poems2 = corpus.getPoems("whitman.md");
+        corpus.getPoems("shakespeare.md");
+        
+        assertThat("poems", poems2, sameInstance(poems1));
+        assertThat("title", poems1.get(0).getTitle(), is("A Poem"));
+        assertThat(
+                "loaded assets",
+                corpus.getLoadedAssets(),
+                is(Arrays.asList("whitman.md", "shakespeare.md")));
+    }
+}
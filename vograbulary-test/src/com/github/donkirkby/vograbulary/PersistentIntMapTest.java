@@ -0,0 +1,139 @@
+package com.github.donkirkby.vograbulary;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PersistentIntMapTest {
+    @Test
+    public void empty() {
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+
+        assertThat("size", map.size(), is(0));
+        assertThat("is empty", map.isEmpty(), is(true));
+        assertThat("contains", map.containsKey(5), is(false));
+        assertThat("value", map.get(5), nullValue());
+        assertThat("keys", map.keys().length, is(0));
+    }
+
+    @Test
+    public void put() {
+        PersistentIntMap<String> empty = PersistentIntMap.empty();
+
+        PersistentIntMap<String> map = empty.put(5, "five").put(37, "37");
+
+        assertThat("size", map.size(), is(2));
+        assertThat("five", map.get(5), is("five"));
+        assertThat("37", map.get(37), is("37"));
+        assertThat("missing", map.get(69), nullValue());
+        assertThat("empty size", empty.size(), is(0));
+    }
+
+    @Test
+    public void replace() {
+        PersistentIntMap<String> map1 =
+                PersistentIntMap.<String>empty().put(5, "five");
+
+        PersistentIntMap<String> map2 = map1.put(5, "FIVE");
+
+        assertThat("size", map2.size(), is(1));
+        assertThat("new value", map2.get(5), is("FIVE"));
+        assertThat("old value", map1.get(5), is("five"));
+    }
+
+    @Test
+    public void putNull() {
+        PersistentIntMap<String> map =
+                PersistentIntMap.<String>empty().put(5, null);
+
+        assertThat("size", map.size(), is(1));
+        assertThat("contains", map.containsKey(5), is(true));
+        assertThat("value", map.get(5), is((String) null));
+    }
+
+    @Test
+    public void negativeKeys() {
+        PersistentIntMap<String> map = PersistentIntMap.<String>empty()
+                .put(-1, "minus one")
+                .put(Integer.MAX_VALUE, "max")
+                .put(Integer.MIN_VALUE, "min")
+                .put(0x7FFFFFFF & -1, "same as max");
+
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+
+        assertThat("size", map.size(), is(3));
+        assertThat("minus one", map.get(-1), is("minus one"));
+        assertThat("max", map.get(Integer.MAX_VALUE), is("same as max"));
+        assertThat("min", map.get(Integer.MIN_VALUE), is("min"));
+        assertThat(
+                "keys",
+                keys,
+                is(new int[] { Integer.MIN_VALUE, -1, Integer.MAX_VALUE }));
+    }
+
+    @Test
+    public void remove() {
+        PersistentIntMap<String> map1 = PersistentIntMap.<String>empty()
+                .put(5, "five")
+                .put(37, "37")
+                .put(6, "six");
+
+        PersistentIntMap<String> map2 = map1.remove(37);
+        PersistentIntMap<String> map3 = map2.remove(5).remove(6);
+
+        assertThat("size 1", map1.size(), is(3));
+        assertThat("37 in 1", map1.get(37), is("37"));
+        assertThat("size 2", map2.size(), is(2));
+        assertThat("37 in 2", map2.containsKey(37), is(false));
+        assertThat("five in 2", map2.get(5), is("five"));
+        assertThat("size 3", map3.size(), is(0));
+        assertThat("keys 3", map3.keys().length, is(0));
+    }
+
+    @Test
+    public void removeMissing() {
+        PersistentIntMap<String> map1 =
+                PersistentIntMap.<String>empty().put(5, "five");
+
+        PersistentIntMap<String> map2 = map1.remove(37);
+
+        assertThat("same map", map2, sameInstance(map1));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+
+        for (int i = 0; i < 5000; i++) {
+            // Small keys share slots at the first few levels.
+            int key = random.nextInt(2000) * (random.nextBoolean() ? 32 : 1);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            }
+            else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+
+        assertThat("size", map.size(), is(expected.size()));
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertThat("value", map.get(entry.getKey()), is(entry.getValue()));
+        }
+        int[] keys = map.keys();
+        assertThat("key count", keys.length, is(expected.size()));
+        for (int key : keys) {
+            assertThat("key", expected.containsKey(key), is(true));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.donkirkby.vograbulary;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class SnapshotWriterTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    @Test
+    public void roundTrip() {
+        SnapshotWriter writer = new SnapshotWriter();
+        writer.writeInt(5);
+        writer.writeInt(-1);
+        writer.writeInt(Integer.MAX_VALUE);
+        writer.writeInt(Integer.MIN_VALUE);
+        writer.writeBoolean(true);
+        writer.writeFloat(2.5f);
+        writer.writeString("\u00DCber");
+        writer.writeString(null);
+        writer.writeString("");
+        
+        SnapshotReader reader = new SnapshotReader(writer.toByteArray());
+        
+        assertThat("small", reader.readInt(), is(5));
+        assertThat("negative", reader.readInt(), is(-1));
+        assertThat("max", reader.readInt(), is(Integer.MAX_VALUE));
+        assertThat("min", reader.readInt(), is(Integer.MIN_VALUE));
+        assertThat("boolean", reader.readBoolean(), is(true));
+        assertThat("float", reader.readFloat(), is(2.5f));
+        assertThat("string", reader.readString(), is("\u00DCber"));
+        assertThat("null", reader.readString(), nullValue());
+        assertThat("empty", reader.readString(), is(""));
+    }
+    
+    @Test
+    public void smallIntegersTakeOneByte() {
+        SnapshotWriter writer = new SnapshotWriter();
+        writer.writeInt(63);
+        writer.writeInt(-64);
+        
+        assertThat("size", writer.toByteArray().length, is(2));
+    }
+    
+    @Test
+    public void growBuffer() {
+        SnapshotWriter writer = new SnapshotWriter();
+        for (int i = 0; i < 1000; i++) {
+            writer.writeInt(i);
+        }
+        
+        SnapshotReader reader = new SnapshotReader(writer.toByteArray());
+        int sum = 0;
+        for (int i = 0; i < 1000; i++) {
+            sum += reader.readInt();
+        }
+        
+        assertThat("sum", sum, is(499500));
+    }
+    
+    @Test
+    public void truncated() {
+        SnapshotReader reader = new SnapshotReader(new byte[0]);
+        
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Snapshot is truncated.");
+        reader.readInt();
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.donkirkby.vograbulary;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.donkirkby.vograbulary.WordListBuilder.ChunkCounts;
+
+public class WordListBuilderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File writeCorpus(String text) throws IOException {
+        File file = folder.newFile();
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(text.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            stream.close();
+        }
+        return file;
+    }
+
+    private ChunkCounts count(File corpus, int chunkSize, int threadCount)
+            throws Exception {
+        WordListBuilder builder = new WordListBuilder();
+        try {
+            builder.setChunkSize(chunkSize);
+            builder.setThreadCount(threadCount);
+            builder.addCorpus(corpus.getPath());
+            return builder.count();
+        } finally {
+            builder.close();
+        }
+    }
+
+    private static Map<String, Long> toMap(WordCounts words) {
+        Map<String, Long> map = new HashMap<String, Long>();
+        for (int i = 0; i < words.size(); i++) {
+            map.put(words.getWord(i), words.getCount(i));
+        }
+        return map;
+    }
+
+    @Test
+    public void wordAcrossChunks() throws Exception {
+        File corpus = writeCorpus("Alpha bravo charlie, delta echo.\n");
+        Map<String, Long> expected = new HashMap<String, Long>();
+        for (String word : "alpha bravo charlie delta echo".split(" ")) {
+            expected.put(word, 1L);
+        }
+
+        // Every chunk size puts a boundary somewhere in a word.
+        for (int chunkSize = 1; chunkSize <= corpus.length(); chunkSize++) {
+            ChunkCounts counts = count(corpus, chunkSize, 1);
+
+            assertThat(
+                    "words with chunk size " + chunkSize,
+                    toMap(counts.words),
+                    is(expected));
+            assertThat("word count", counts.wordCount, is(5L));
+            assertThat("byte count", counts.byteCount, is(corpus.length()));
+        }
+    }
+
+    @Test
+    public void skipLongAndAccentedWords() throws Exception {
+        StringBuilder text = new StringBuilder("caf\u00e9 na\u00efve ok ");
+        for (int i = 0; i < 41; i++) {
+            text.append('x');
+        }
+        text.append(" longest ");
+        StringBuilder maxLength = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            maxLength.append('y');
+        }
+        text.append(maxLength);
+        text.append(" \u00e9t\u00e9 ok\n");
+        File corpus = writeCorpus(text.toString());
+
+        for (int chunkSize = 1; chunkSize <= corpus.length(); chunkSize++) {
+            ChunkCounts counts = count(corpus, chunkSize, 1);
+            Map<String, Long> words = toMap(counts.words);
+
+            assertThat(
+                    "ok with chunk size " + chunkSize,
+                    words.get("ok"),
+                    is(2L));
+            assertThat("longest", words.get("longest"), is(1L));
+            assertThat(
+                    "max length",
+                    words.get(maxLength.toString()),
+                    is(1L));
+            assertThat("different words", words.size(), is(3));
+            assertThat("word count", counts.wordCount, is(4L));
+        }
+    }
+
+    @Test
+    public void threadsMatchOneThread() throws Exception {
+        String[] vocabulary =
+                "the of and to in is was that for it word list".split(" ");
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append(vocabulary[random.nextInt(vocabulary.length)]);
+            text.append(random.nextInt(10) == 0 ? ".\n" : " ");
+        }
+        File corpus = writeCorpus(text.toString());
+
+        ChunkCounts oneThread = count(corpus, 100, 1);
+        ChunkCounts fourThreads = count(corpus, 100, 4);
+
+        assertThat("word count", oneThread.wordCount, is(20000L));
+        assertThat(
+                "threaded word count",
+                fourThreads.wordCount,
+                is(oneThread.wordCount));
+        assertThat(
+                "words",
+                toMap(fourThreads.words),
+                is(toMap(oneThread.words)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class AnagramsDeckGeneratorTest {
+    private WordList wordList;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList("FORE", "ROPE", "PORE", "FORGE", "TREE");
+    }
+    
+    private static String sortLetters(String letters) {
+        char[] sorted = letters.toCharArray();
+        Arrays.sort(sorted);
+        return new String(sorted);
+    }
+    
+    @Test
+    public void countFindableWords() {
+        AnagramsDeckGenerator generator =
+                new AnagramsDeckGenerator(wordList, new Random(0), "ABC");
+        
+        assertThat(
+                "anagrams",
+                generator.countFindableWords("PORExxx", 4),
+                is(2));
+        assertThat(
+                "subset",
+                generator.countFindableWords("GEROFxx", 5),
+                is(2));
+        assertThat(
+                "not revealed",
+                generator.countFindableWords("GEROFxx", 4),
+                is(0));
+        assertThat(
+                "double letter",
+                generator.countFindableWords("TRExE", 4),
+                is(0));
+    }
+    
+    @Test
+    public void generateKeepsLetters() {
+        String letters = "EROPFGTXYZ";
+        AnagramsDeckGenerator generator =
+                new AnagramsDeckGenerator(wordList, new Random(0), letters);
+        
+        String deck = generator.generate();
+        
+        assertThat("letters", sortLetters(deck), is(sortLetters(letters)));
+    }
+    
+    @Test
+    public void generateReachesTarget() {
+        String letters = "EROPFGTXYZQJKVW";
+        AnagramsDeckGenerator generator =
+                new AnagramsDeckGenerator(wordList, new Random(0), letters);
+        
+        String deck = generator.generate(5, 2, 10000);
+        
+        assertThat("letters", sortLetters(deck), is(sortLetters(letters)));
+        assertThat(
+                "findable words",
+                generator.countFindableWords(deck, 5),
+                is(2));
+    }
+}
@@ -3,6 +3,8 @@ package com.github.donkirkby.vograbulary.anagrams;
 import static com.github.donkirkby.vograbulary.Assert.*;
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Rule;
@@ -563,4 +565,521 @@ public class AnagramsGameModelTest {
         assertEquals("player 1 word", "FORGE", player1Words.get(0));
     }
 
+    @Test
+    public void getWordsInClaimedOrder() throws InvalidWordException {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE",
+            "PORE",
+            "TIPS"
+        }));
+        model.setDeck("PORETIPSFOREG");
+        AnagramsPlayer player1 = new AnagramsPlayer();
+        AnagramsPlayer player2 = new AnagramsPlayer();
+        model.addPlayer(player1);
+        model.addPlayer(player2);
+        for (int i = 0; i < 13; i++) {
+            model.revealLetter();
+        }
+        
+        // EXEC
+        model.makeWord("TIPS", player1);
+        List<String> player1Words = model.getWords(player1);
+        model.makeWord("PORE", player1);
+        model.makeWord("FORE", player2);
+        model.changeWord("FORE", "FORGE", player1);
+        
+        // VERIFY
+        assertEquals("player 1 word count", 3, player1Words.size());
+        assertEquals("player 1 word 1", "TIPS", player1Words.get(0));
+        assertEquals("player 1 word 2", "PORE", player1Words.get(1));
+        assertEquals("player 1 word 3", "FORGE", player1Words.get(2));
+        assertEquals("player 2 word count", 0, model.getWords(player2).size());
+    }
+
+    @Test
+    public void tryMakeWord() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "PORE"
+        }));
+        model.setDeck("ERFO");
+        AnagramsPlayer player = new AnagramsPlayer();
+        model.addPlayer(player);
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        
+        // EXEC
+        MoveResult unavailableResult = model.tryMakeWord("PORE", player);
+        String lettersAfterFailure = model.getUnclaimedLetters();
+        MoveResult validResult = model.tryMakeWord("FORE", player);
+        MoveResult playedResult = model.tryMakeWord("FORE", player);
+        
+        // VERIFY
+        assertEquals(
+                "unavailable result",
+                MoveResult.LETTER_NOT_AVAILABLE,
+                unavailableResult);
+        assertEquivalent("letters after failure", "ERFO", lettersAfterFailure);
+        assertEquals("valid result", MoveResult.VALID, validResult);
+        assertEquals("played result", MoveResult.ALREADY_PLAYED, playedResult);
+        assertEquals("score", 4, player.getScore());
+        assertEquals("unclaimed letters", "", model.getUnclaimedLetters());
+    }
+
+    @Test
+    public void tryChangeWord() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE",
+            "FORGET",
+            "GORE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player1 = new AnagramsPlayer();
+        AnagramsPlayer player2 = new AnagramsPlayer();
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        model.tryMakeWord("FORE", player1);
+        model.revealLetter(); // G
+        
+        // EXEC
+        MoveResult unusedResult = model.tryChangeWord("FORE", "GORE", player2);
+        MoveResult unclaimedResult = 
+                model.tryChangeWord("GORE", "FORGE", player2);
+        MoveResult validResult = model.tryChangeWord("FORE", "FORGE", player2);
+        
+        // VERIFY
+        assertEquals("unused result", MoveResult.LETTERS_NOT_USED, unusedResult);
+        assertEquals(
+                "unclaimed result",
+                MoveResult.NOT_CLAIMED,
+                unclaimedResult);
+        assertEquals("valid result", MoveResult.VALID, validResult);
+        assertEquals("player 1 score", 0, player1.getScore());
+        assertEquals("player 2 score", 5, player2.getScore());
+        assertEquals("unclaimed letters", "", model.getUnclaimedLetters());
+    }
+
+    @Test
+    public void checkMoves() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE",
+            "GORE",
+            "PORE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player = new AnagramsPlayer();
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        model.tryMakeWord("FORE", player);
+        model.revealLetter(); // G
+        List<AnagramsMove> moves = Arrays.asList(
+                new AnagramsMove("FORE", "FORGE"),
+                new AnagramsMove("GORE"),
+                new AnagramsMove("FORE"),
+                new AnagramsMove("POREX"),
+                new AnagramsMove("ORE"));
+        
+        // EXEC
+        MoveResult[] results = model.checkMoves(moves);
+        
+        // VERIFY
+        assertEquals("count", 5, results.length);
+        assertEquals("change", MoveResult.VALID, results[0]);
+        assertEquals("make", MoveResult.LETTER_NOT_AVAILABLE, results[1]);
+        assertEquals("played", MoveResult.ALREADY_PLAYED, results[2]);
+        assertEquals("unknown", MoveResult.NOT_A_WORD, results[3]);
+        assertEquals("short", MoveResult.TOO_SHORT, results[4]);
+        assertEquals("unclaimed letters", "G", model.getUnclaimedLetters());
+        assertEquals("words", Arrays.asList("FORE"), model.getWords(player));
+    }
+    
+    @Test
+    public void lowerCaseMoves() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player = new AnagramsPlayer();
+        final List<AnagramsMove> moves = new ArrayList<AnagramsMove>();
+        model.addListener(new AnagramsGameModel.Listener() {
+            @Override
+            public void deckChanged() {
+            }
+            
+            @Override
+            public void letterRevealed(char letter) {
+            }
+            
+            @Override
+            public void movePlayed(AnagramsMove move) {
+                moves.add(move);
+            }
+        });
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        
+        // EXEC
+        MoveResult unknownResult = model.checkMakeWord("gore");
+        MoveResult makeResult = model.tryMakeWord("fore", player);
+        model.revealLetter(); // G
+        MoveResult changeResult = model.tryChangeWord("fore", "forge", player);
+        
+        // VERIFY
+        assertEquals("unknown", MoveResult.NOT_A_WORD, unknownResult);
+        assertEquals("make", MoveResult.VALID, makeResult);
+        assertEquals("change", MoveResult.VALID, changeResult);
+        assertEquals("words", Arrays.asList("FORGE"), model.getWords(player));
+        assertEquals("move count", 2, moves.size());
+        assertEquals("made word", "FORE", moves.get(0).getNewWord());
+        assertEquals("old word", "FORE", moves.get(1).getOldWord());
+        assertEquals("new word", "FORGE", moves.get(1).getNewWord());
+    }
+    
+    @Test
+    public void lowerCaseUnavailableLetter() throws Exception {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORK"
+        }));
+        model.setDeck("ERFGO");
+        AnagramsPlayer player = new AnagramsPlayer();
+        for (int i = 0; i < 5; i++) {
+            model.revealLetter();
+        }
+        
+        // EXEC
+        InvalidWordException ex = makeInvalidWord(model, "fork", player);
+        
+        // VERIFY
+        assertEquals(
+                "message",
+                "The letter K is not available to make FORK.",
+                ex.getMessage());
+        assertEquals("unclaimed letters", "ERFGO", model.getUnclaimedLetters());
+    }
+    
+    @Test
+    public void suggestWords() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORCE",
+            "FORGE",
+            "GORE",
+            "PORE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player = new AnagramsPlayer();
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        model.tryMakeWord("FORE", player);
+        model.revealLetter(); // G
+        
+        // EXEC
+        List<String> changeSuggestions =
+                model.suggestWords("FORE", "FORXE", 10);
+        List<String> makeSuggestions = model.suggestWords(null, "GORX", 10);
+        
+        // VERIFY
+        // FORCE is close, but there's no C.
+        assertEquals("change", Arrays.asList("FORGE"), changeSuggestions);
+        // GORE is close, but its letters are claimed.
+        assertEquals("make", Arrays.asList(), makeSuggestions);
+    }
+    
+    @Test
+    public void undoRedo() throws InvalidWordException {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player1 = new AnagramsPlayer();
+        AnagramsPlayer player2 = new AnagramsPlayer();
+        model.addPlayer(player1);
+        model.addPlayer(player2);
+        for (int i = 0; i < 5; i++) {
+            model.revealLetter();
+        }
+        model.makeWord("FORE", player1);
+        model.changeWord("FORE", "FORGE", player2);
+        
+        // EXEC
+        boolean isUndone = model.undo();
+        String lettersAfterUndo = model.getUnclaimedLetters();
+        List<String> player1WordsAfterUndo =
+                model.getState().getWords(player1);
+        int player1ScoreAfterUndo = player1.getScore();
+        int player2ScoreAfterUndo = player2.getScore();
+        MoveResult foreResultAfterUndo = model.checkMakeWord("FORE");
+        boolean isRedone = model.redo();
+        boolean canRedo = model.canRedo();
+        
+        // VERIFY
+        assertTrue("undone", isUndone);
+        assertEquals("letters after undo", "G", lettersAfterUndo);
+        assertEquals(
+                "player 1 words after undo",
+                Arrays.asList("FORE"),
+                player1WordsAfterUndo);
+        assertEquals("player 1 score after undo", 4, player1ScoreAfterUndo);
+        assertEquals("player 2 score after undo", 0, player2ScoreAfterUndo);
+        assertEquals(
+                "FORE after undo",
+                MoveResult.ALREADY_PLAYED,
+                foreResultAfterUndo);
+        assertTrue("redone", isRedone);
+        assertFalse("can redo", canRedo);
+        assertEquals("letters", "", model.getUnclaimedLetters());
+        assertEquals("player 1 words", 0, model.getWords(player1).size());
+        assertEquals(
+                "player 2 words",
+                Arrays.asList("FORGE"),
+                model.getWords(player2));
+        assertEquals("player 1 score", 0, player1.getScore());
+        assertEquals("player 2 score", 5, player2.getScore());
+    }
+    
+    @Test
+    public void undoReveal() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setDeck("ERFOG");
+        model.revealLetter();
+        model.revealLetter();
+        
+        // EXEC
+        model.undo();
+        String lettersAfterUndo = model.getUnclaimedLetters();
+        char nextLetter = model.revealLetter();
+        
+        // VERIFY
+        assertEquals("letters after undo", "E", lettersAfterUndo);
+        assertEquals("next letter", 'R', nextLetter);
+        assertFalse("can redo", model.canRedo());
+        assertTrue("can undo", model.canUndo());
+    }
+    
+    @Test
+    public void undoNothing() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setDeck("ERFOG");
+        model.revealLetter();
+        model.setDeck("ERFOG");
+        
+        // EXEC
+        boolean isUndone = model.undo();
+        boolean isRedone = model.redo();
+        
+        // VERIFY
+        assertFalse("undone", isUndone);
+        assertFalse("redone", isRedone);
+    }
+    
+    @Test
+    public void undoNotifiesListeners() {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        final int[] deckChangeCount = new int[1];
+        model.addListener(new AnagramsGameModel.Listener() {
+            @Override
+            public void deckChanged() {
+                deckChangeCount[0]++;
+            }
+            
+            @Override
+            public void letterRevealed(char letter) {
+            }
+            
+            @Override
+            public void movePlayed(AnagramsMove move) {
+            }
+        });
+        model.setDeck("ERFOG");
+        model.revealLetter();
+        
+        // EXEC
+        model.undo();
+        model.redo();
+        
+        // VERIFY
+        assertEquals("deck changes", 3, deckChangeCount[0]);
+    }
+    
+    @Test
+    public void snapshot() throws InvalidWordException {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player = new AnagramsPlayer();
+        model.addPlayer(player);
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        
+        // EXEC
+        AnagramsGameState snapshot = model.getState();
+        model.makeWord("FORE", player);
+        model.revealLetter();
+        AnagramsGameState laterState = model.getState();
+        model.restoreState(snapshot);
+        
+        // VERIFY
+        assertEquals("snapshot letters", "ERFO", snapshot.getUnclaimedLetters());
+        assertEquals("snapshot words", 0, snapshot.getWords(player).size());
+        assertEquals("later letters", "G", laterState.getUnclaimedLetters());
+        assertEquals(
+                "later words",
+                Arrays.asList("FORE"),
+                laterState.getWords(player));
+        assertEquals("later score", 4, laterState.getScore(player));
+        assertEquals("letters", "ERFO", model.getUnclaimedLetters());
+        assertEquals("score", 0, player.getScore());
+        assertFalse("can undo", model.canUndo());
+        assertEquals(
+                "FORE result",
+                MoveResult.VALID,
+                model.checkMakeWord("FORE"));
+    }
+    
+    @Test
+    public void undoAddPlayer() throws InvalidWordException {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player1 = new AnagramsPlayer();
+        AnagramsPlayer player2 = new AnagramsPlayer();
+        player2.setScore(10);
+        model.addPlayer(player1);
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        model.makeWord("FORE", player1);
+        model.addPlayer(player2);
+        
+        // EXEC
+        model.undo(); // join
+        int playerCountAfterJoinUndo = model.getPlayers().size();
+        model.undo(); // move
+        int playerCountAfterMoveUndo = model.getPlayers().size();
+        String lettersAfterMoveUndo = model.getUnclaimedLetters();
+        model.redo();
+        model.redo();
+        
+        // VERIFY
+        assertEquals(
+                "player count after join undo",
+                1,
+                playerCountAfterJoinUndo);
+        assertEquals(
+                "player count after move undo",
+                1,
+                playerCountAfterMoveUndo);
+        assertEquals("letters after move undo", "ERFO", lettersAfterMoveUndo);
+        assertEquals(
+                "players",
+                Arrays.asList(player1, player2),
+                model.getPlayers());
+        assertEquals("words", Arrays.asList("FORE"), model.getWords(player1));
+    }
+    
+    @Test
+    public void scoresAfterUndo() throws InvalidWordException {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE",
+            "FORGE"
+        }));
+        model.setDeck("ERFOG");
+        AnagramsPlayer player1 = new AnagramsPlayer();
+        AnagramsPlayer player2 = new AnagramsPlayer();
+        player2.setScore(10);
+        model.addPlayer(player1);
+        for (int i = 0; i < 5; i++) {
+            model.revealLetter();
+        }
+        AnagramsGameState beforeJoin = model.getState();
+        model.makeWord("FORE", player1);
+        model.addPlayer(player2);
+        model.changeWord("FORE", "FORGE", player2);
+        
+        // EXEC
+        int player1ScoreAfterChange = player1.getScore();
+        int player2ScoreAfterChange = player2.getScore();
+        model.undo(); // change
+        int player1ScoreAfterUndo = player1.getScore();
+        int player2ScoreAfterUndo = player2.getScore();
+        player2.setScore(99); // changed by something outside the game
+        model.restoreState(beforeJoin);
+        
+        // VERIFY
+        assertEquals("player 1 score after change", 0, player1ScoreAfterChange);
+        assertEquals(
+                "player 2 score after change",
+                15,
+                player2ScoreAfterChange);
+        assertEquals("player 1 score after undo", 4, player1ScoreAfterUndo);
+        assertEquals("player 2 score after undo", 10, player2ScoreAfterUndo);
+        assertEquals("player 1 score", 0, player1.getScore());
+        assertEquals("player 2 score", 10, player2.getScore());
+    }
+    
+    @Test
+    public void undoUnaddedPlayer() throws InvalidWordException {
+        // SETUP
+        AnagramsGameModel model = new AnagramsGameModel();
+        model.setWordList(new WordList(new String[] {
+            "FORE"
+        }));
+        model.setDeck("ERFO");
+        AnagramsPlayer player = new AnagramsPlayer();
+        player.setScore(10);
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter();
+        }
+        model.makeWord("FORE", player);
+        
+        // EXEC
+        int scoreAfterMove = player.getScore();
+        model.undo();
+        
+        // VERIFY
+        assertEquals("score after move", 14, scoreAfterMove);
+        assertEquals("score", 10, player.getScore());
+        assertEquals("player count", 0, model.getPlayers().size());
+    }
 }
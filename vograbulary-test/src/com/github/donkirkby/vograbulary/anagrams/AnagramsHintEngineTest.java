@@ -0,0 +1,159 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class AnagramsHintEngineTest {
+    private AnagramsGameModel model;
+    private AnagramsPlayer player;
+    
+    @Before
+    public void setUp() {
+        model = new AnagramsGameModel();
+        model.setWordList(new WordList(
+                "GORE",
+                "FORE",
+                "FORGE",
+                "PORE",
+                "ROPE",
+                "FOREST"));
+        model.setDeck("EROFGPST");
+        player = new AnagramsPlayer();
+        model.addPlayer(player);
+    }
+    
+    private List<String> describe(List<AnagramsMove> moves) {
+        List<String> descriptions = new ArrayList<String>();
+        for (AnagramsMove move : moves) {
+            descriptions.add(move.toString());
+        }
+        return descriptions;
+    }
+    
+    @Test
+    public void noMoves() {
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        
+        assertThat("moves", engine.getMoves().size(), is(0));
+        assertThat("best move", engine.getBestMove(), nullValue());
+    }
+    
+    @Test
+    public void revealLetters() {
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter(); // EROF
+        }
+        List<String> movesBeforeG = describe(engine.getMoves());
+        model.revealLetter(); // G
+        
+        List<String> moves = describe(engine.getMoves());
+        
+        assertThat("moves before G", movesBeforeG, is(Arrays.asList("FORE")));
+        assertThat(
+                "moves",
+                moves,
+                is(Arrays.asList("FORGE", "GORE", "FORE")));
+        assertThat("best move", engine.getBestMove().toString(), is("FORGE"));
+    }
+    
+    @Test
+    public void steal() throws InvalidWordException {
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter(); // EROF
+        }
+        model.makeWord("FORE", player);
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        List<String> movesBeforeG = describe(engine.getMoves());
+        model.revealLetter(); // G
+        model.revealLetter(); // P
+        
+        List<String> moves = describe(engine.getMoves());
+        
+        assertThat("moves before G", movesBeforeG.size(), is(0));
+        assertThat("moves", moves, is(Arrays.asList("FORE => FORGE")));
+    }
+    
+    @Test
+    public void moveClaimsLetters() throws InvalidWordException {
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        for (int i = 0; i < 6; i++) {
+            model.revealLetter(); // EROFGP
+        }
+        
+        model.makeWord("GORE", player);
+        List<String> moves = describe(engine.getMoves());
+        
+        assertThat("moves", moves, is(Arrays.asList("GORE => FORGE")));
+    }
+    
+    @Test
+    public void missedWords() throws InvalidWordException {
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        for (int i = 0; i < 6; i++) {
+            model.revealLetter(); // EROFGP
+        }
+        model.makeWord("PORE", player);
+        
+        List<String> missedWords = engine.getMissedWords();
+        
+        assertThat(
+                "missed words",
+                missedWords,
+                is(Arrays.asList("FORGE", "GORE", "FORE", "ROPE")));
+    }
+    
+    @Test
+    public void deckChanged() {
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter(); // EROF
+        }
+        
+        model.setDeck("PORE");
+        
+        assertThat("moves", engine.getMoves().size(), is(0));
+        assertThat("missed words", engine.getMissedWords().size(), is(0));
+    }
+    
+    @Test
+    public void detach() {
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        engine.detach();
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter(); // EROF
+        }
+        
+        assertThat("moves", engine.getMoves().size(), is(0));
+    }
+    
+    @Test
+    public void wordAddedAfterIndexing() throws InvalidWordException {
+        WordList wordList = new WordList("TEAM", "MEAT");
+        model.setWordList(wordList);
+        model.setDeck("LAKEMEAT");
+        AnagramsHintEngine engine = new AnagramsHintEngine(model);
+        wordList.read(Arrays.asList("LAKE", "LEAKS"));
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter(); // LAKE
+        }
+        model.makeWord("LAKE", player);
+        
+        for (int i = 0; i < 4; i++) {
+            model.revealLetter(); // MEAT
+        }
+        
+        assertThat("moves", describe(engine.getMoves()), is(Arrays.asList(
+                "TEAM",
+                "MEAT")));
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class LetterCountMatrixTest {
+    private WordList wordList;
+    private LetterCountMatrix matrix;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "FORE", "FORGE", "GORE", "PORE", "ROOF", "FO'C'S'LE");
+        matrix = new LetterCountMatrix(wordList);
+    }
+    
+    @Test
+    public void findMakeable() {
+        assertThat(
+                "words",
+                matrix.findMakeable("ERFGO"),
+                is(Arrays.asList("FORE", "FORGE", "GORE")));
+    }
+    
+    @Test
+    public void repeatedLetters() {
+        assertThat(
+                "one O",
+                matrix.findMakeable("FRO").size(),
+                is(0));
+        assertThat(
+                "two Os",
+                matrix.findMakeable("FROO"),
+                is(Arrays.asList("ROOF")));
+    }
+    
+    @Test
+    public void allLetters() {
+        assertThat(
+                "words",
+                matrix.findMakeable("ABCDEFGHIJKLMNOOPQRSTUVWXYZ"),
+                is(Arrays.asList("FORE", "FORGE", "GORE", "PORE", "ROOF")));
+    }
+    
+    @Test
+    public void addsToBitSet() {
+        int[] availableCounts = new int[LetterCounts.LETTER_COUNT];
+        LetterCounts.addLetterCounts("PORE", availableCounts);
+        BitSet makeable = new BitSet();
+        makeable.set(0);
+        
+        matrix.findMakeable(availableCounts, makeable);
+        
+        assertThat("words", makeable.toString(), is("{0, 3}"));
+    }
+    
+    @Test
+    public void isMakeable() {
+        int[] availableCounts = new int[LetterCounts.LETTER_COUNT];
+        LetterCounts.addLetterCounts("GORE", availableCounts);
+        
+        assertThat("GORE", matrix.isMakeable(2, availableCounts), is(true));
+        assertThat("FORE", matrix.isMakeable(0, availableCounts), is(false));
+    }
+    
+    @Test
+    public void masks() {
+        assertThat("FORE", matrix.getMask(0), is(1<<5 | 1<<14 | 1<<17 | 1<<4));
+        assertThat(
+                "punctuation",
+                matrix.getMask(5),
+                is(LetterCountMatrix.NO_MASK));
+    }
+}
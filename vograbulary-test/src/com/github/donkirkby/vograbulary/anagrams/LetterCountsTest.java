@@ -0,0 +1,32 @@
+package com.github.donkirkby.vograbulary.anagrams;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LetterCountsTest {
+    @Test
+    public void letterIndex() {
+        assertEquals("A", 0, LetterCounts.letterIndex('A'));
+        assertEquals("Z", 25, LetterCounts.letterIndex('Z'));
+        assertEquals("lower case", -1, LetterCounts.letterIndex('a'));
+        assertEquals("accent", -1, LetterCounts.letterIndex('\u00C9'));
+    }
+    
+    @Test
+    public void addLetterCounts() {
+        // SETUP
+        int[] counts = new int[LetterCounts.LETTER_COUNT];
+        
+        // EXEC
+        boolean isCounted1 = LetterCounts.addLetterCounts("GEESE", counts);
+        boolean isCounted2 = LetterCounts.addLetterCounts("G-E", counts);
+        
+        // VERIFY
+        assertTrue("counted 1", isCounted1);
+        assertFalse("counted 2", isCounted2);
+        assertEquals("E", 4, counts[LetterCounts.letterIndex('E')]);
+        assertEquals("G", 2, counts[LetterCounts.letterIndex('G')]);
+        assertEquals("S", 1, counts[LetterCounts.letterIndex('S')]);
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.donkirkby.vograbulary.ladder;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class LadderGraphTest {
+    private WordList wordList;
+    private LadderGraph graph;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "COLD", "CORD", "CARD", "WARD", "WARM", "CORE", "WORD",
+                "WORM", "CORD", "CARDS", "ABLE");
+        graph = new LadderGraph(wordList);
+    }
+    
+    private List<String> getNeighbors(String word) {
+        int wordId = wordList.idOf(word);
+        String[] neighbors = new String[graph.getNeighborCount(wordId)];
+        for (int i = 0; i < neighbors.length; i++) {
+            neighbors[i] = wordList.wordOf(graph.getNeighbor(wordId, i));
+        }
+        return Arrays.asList(neighbors);
+    }
+    
+    @Test
+    public void isNeighbor() {
+        assertThat(
+                "one letter",
+                LadderGraph.isNeighbor("CORD", "CARD"),
+                is(true));
+        assertThat(
+                "two letters",
+                LadderGraph.isNeighbor("COLD", "CARD"),
+                is(false));
+        assertThat(
+                "same",
+                LadderGraph.isNeighbor("CORD", "CORD"),
+                is(false));
+        assertThat(
+                "longer",
+                LadderGraph.isNeighbor("CARD", "CARDS"),
+                is(false));
+    }
+    
+    @Test
+    public void neighbors() {
+        assertThat(
+                "CORD",
+                getNeighbors("CORD"),
+                is(Arrays.asList("COLD", "CARD", "CORE", "WORD")));
+        assertThat("ABLE", getNeighbors("ABLE").size(), is(0));
+        assertThat("CARDS", getNeighbors("CARDS").size(), is(0));
+    }
+    
+    @Test
+    public void duplicatesHaveNoNeighbors() {
+        assertThat("count", graph.getNeighborCount(8), is(0));
+    }
+    
+    @Test
+    public void findLadder() {
+        List<String> ladder = graph.findLadder("cold", "warm");
+        
+        assertThat("length", ladder.size(), is(5));
+        assertThat("start", ladder.get(0), is("COLD"));
+        assertThat("end", ladder.get(4), is("WARM"));
+        for (int i = 1; i < ladder.size(); i++) {
+            assertThat(
+                    "step " + i,
+                    LadderGraph.isNeighbor(ladder.get(i - 1), ladder.get(i)),
+                    is(true));
+        }
+    }
+    
+    @Test
+    public void findLadderOneStep() {
+        List<String> ladder = graph.findLadder("CORD", "CARD");
+        
+        assertThat("ladder", ladder, is(Arrays.asList("CORD", "CARD")));
+    }
+    
+    @Test
+    public void findLadderSameWord() {
+        List<String> ladder = graph.findLadder("CORD", "CORD");
+        
+        assertThat("ladder", ladder, is(Arrays.asList("CORD")));
+    }
+    
+    @Test
+    public void noLadder() {
+        assertThat(
+                "unconnected",
+                graph.findLadder("CORD", "ABLE"),
+                nullValue());
+        assertThat("unknown", graph.findLadder("CORD", "XYZZ"), nullValue());
+    }
+    
+    @Test
+    public void repeatedSearches() {
+        List<String> ladder1 = graph.findLadder("COLD", "WARM");
+        graph.findLadder("CORD", "ABLE");
+        List<String> ladder2 = graph.findLadder("COLD", "WARM");
+        
+        assertThat("ladder", ladder2, is(ladder1));
+    }
+    
+    @Test
+    public void findWordsAtDistance() {
+        int coldId = wordList.idOf("COLD");
+        
+        int[] wordIds = graph.findWordsAtDistance(coldId, 2);
+        
+        assertThat(
+                "words",
+                wordIds,
+                is(new int[] {
+                        wordList.idOf("CARD"),
+                        wordList.idOf("CORE"),
+                        wordList.idOf("WORD")}));
+        assertThat(
+                "start",
+                graph.findWordsAtDistance(coldId, 0),
+                is(new int[] {coldId}));
+        assertThat(
+                "too far",
+                graph.findWordsAtDistance(coldId, 10).length,
+                is(0));
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.donkirkby.vograbulary.ladder;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class PuzzleGeneratorTest {
+    private WordList wordList;
+    private PuzzleGenerator generator;
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "COLD", "WARM", "CORD", "CARD", "WARD", "ABLE");
+        LadderGraph graph = new LadderGraph(wordList);
+        generator = new PuzzleGenerator(graph, wordList, new Random(0));
+    }
+    
+    @Test
+    public void generate() {
+        generator.setVocabularySize(2);
+        
+        Puzzle puzzle = generator.generate(4);
+        
+        assertThat("start", puzzle.getStart(), anyOf(is("COLD"), is("WARM")));
+        assertThat("target", puzzle.getTarget(), not(is(puzzle.getStart())));
+        assertThat("steps", puzzle.getStepCount(), is(4));
+        assertThat("solution", puzzle.getSolution().size(), is(5));
+    }
+    
+    @Test
+    public void notFound() {
+        generator.setVocabularySize(2);
+        
+        Puzzle puzzle = generator.generate(3);
+        
+        assertThat("puzzle", puzzle, nullValue());
+    }
+    
+    @Test
+    public void noSteps() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A puzzle needs at least one step.");
+        
+        generator.generate(0);
+    }
+    
+    @Test
+    public void puzzle() {
+        Puzzle puzzle = new Puzzle(Arrays.asList("CORD", "CARD", "WARD"));
+        
+        assertThat("start", puzzle.getStart(), is("CORD"));
+        assertThat("target", puzzle.getTarget(), is("WARD"));
+        assertThat("steps", puzzle.getStepCount(), is(2));
+        assertThat("text", puzzle.toString(), is("Puzzle(CORD to WARD)"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.donkirkby.vograbulary.metrics;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class MetricsTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    private Metrics metrics;
+    private long now;
+    
+    @Before
+    public void setUp() {
+        metrics = new Metrics();
+        metrics.setClock(new Metrics.Clock() {
+            @Override
+            public long microseconds() {
+                return now;
+            }
+        });
+    }
+    
+    @Test
+    public void counter() {
+        Counter counter = metrics.counter("moves");
+        counter.increment();
+        counter.add(3);
+        
+        assertThat("count", metrics.counter("moves").getCount(), is(4L));
+        assertThat("same counter", metrics.counter("moves"), is(counter));
+    }
+    
+    @Test
+    public void gauge() {
+        metrics.gauge("size").setValue(12);
+        
+        assertThat("value", metrics.gauge("size").getValue(), is(12L));
+    }
+    
+    @Test
+    public void histogramBuckets() {
+        Histogram histogram = metrics.histogram("time", 10, 100);
+        histogram.record(5);
+        histogram.record(10);
+        histogram.record(50);
+        histogram.record(500);
+        
+        assertThat("bucket count", histogram.getBucketCount(), is(3));
+        assertThat("first", histogram.getBucketValueCount(0), is(2L));
+        assertThat("second", histogram.getBucketValueCount(1), is(1L));
+        assertThat("last", histogram.getBucketValueCount(2), is(1L));
+        assertThat("last bound", histogram.getBound(2), is(Long.MAX_VALUE));
+        assertThat("count", histogram.getCount(), is(4L));
+        assertThat("sum", histogram.getSum(), is(565L));
+        assertThat("max", histogram.getMax(), is(500L));
+    }
+    
+    @Test
+    public void percentiles() {
+        Histogram histogram = metrics.histogram("time", 10, 100);
+        for (int i = 0; i < 9; i++) {
+            histogram.record(7);
+        }
+        histogram.record(80);
+        
+        assertThat("median", histogram.getPercentile(50), is(10L));
+        assertThat("p95", histogram.getPercentile(95), is(80L));
+        assertThat("empty", metrics.histogram("x").getPercentile(50), is(0L));
+    }
+    
+    @Test
+    public void timer() {
+        Histogram histogram = metrics.histogram("time");
+        now = 1000;
+        long startTime = histogram.startTimer();
+        now = 1250;
+        histogram.stopTimer(startTime);
+        
+        assertThat("sum", histogram.getSum(), is(250L));
+    }
+    
+    @Test
+    public void boundsMustIncrease() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Histogram bounds must increase.");
+        
+        metrics.histogram("time", 10, 10);
+    }
+    
+    @Test
+    public void reset() {
+        metrics.counter("moves").increment();
+        metrics.histogram("time").record(12);
+        
+        metrics.reset();
+        
+        assertThat("count", metrics.counter("moves").getCount(), is(0L));
+        assertThat("records", metrics.histogram("time").getCount(), is(0L));
+    }
+    
+    @Test
+    public void report() {
+        metrics.gauge("b.size").setValue(3);
+        metrics.counter("a.moves").increment();
+        metrics.histogram("c.time", 10).record(4);
+        
+        String report = metrics.report();
+        
+        assertThat(
+                "report",
+                report,
+                is("a.moves count=1\n" +
+                        "b.size value=3\n" +
+                        "c.time count=1 mean=4 p50=4 p95=4 max=4\n"));
+    }
+    
+    @Test
+    public void wordListSize() {
+        new WordList("PIPE", "PIECE");
+        
+        long size = Metrics.getDefault().gauge("wordList.size").getValue();
+        
+        assertThat("size", size, is(2L));
+    }
+    
+    @Test
+    public void defaultTracerRecordsNothing() {
+        Object span = metrics.getTracer().begin(Tracer.READ_WORD_LIST);
+        
+        assertThat("span", span, nullValue());
+    }
+    
+    @Test
+    public void tracer() {
+        final List<String> events = new ArrayList<String>();
+        Tracer originalTracer = Metrics.getDefault().getTracer();
+        Metrics.getDefault().setTracer(new Tracer() {
+            @Override
+            public Object begin(String spanName) {
+                return spanName;
+            }
+            
+            @Override
+            public void end(
+                    Object span,
+                    String subject,
+                    long count,
+                    String result) {
+                events.add(span + " " + count);
+            }
+        });
+        try {
+            new WordList("PIPE", "PIECE");
+        }
+        finally {
+            Metrics.getDefault().setTracer(originalTracer);
+        }
+        
+        assertThat("events", events, is(Arrays.asList("wordList.read 2")));
+    }
+}
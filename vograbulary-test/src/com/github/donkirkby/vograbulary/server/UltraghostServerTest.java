@@ -0,0 +1,317 @@
+package com.github.donkirkby.vograbulary.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import com.github.donkirkby.vograbulary.ultraghost.PuzzleDeltaTracker;
+import com.github.donkirkby.vograbulary.ultraghost.PuzzleDeltaTracker.PuzzleField;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage.Type;
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostRandom;
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class UltraghostServerTest {
+    @Rule
+    public Timeout timeout = new Timeout(10000);
+
+    private UltraghostServer server;
+    private Thread serverThread;
+    private List<Client> clients = new ArrayList<Client>();
+
+    /** A blocking client that reads and writes whole frames. */
+    private class Client {
+        private SocketChannel channel;
+        private String[] puzzleValues =
+                new String[PuzzleField.values().length];
+
+        Client() throws IOException {
+            channel = SocketChannel.open(new InetSocketAddress(
+                    InetAddress.getLoopbackAddress(),
+                    server.getPort()));
+            clients.add(this);
+        }
+
+        void send(UltraghostMessage message) throws IOException {
+            write(Connection.encodeFrame(message));
+        }
+
+        void write(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        /** Send a frame in two parts, so the server reads it in pieces. */
+        void sendInPieces(UltraghostMessage message) throws Exception {
+            ByteBuffer frame = Connection.encodeFrame(message);
+            int end = frame.limit();
+            frame.limit(end / 2);
+            write(frame);
+            Thread.sleep(50);
+            frame.limit(end);
+            write(frame);
+        }
+
+        UltraghostMessage receive() throws IOException {
+            ByteBuffer header = readFully(4);
+            byte[] frame = readFully(header.getInt()).array();
+            UltraghostMessage message = UltraghostMessage.decode(frame);
+            if (message.getType() == Type.PUZZLE) {
+                Arrays.fill(puzzleValues, null);
+            }
+            else if (message.getType() == Type.PUZZLE_CHANGED) {
+                PuzzleDeltaTracker.applyDelta(message, puzzleValues);
+            }
+            return message;
+        }
+
+        /** Read messages until one of the requested type arrives. */
+        UltraghostMessage receive(Type type) throws IOException {
+            UltraghostMessage message = receive();
+            while (message.getType() != type) {
+                message = receive();
+            }
+            return message;
+        }
+
+        /** Read puzzle changes until the puzzle is completed. */
+        void receiveCompleted() throws IOException {
+            while (getPuzzleValue(PuzzleField.COMPLETED) == null) {
+                receive(Type.PUZZLE_CHANGED);
+            }
+        }
+
+        String getPuzzleValue(PuzzleField field) {
+            return puzzleValues[field.ordinal()];
+        }
+
+        private ByteBuffer readFully(int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = new UltraghostServer(new WordList(
+                "PRICE",
+                "PIECE",
+                "PIPE",
+                "PINE",
+                "PIERCE"));
+        server.setRandom(new UltraghostRandom() {
+            @Override
+            public String generatePuzzle() {
+                return "PIE";
+            }
+
+            @Override
+            public int chooseStartingStudent(int studentCount) {
+                return 0;
+            }
+
+            @Override
+            public void loadWordList(Iterable<String> wordList) {
+            }
+        });
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        serverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    server.run();
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+        serverThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (Client client : clients) {
+            client.close();
+        }
+        server.stop();
+        serverThread.join();
+    }
+
+    private Client join(String name) throws IOException {
+        Client client = new Client();
+        client.send(new UltraghostMessage(Type.JOIN, name));
+        return client;
+    }
+
+    @Test
+    public void joinPairsClients() throws Exception {
+        Client alice = join("Alice");
+        Client bob = join("Bob");
+
+        UltraghostMessage aliceMatch = alice.receive();
+        UltraghostMessage alicePuzzle = alice.receive();
+        UltraghostMessage bobMatch = bob.receive();
+
+        assertThat("type", aliceMatch.getType(), is(Type.MATCH));
+        assertThat("match", bobMatch.toString(), is(aliceMatch.toString()));
+        assertThat("puzzle type", alicePuzzle.getType(), is(Type.PUZZLE));
+        assertThat("letters", alicePuzzle.getValue(0), is("PIE"));
+    }
+
+    @Test
+    public void duplicateNames() throws Exception {
+        join("Bob");
+        Client secondBob = join("Bob");
+        
+        UltraghostMessage match = secondBob.receive(Type.MATCH);
+        
+        assertThat("students", match.getValue(0), is("Bob 0\nBob 2 0\n"));
+    }
+
+    @Test
+    public void playPuzzle() throws Exception {
+        Client alice = join("Alice");
+        Client bob = join("Bob");
+        UltraghostMessage puzzle = alice.receive(Type.PUZZLE);
+        bob.receive(Type.PUZZLE);
+        boolean isAliceOwner = puzzle.getValue(1).equals("Alice");
+        Client owner = isAliceOwner ? alice : bob;
+        Client responder = isAliceOwner ? bob : alice;
+
+        responder.send(new UltraghostMessage(Type.SOLUTION, "PIECE"));
+        UltraghostMessage notYours = responder.receive();
+        responder.send(new UltraghostMessage(Type.RESPONSE, "PIPE"));
+        UltraghostMessage noSolution = responder.receive();
+        owner.send(new UltraghostMessage(Type.SOLUTION, "PIECE"));
+        responder.receive(Type.PUZZLE_CHANGED);
+        responder.send(new UltraghostMessage(Type.RESPONSE, "PIPE"));
+        owner.receiveCompleted();
+        responder.receiveCompleted();
+        String ownerSolution = owner.getPuzzleValue(PuzzleField.SOLUTION);
+        String responderSolution =
+                responder.getPuzzleValue(PuzzleField.SOLUTION);
+        String ownerResponse = owner.getPuzzleValue(PuzzleField.RESPONSE);
+        String responderResponse =
+                responder.getPuzzleValue(PuzzleField.RESPONSE);
+        String result = owner.getPuzzleValue(PuzzleField.RESULT);
+        String responderResult = responder.getPuzzleValue(PuzzleField.RESULT);
+        UltraghostMessage nextPuzzle = owner.receive(Type.PUZZLE);
+
+        assertThat(
+                "not yours",
+                notYours.toString(),
+                is("ERROR It's not your puzzle."));
+        assertThat(
+                "no solution",
+                noSolution.toString(),
+                is("ERROR There's no solution to respond to."));
+        assertThat("owner's solution", ownerSolution, is("PIECE"));
+        assertThat("responder's solution", responderSolution, is("PIECE"));
+        assertThat("owner's response", ownerResponse, is("PIPE"));
+        assertThat("responder's response", responderResponse, is("PIPE"));
+        assertThat("result", result, notNullValue());
+        assertThat("responder's result", responderResult, is(result));
+        assertThat(
+                "next owner",
+                nextPuzzle.getValue(1),
+                is(isAliceOwner ? "Bob" : "Alice"));
+    }
+
+    @Test
+    public void framesSplitAcrossReads() throws Exception {
+        Client alice = new Client();
+        alice.sendInPieces(new UltraghostMessage(Type.JOIN, "Alice"));
+        Client bob = join("Bob");
+
+        UltraghostMessage match = bob.receive(Type.MATCH);
+
+        assertThat(
+                "students",
+                match.getValue(0),
+                is("Alice 0\nBob 0\n"));
+    }
+
+    @Test
+    public void framesLargerThanReadBuffer() throws Exception {
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            longName.append((char) ('A' + i % 26));
+        }
+        Client alice = new Client();
+        alice.sendInPieces(new UltraghostMessage(
+                Type.JOIN,
+                longName.toString()));
+        Client bob = join("Bob");
+
+        UltraghostMessage match = bob.receive(Type.MATCH);
+
+        assertThat(
+                "students",
+                match.getValue(0),
+                is(longName + " 0\nBob 0\n"));
+    }
+
+    @Test
+    public void severalFramesInOneRead() throws Exception {
+        Client alice = new Client();
+        ByteBuffer join = Connection.encodeFrame(
+                new UltraghostMessage(Type.JOIN, "Alice"));
+        ByteBuffer solution = Connection.encodeFrame(
+                new UltraghostMessage(Type.SOLUTION, "PIECE"));
+        ByteBuffer both =
+                ByteBuffer.allocate(join.remaining() + solution.remaining());
+        both.put(join).put(solution).flip();
+        alice.write(both);
+
+        UltraghostMessage error = alice.receive();
+        alice.send(new UltraghostMessage(Type.JOIN, "Alice"));
+        UltraghostMessage secondJoin = alice.receive();
+
+        assertThat("error", error.toString(), is("ERROR Join a match first."));
+        assertThat(
+                "second join",
+                secondJoin.toString(),
+                is("ERROR You already joined."));
+    }
+
+    @Test
+    public void disconnectAbandonsMatch() throws Exception {
+        Client alice = join("Alice");
+        Client bob = join("Bob");
+        alice.receive(Type.PUZZLE);
+
+        bob.close();
+        UltraghostMessage over = alice.receive(Type.MATCH_OVER);
+        alice.send(new UltraghostMessage(Type.SOLUTION, "PIECE"));
+        UltraghostMessage error = alice.receive(Type.ERROR);
+
+        assertThat("winner", over.getValue(0), is("Alice"));
+        assertThat("error", error.getValue(0), is("The match is over."));
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.donkirkby.vograbulary.stairs;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class OverlapIndexTest {
+    private WordList wordList;
+    private OverlapIndex index;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "PLANT", "ANTLER", "LERP", "TOTAL", "ANTS", "PLAN",
+                "ANTLER", "PLANTS");
+        index = new OverlapIndex(wordList, 2);
+    }
+    
+    @Test
+    public void overlap() {
+        assertThat(
+                "three",
+                OverlapIndex.getOverlap("PLANT", "ANTLER"),
+                is(3));
+        assertThat(
+                "two",
+                OverlapIndex.getOverlap("ANTLER", "ERRS"),
+                is(2));
+        assertThat(
+                "none",
+                OverlapIndex.getOverlap("PLANT", "LERP"),
+                is(0));
+        assertThat(
+                "longest",
+                OverlapIndex.getOverlap("ABABA", "ABABX"),
+                is(3));
+        assertThat(
+                "not the whole word",
+                OverlapIndex.getOverlap("PLANT", "PLANTS"),
+                is(0));
+    }
+    
+    @Test
+    public void overlapMatchesBruteForce() {
+        String[] words = {"ABAB", "BABA", "AABAA", "ABBA", "BAAB", "AAAA"};
+        for (String word1 : words) {
+            for (String word2 : words) {
+                int expected = 0;
+                int maxOverlap =
+                        Math.min(word1.length(), word2.length()) - 1;
+                for (int size = 1; size <= maxOverlap; size++) {
+                    if (word1.endsWith(word2.substring(0, size))) {
+                        expected = size;
+                    }
+                }
+                assertThat(
+                        word1 + " to " + word2,
+                        OverlapIndex.getOverlap(word1, word2),
+                        is(expected));
+            }
+        }
+    }
+    
+    @Test
+    public void findFollowers() {
+        List<OverlapIndex.Follower> followers = index.findFollowers("PLANT");
+        
+        assertThat(
+                "followers",
+                followers.toString(),
+                is("[ANTLER(3), ANTS(3)]"));
+    }
+    
+    @Test
+    public void longestOverlapFirst() {
+        wordList.read(Arrays.asList("TALLY", "OTALGIA"));
+        index = new OverlapIndex(wordList, 2);
+        
+        List<OverlapIndex.Follower> followers = index.findFollowers("TOTAL");
+        
+        assertThat(
+                "followers",
+                followers.toString(),
+                is("[OTALGIA(4), TALLY(3)]"));
+    }
+    
+    @Test
+    public void noFollowers() {
+        assertThat("followers", index.findFollowers("LERP").size(), is(0));
+    }
+    
+    @Test
+    public void minimumOverlap() {
+        index = new OverlapIndex(wordList, 4);
+        
+        assertThat("followers", index.findFollowers("PLANT").size(), is(0));
+    }
+    
+    @Test
+    public void wholeWordIsNotAnOverlap() {
+        List<OverlapIndex.Follower> followers = index.findFollowers("PLAN");
+        
+        assertThat(
+                "followers",
+                followers.toString(),
+                is("[ANTLER(2), ANTS(2)]"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.donkirkby.vograbulary.stairs;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.github.donkirkby.vograbulary.ultraghost.WordList;
+
+public class PuzzleTest {
+    private WordList wordList;
+    private Puzzle puzzle;
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "PLANT", "ANTLER", "LERP", "ANTS", "ERRS", "TSAR");
+        puzzle = new Puzzle(
+                Arrays.asList("PLANT", "ANTLER", "LERP"),
+                wordList,
+                2);
+    }
+    
+    @Test
+    public void start() {
+        assertThat("words", puzzle.getWords(), is(Arrays.asList("PLANT")));
+        assertThat("target", puzzle.getTargetLength(), is(3));
+        assertThat("completed", puzzle.isCompleted(), is(false));
+    }
+    
+    @Test
+    public void addWords() {
+        StepResult result1 = puzzle.addWord("ants");
+        StepResult result2 = puzzle.addWord("TSAR");
+        
+        assertThat("result 1", result1, is(StepResult.VALID));
+        assertThat("result 2", result2, is(StepResult.VALID));
+        assertThat(
+                "words",
+                puzzle.getWords(),
+                is(Arrays.asList("PLANT", "ANTS", "TSAR")));
+        assertThat("score", puzzle.getScore(), is(6));
+        assertThat("completed", puzzle.isCompleted(), is(true));
+        assertThat(
+                "after completed",
+                puzzle.addWord("ERRS"),
+                is(StepResult.COMPLETED));
+    }
+    
+    @Test
+    public void invalidWords() {
+        assertThat(
+                "unknown",
+                puzzle.addWord("ANTZ"),
+                is(StepResult.NOT_A_WORD));
+        assertThat(
+                "no overlap",
+                puzzle.addWord("ERRS"),
+                is(StepResult.NO_OVERLAP));
+        assertThat(
+                "used",
+                puzzle.addWord("PLANT"),
+                is(StepResult.ALREADY_USED));
+        assertThat("words", puzzle.getWords().size(), is(1));
+        assertThat("score", puzzle.getScore(), is(1));
+    }
+    
+    @Test
+    public void tooShort() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("A flight needs at least two words.");
+        
+        new Puzzle(Arrays.asList("PLANT"), wordList, 2);
+    }
+    
+    @Test
+    public void generate() {
+        OverlapIndex index = new OverlapIndex(wordList, 2);
+        PuzzleGenerator generator =
+                new PuzzleGenerator(index, wordList, new Random(0));
+        
+        Puzzle generated = generator.generate(3);
+        
+        assertThat("puzzle", generated, notNullValue());
+        assertThat("length", generated.getSolution().size(), is(3));
+        for (int i = 1; i < 3; i++) {
+            String word1 = generated.getSolution().get(i - 1);
+            String word2 = generated.getSolution().get(i);
+            assertThat(
+                    word1 + " to " + word2,
+                    OverlapIndex.getOverlap(word1, word2) >= 2,
+                    is(true));
+        }
+    }
+    
+    @Test
+    public void generateNotFound() {
+        OverlapIndex index = new OverlapIndex(wordList, 2);
+        PuzzleGenerator generator =
+                new PuzzleGenerator(index, wordList, new Random(0));
+        
+        assertThat("puzzle", generator.generate(10), nullValue());
+    }
+}
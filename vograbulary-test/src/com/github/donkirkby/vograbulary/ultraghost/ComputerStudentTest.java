@@ -277,6 +277,60 @@ public class ComputerStudentTest {
         assertThat("focus", focus, is(FocusField.Solution));
     }
     
+    @Test
+    public void resumeSearchOnEquivalentPuzzle() {
+        ComputerStudent student = createStudent();
+        Puzzle puzzle = new Puzzle("PIE", new Student("Bob"), wordList);
+        student.startSolving(puzzle);
+        student.runSearchBatch();
+        student.runSearchBatch();
+        
+        Puzzle puzzle2 = new Puzzle("PIE", student, wordList);
+        student.startSolving(puzzle2);
+        boolean isFinished = student.runSearchBatch();
+        
+        assertThat("is finished", isFinished, is(true));
+        assertThat("solution", puzzle2.getSolution(), is("PIPE"));
+    }
+    
+    @Test
+    public void restartSearchOnNewPuzzle() {
+        ComputerStudent student = createStudent();
+        Puzzle puzzle = new Puzzle("PIE", new Student("Bob"), wordList);
+        student.startSolving(puzzle);
+        student.runSearchBatch();
+        student.runSearchBatch();
+        
+        Puzzle puzzle2 = new Puzzle("PIE", student, wordList);
+        puzzle2.setPreviousWord("PIPE");
+        student.startSolving(puzzle2);
+        boolean isFinished = student.runSearchBatch();
+        
+        assertThat("is finished", isFinished, is(false));
+    }
+    
+    @Test
+    public void resumeSearchFromSnapshot() {
+        ComputerStudent student = createStudent();
+        Student bob = new Student("Bob");
+        Match match = new Match(100, bob, student);
+        Puzzle puzzle = new Puzzle("PIE", student, wordList);
+        match.setPuzzle(puzzle);
+        student.setMatch(match);
+        student.startSolving(puzzle);
+        student.runSearchBatch();
+        student.runSearchBatch();
+        
+        Match match2 = MatchSnapshot.restore(MatchSnapshot.save(match), wordList);
+        ComputerStudent student2 = (ComputerStudent) match2.getStudents().get(1);
+        student2.setListener(student.getListener());
+        student2.startSolving(match2.getPuzzle());
+        boolean isFinished = student2.runSearchBatch();
+        
+        assertThat("is finished", isFinished, is(true));
+        assertThat("solution", match2.getPuzzle().getSolution(), is("PIPE"));
+    }
+    
     @Test
     public void serialization() throws Exception {
         ComputerStudent student = createStudent();
@@ -291,4 +345,54 @@ public class ComputerStudentTest {
         assertThat("batch size", student2.getSearchBatchSize(), is(50));
         assertThat("puzzle", student2.getCurrentPuzzle(), nullValue());
     }
+    
+    @Test
+    public void hyperghostChainIsInstant() {
+        ComputerStudent student = createStudentWithVocabularySize(2);
+        wordList = new WordList();
+        wordList.read(Arrays.asList("PRICE", "PIPE", "PIECE", "PINE"));
+        student.setWordList(wordList);
+        Match match = new Match(100, student, new Student("Bob"));
+        match.setHyperghost(true);
+        student.setMatch(match);
+        Puzzle puzzle = new Puzzle("PIE", student, wordList);
+        puzzle.setPreviousWord("PIPE");
+        match.setPuzzle(puzzle);
+        student.startSolving(puzzle);
+        
+        boolean isFinished = student.runSearchBatch();
+        
+        // PIECE is better, but it isn't in the vocabulary.
+        assertThat("finished", isFinished, is(true));
+        assertThat("solution", puzzle.getSolution(), is("PRICE"));
+    }
+    
+    @Test
+    public void studentsInMatchShareSearch() {
+        ComputerStudent weakStudent = createStudentWithVocabularySize(1);
+        ComputerStudent strongStudent = createStudent();
+        weakStudent.setSearchBatchSize(100);
+        strongStudent.setSearchBatchSize(100);
+        Match match = new Match(100, weakStudent, strongStudent);
+        weakStudent.setMatch(match);
+        strongStudent.setMatch(match);
+        Puzzle puzzle = new Puzzle("PIE", weakStudent, wordList);
+        match.setPuzzle(puzzle);
+        weakStudent.startSolving(puzzle);
+        strongStudent.startSolving(puzzle);
+        
+        strongStudent.runSearchBatch();
+        SolutionSearch search = match.getSolutionSearch(puzzle, wordList);
+        int scannedCount = search.getScannedCount();
+        weakStudent.runSearchBatch();
+        strongStudent.prepareResponse();
+        
+        assertThat("scanned count", scannedCount, is(wordList.size()));
+        assertThat(
+                "same search",
+                match.getSolutionSearch(puzzle, wordList),
+                sameInstance(search));
+        assertThat("solution", puzzle.getSolution(), is("PRICE"));
+        assertThat("response", puzzle.getResponse(), is("PIPE"));
+    }
 }
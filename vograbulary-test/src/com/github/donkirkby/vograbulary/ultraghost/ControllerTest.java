@@ -108,6 +108,27 @@ public class ControllerTest {
         assertThat("letters", puzzle.getLetters(), is(expectedLetters));
     }
     
+    @Test
+    public void resumeMatch() {
+        random.setPuzzles("PIE");
+        controller.start();
+        Match match = MatchSnapshot.restore(
+                MatchSnapshot.save(screen.getMatch()),
+                startPuzzle.getWordList());
+        
+        controller.resumeMatch(match);
+        Puzzle puzzle = screen.getPuzzle();
+        int refreshCountBefore = screen.getRefreshCount();
+        puzzle.setSolution("PIPE");
+        
+        assertThat("match", screen.getMatch(), is(match));
+        assertThat("letters", puzzle.getLetters(), is("PIE"));
+        assertThat(
+                "refresh count",
+                screen.getRefreshCount(),
+                is(refreshCountBefore + 1));
+    }
+    
     @Test
     public void searchTask() {
         controller.start();
@@ -253,6 +274,20 @@ public class ControllerTest {
         assertThat("focus", focus, is(Focus.Response));
     }
     
+    @Test
+    public void solveRefreshesOnce() {
+        createMatch(student, computerStudent);
+        startPuzzle.setSolution("ROPE");
+        int startRefreshCount = screen.getRefreshCount();
+        
+        controller.solve();
+        
+        assertThat(
+                "refresh count",
+                screen.getRefreshCount(),
+                is(startRefreshCount + 1));
+    }
+    
     @Test
     public void solutionNotAMatch() {
         startPuzzle.setSolution("pipe");
@@ -280,6 +315,24 @@ public class ControllerTest {
         assertThat("focus", focus, is(Focus.Solution));
     }
     
+    @Test
+    public void solutionNotAWordSuggestion() {
+        startPuzzle.setSolution("rupe");
+
+        controller.solve();
+        
+        assertThat("hint", startPuzzle.getHint(), is("Did you mean ROPE?"));
+    }
+    
+    @Test
+    public void solutionNotAWordNoSuggestion() {
+        startPuzzle.setSolution("pixe");
+
+        controller.solve();
+        
+        assertThat("hint", startPuzzle.getHint(), nullValue());
+    }
+    
     @Test
     public void solutionTooShort() {
         startPuzzle.setMinimumWordLength(5);
@@ -499,6 +552,26 @@ public class ControllerTest {
         assertThat("hint", startPuzzle.getHint(), is("hint: ROPE"));
     }
     
+    @Test
+    public void hintRefreshedWithCompletion() {
+        startPuzzle.setSolution("");
+        int startRefreshCount = screen.getRefreshCount();
+        
+        startPuzzle.setResponse("");
+        
+        assertThat(
+                "refresh count",
+                screen.getRefreshCount(),
+                is(startRefreshCount + 1));
+        assertThat(
+                "changed fields",
+                screen.getChangedFields(),
+                hasItems(
+                        Puzzle.Field.RESPONSE,
+                        Puzzle.Field.HINT,
+                        Puzzle.Field.COMPLETED));
+    }
+    
     @Test
     public void noHint() {
         startPuzzle.setSolution("rope");
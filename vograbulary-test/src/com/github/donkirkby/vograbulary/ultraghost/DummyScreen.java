@@ -1,9 +1,13 @@
 package com.github.donkirkby.vograbulary.ultraghost;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 
 public class DummyScreen implements UltraghostScreen {
     private Focus currentFocus = Focus.Unknown;
     private int refreshCount;
+    private Set<Puzzle.Field> changedFields;
     private int scoreRefreshCount;
     private Match match;
     
@@ -29,7 +33,17 @@ public class DummyScreen implements UltraghostScreen {
     
     @Override
     public void refreshPuzzle() {
+        refreshPuzzle(EnumSet.allOf(Puzzle.Field.class));
+    }
+    
+    @Override
+    public void refreshPuzzle(Set<Puzzle.Field> changedFields) {
         refreshCount++;
+        this.changedFields = changedFields;
+    }
+    
+    public Set<Puzzle.Field> getChangedFields() {
+        return changedFields;
     }
     
     public int getRefreshCount() {
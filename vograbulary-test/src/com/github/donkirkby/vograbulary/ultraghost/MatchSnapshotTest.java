@@ -0,0 +1,169 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.number.OrderingComparison.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.github.donkirkby.vograbulary.SerializableTools;
+import com.github.donkirkby.vograbulary.VograbularyPreferences;
+
+public class MatchSnapshotTest {
+    private static final int MATCH_SCORE = 300;
+    private Match match;
+    private Student student;
+    private ComputerStudent computer;
+    private DummyRandom random;
+    private WordList wordList;
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    @Before
+    public void setUp() {
+        VograbularyPreferences preferences = mock(VograbularyPreferences.class);
+        when(preferences.getComputerStudentVocabularySize()).thenReturn(2);
+        student = new Student("Student");
+        computer = new ComputerStudent(preferences);
+        computer.setSearchBatchSize(30);
+        wordList = new WordList();
+        wordList.read(Arrays.asList("PRICE", "PIECE", "PIPE"));
+        match = new Match(MATCH_SCORE, student, computer);
+        random = new DummyRandom();
+        random.setPuzzles("PIE");
+        random.setStartingStudent(0);
+        match.setRandom(random);
+        match.setHyperghost(true);
+        match.setMinimumWordLength(5);
+    }
+    
+    @Test
+    public void match() {
+        Match match2 = MatchSnapshot.restore(MatchSnapshot.save(match), wordList);
+        
+        assertThat("match score", match2.getMatchScore(), is(MATCH_SCORE));
+        assertThat("is hyperghost", match2.isHyperghost(), is(true));
+        assertThat("puzzle", match2.getPuzzle(), nullValue());
+    }
+    
+    @Test
+    public void students() {
+        student.addScore(20);
+        
+        Match match2 = MatchSnapshot.restore(MatchSnapshot.save(match), wordList);
+        List<Student> students = match2.getStudents();
+        
+        assertThat("student count", students.size(), is(2));
+        Student student2 = students.get(0);
+        assertThat("name", student2.getName(), is("Student"));
+        assertThat("score", student2.getScore(), is(20));
+        assertThat("score count", student2.getScoreCount(), is(1));
+        assertThat("match", student2.getMatch(), is(match2));
+        assertThat("word list", student2.getWordList(), is(wordList));
+        ComputerStudent computer2 = (ComputerStudent) students.get(1);
+        assertThat("computer name", computer2.getName(), is("Computer"));
+        assertThat("batch size", computer2.getSearchBatchSize(), is(30));
+    }
+    
+    @Test
+    public void puzzle() {
+        Puzzle puzzle = match.createPuzzle(wordList);
+        puzzle.setSolution("PRICE");
+        puzzle.setResponse("PIECE");
+        puzzle.setHint("Perfect!");
+        
+        Match match2 = MatchSnapshot.restore(MatchSnapshot.save(match), wordList);
+        Puzzle puzzle2 = match2.getPuzzle();
+        
+        assertThat("letters", puzzle2.getLetters(), is("PIE"));
+        assertThat("owner", puzzle2.getOwner(), is(match2.getStudents().get(0)));
+        assertThat("solution", puzzle2.getSolution(), is("PRICE"));
+        assertThat("response", puzzle2.getResponse(), is("PIECE"));
+        assertThat("hint", puzzle2.getHint(), is("Perfect!"));
+        assertThat("minimum length", puzzle2.getMinimumWordLength(), is(5));
+        assertThat("result", puzzle2.getResult(), is(WordResult.EARLIER));
+        assertThat("completed", puzzle2.isCompleted(), is(true));
+        assertThat("score", puzzle2.getScore(), is(puzzle.getScore()));
+        assertThat("word list", puzzle2.getWordList(), is(wordList));
+    }
+    
+    @Test
+    public void unknownWords() {
+        Puzzle puzzle = match.createPuzzle(wordList);
+        puzzle.setSolution("piece");
+        puzzle.setResponse("");
+        
+        Match match2 = MatchSnapshot.restore(MatchSnapshot.save(match), wordList);
+        Puzzle puzzle2 = match2.getPuzzle();
+        
+        assertThat("solution", puzzle2.getSolution(), is("piece"));
+        assertThat("response", puzzle2.getResponse(), is(Puzzle.NO_SOLUTION));
+        assertThat("previous word", puzzle2.getPreviousWord(), nullValue());
+    }
+    
+    @Test
+    public void previousWord() {
+        Puzzle puzzle = match.createPuzzle(wordList);
+        puzzle.setSolution("PRICE");
+        puzzle.setResponse("");
+        match.createPuzzle(wordList);
+        
+        Match match2 = MatchSnapshot.restore(MatchSnapshot.save(match), wordList);
+        Puzzle puzzle2 = match2.getPuzzle();
+        
+        assertThat("owner", puzzle2.getOwner(), is(match2.getStudents().get(1)));
+        assertThat("previous word", puzzle2.getPreviousWord(), is("PRICE"));
+    }
+    
+    @Test
+    public void shorterWordList() {
+        Puzzle puzzle = match.createPuzzle(wordList);
+        computer.setWordList(wordList);
+        computer.startSolving(puzzle);
+        computer.runSearchBatch();
+        puzzle.setSolution("PIECE");
+        puzzle.setResponse("PIPE");
+        // Like restoring while the rest of the list is still loading.
+        WordList shortList = new WordList();
+        shortList.read(Arrays.asList("PRICE"));
+        
+        Match match2 = MatchSnapshot.restore(MatchSnapshot.save(match), shortList);
+        Puzzle puzzle2 = match2.getPuzzle();
+        ComputerStudent computer2 = (ComputerStudent) match2.getStudents().get(1);
+        shortList.read(Arrays.asList("PIECE", "PIPE"));
+        computer2.runSearchBatch();
+        
+        assertThat("solution", puzzle2.getSolution(), is("PIECE"));
+        assertThat("response", puzzle2.getResponse(), is("PIPE"));
+        assertThat("puzzle", computer2.getCurrentPuzzle(), is(puzzle2));
+    }
+    
+    @Test
+    public void smallerThanSerialization() throws Exception {
+        Puzzle puzzle = match.createPuzzle(wordList);
+        puzzle.setSolution("PRICE");
+        
+        byte[] snapshot = MatchSnapshot.save(match);
+        byte[] serialized = SerializableTools.serialize(match);
+        
+        assertThat("size", snapshot.length * 10, lessThan(serialized.length));
+    }
+    
+    @Test
+    public void unknownVersion() {
+        byte[] snapshot = MatchSnapshot.save(match);
+        snapshot[0] = 100;
+        
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Unknown snapshot version: 50.");
+        MatchSnapshot.restore(snapshot, wordList);
+    }
+}
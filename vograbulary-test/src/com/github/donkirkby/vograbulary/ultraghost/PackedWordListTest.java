@@ -0,0 +1,81 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PackedWordListTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void roundTrip() {
+        List<String> words = Arrays.asList("the", "and", "zebra", "a");
+
+        byte[] packed = PackedWordList.pack(words);
+        List<String> unpacked = PackedWordList.unpack(packed);
+
+        assertThat("words", unpacked, is(words));
+        // 4 bytes for the count, then 16 letters and ends of words.
+        assertThat("size", packed.length, is(4 + (16 * 5 + 7) / 8));
+    }
+
+    @Test
+    public void upperCase() {
+        byte[] packed = PackedWordList.pack(Arrays.asList("Big", "DOG"));
+        List<String> unpacked = PackedWordList.unpack(packed);
+
+        assertThat("words", unpacked, is(Arrays.asList("big", "dog")));
+    }
+
+    @Test
+    public void empty() {
+        byte[] packed = PackedWordList.pack(new ArrayList<String>());
+        List<String> unpacked = PackedWordList.unpack(packed);
+
+        assertThat("size", unpacked.size(), is(0));
+    }
+
+    @Test
+    public void longWord() {
+        String word = "pneumonoultramicroscopicsilicovolcanoconiosis";
+        byte[] packed = PackedWordList.pack(Arrays.asList(word));
+        List<String> unpacked = PackedWordList.unpack(packed);
+
+        assertThat("words", unpacked, is(Arrays.asList(word)));
+    }
+
+    @Test
+    public void notLetters() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Only letters can be packed: don't.");
+
+        PackedWordList.pack(Arrays.asList("do", "don't"));
+    }
+
+    @Test
+    public void emptyWord() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Empty words can't be packed.");
+
+        PackedWordList.pack(Arrays.asList("do", ""));
+    }
+
+    @Test
+    public void truncated() {
+        byte[] packed = PackedWordList.pack(Arrays.asList("the", "and"));
+        byte[] truncated = Arrays.copyOf(packed, packed.length - 2);
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Packed word list is truncated.");
+
+        PackedWordList.unpack(truncated);
+    }
+}
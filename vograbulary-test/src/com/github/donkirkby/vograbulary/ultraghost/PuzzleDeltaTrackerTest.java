@@ -0,0 +1,77 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.donkirkby.vograbulary.ultraghost.PuzzleDeltaTracker.PuzzleField;
+
+public class PuzzleDeltaTrackerTest {
+    private Puzzle puzzle;
+    private PuzzleDeltaTracker tracker;
+    private String[] clientValues;
+    
+    @Before
+    public void setUp() {
+        WordList wordList = new WordList();
+        wordList.read(Arrays.asList("PRICE", "PIECE", "PIPE"));
+        puzzle = new Puzzle("PIE", new Student("Student"), wordList);
+        tracker = new PuzzleDeltaTracker();
+        clientValues = new String[PuzzleField.values().length];
+        tracker.createDelta(puzzle); // initial state
+    }
+    
+    @Test
+    public void onlyChangedFieldsAreSent() {
+        puzzle.setSolution("PIPE");
+        
+        UltraghostMessage delta = tracker.createDelta(puzzle);
+        PuzzleDeltaTracker.applyDelta(delta, clientValues);
+        
+        assertThat(
+                "solution flag",
+                delta.getFlags() & PuzzleField.SOLUTION.getFlag(),
+                not(0));
+        assertThat(
+                "response flag",
+                delta.getFlags() & PuzzleField.RESPONSE.getFlag(),
+                is(0));
+        assertThat(
+                "solution",
+                clientValues[PuzzleField.SOLUTION.ordinal()],
+                is("PIPE"));
+    }
+    
+    @Test
+    public void noChanges() {
+        puzzle.setSolution("PIPE");
+        tracker.createDelta(puzzle);
+        
+        UltraghostMessage delta = tracker.createDelta(puzzle);
+        
+        assertThat("delta", delta, nullValue());
+    }
+    
+    @Test
+    public void encodedDelta() {
+        puzzle.setSolution("PRICE");
+        puzzle.setResponse("PIECE");
+        
+        UltraghostMessage delta = UltraghostMessage.decode(
+                tracker.createDelta(puzzle).encode());
+        PuzzleDeltaTracker.applyDelta(delta, clientValues);
+        
+        assertThat(
+                "response",
+                clientValues[PuzzleField.RESPONSE.ordinal()],
+                is("PIECE"));
+        assertThat(
+                "completed",
+                clientValues[PuzzleField.COMPLETED.ordinal()],
+                is("completed"));
+    }
+}
@@ -4,6 +4,8 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -23,6 +25,7 @@ public class PuzzleTest {
     private int changeCount;
     private int completionCount;
     private String changedSolution;
+    private EnumSet<Puzzle.Field> changedFields;
     
     @Before
     public void setUp() {
@@ -39,6 +42,7 @@ public class PuzzleTest {
             public void changed() {
                 changeCount++;
                 changedSolution = puzzle.getSolution();
+                changedFields = puzzle.getChangedFields();
             }
             
             @Override
@@ -54,6 +58,20 @@ public class PuzzleTest {
         assertThat("result", result, is(WordResult.UNKNOWN));
     }
     
+    @Test
+    public void suggestSolutions() {
+        wordList.read(Arrays.asList("PIERCE"));
+        puzzle.setMinimumWordLength(5);
+        
+        List<String> suggestions = puzzle.suggestSolutions("PIRCE", 10);
+        
+        // PIPE is close, but too short.
+        assertThat(
+                "suggestions",
+                suggestions,
+                is(Arrays.asList("PIECE", "PIERCE", "PRICE")));
+    }
+    
     @Test
     public void nullLetters() {
         letters = null;
@@ -154,6 +172,89 @@ public class PuzzleTest {
         assertThat("completion count", completionCount, is(1));
     }
     
+    @Test
+    public void changedFields() {
+        puzzle.setSolution("PRICE");
+        
+        assertThat(
+                "changed fields",
+                changedFields,
+                is(EnumSet.of(Puzzle.Field.SOLUTION)));
+    }
+    
+    @Test
+    public void changedFieldsOutsideEvent() {
+        assertThat(
+                "changed fields",
+                puzzle.getChangedFields(),
+                is(EnumSet.allOf(Puzzle.Field.class)));
+    }
+    
+    @Test
+    public void updateCombinesChanges() {
+        puzzle.beginUpdate();
+        puzzle.setSolution("PRICE");
+        puzzle.setHint("ZZZZ");
+        int changeCountDuringUpdate = changeCount;
+        puzzle.endUpdate();
+        
+        assertThat("change count during", changeCountDuringUpdate, is(0));
+        assertThat("change count", changeCount, is(1));
+        assertThat(
+                "changed fields",
+                changedFields,
+                is(EnumSet.of(Puzzle.Field.SOLUTION, Puzzle.Field.HINT)));
+    }
+    
+    @Test
+    public void nestedUpdates() {
+        puzzle.beginUpdate();
+        puzzle.beginUpdate();
+        puzzle.setSolution("PRICE");
+        puzzle.endUpdate();
+        int changeCountDuringUpdate = changeCount;
+        puzzle.endUpdate();
+        
+        assertThat("change count during", changeCountDuringUpdate, is(0));
+        assertThat("change count", changeCount, is(1));
+    }
+    
+    @Test
+    public void endUpdateWithoutBegin() {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("endUpdate() was called without beginUpdate().");
+        
+        puzzle.endUpdate();
+    }
+    
+    @Test
+    public void changesDuringCompletionAreCombined() {
+        puzzle.addListener(new Puzzle.Listener() {
+            @Override
+            public void completed() {
+                puzzle.setHint("hint: PIPE");
+            }
+            
+            @Override
+            public void changed() {
+            }
+        });
+        puzzle.setSolution("PRICE");
+        changeCount = 0;
+        
+        puzzle.setResponse("PIECE");
+        
+        assertThat("change count", changeCount, is(1));
+        assertThat("completion count", completionCount, is(1));
+        assertThat(
+                "changed fields",
+                changedFields,
+                is(EnumSet.of(
+                        Puzzle.Field.RESPONSE,
+                        Puzzle.Field.HINT,
+                        Puzzle.Field.COMPLETED)));
+    }
+    
     @Test
     public void completionEventHappensOnlyOnce() {
         puzzle.setSolution("PRICE");
@@ -0,0 +1,84 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolutionIndexTest {
+    private WordList wordList;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "PRICE", "PIPE", "ASKS", "PIECE", "PINE", "PIERCE", "PIPE");
+    }
+    
+    @Test
+    public void sortFromBestToWorst() {
+        SolutionIndex index = wordList.getSolutionIndex("PIE");
+        
+        assertThat("size", index.size(), is(5));
+        assertThat("best", index.getWord(0), is("PINE"));
+        assertThat("second", index.getWord(1), is("PIPE"));
+        assertThat("third", index.getWord(2), is("PIECE"));
+        assertThat("worst", index.getWord(4), is("PIERCE"));
+    }
+    
+    @Test
+    public void findNextWorse() {
+        SolutionIndex index = wordList.getSolutionIndex("PIE");
+        
+        assertThat("start", index.findNextWorse(null), is("PINE"));
+        assertThat("after PIPE", index.findNextWorse("PIPE"), is("PIECE"));
+        assertThat("after other", index.findNextWorse("PIQE"), is("PIECE"));
+        assertThat("after PIERCE", index.findNextWorse("PIERCE"), nullValue());
+    }
+    
+    @Test
+    public void findBest() {
+        SolutionIndex index = wordList.getSolutionIndex("PIE");
+        
+        assertThat("vocabulary", index.findBest(null, 4, 2), is("PIPE"));
+        assertThat("length", index.findBest(null, 5, 10), is("PIECE"));
+        assertThat("previous", index.findBest("PIPE", 4, 2), is("PRICE"));
+        assertThat("none", index.findBest("PRICE", 4, 2), nullValue());
+    }
+    
+    @Test
+    public void findMostCommonBetter() {
+        SolutionIndex index = wordList.getSolutionIndex("PIE");
+        
+        assertThat(
+                "skipped",
+                index.findMostCommonBetter("", null, 4),
+                is("PRICE"));
+        assertThat(
+                "better than PRICE",
+                index.findMostCommonBetter("PRICE", null, 4),
+                is("PIPE"));
+        assertThat(
+                "after previous",
+                index.findMostCommonBetter("PRICE", "PIPE", 4),
+                is("PIECE"));
+        assertThat(
+                "none",
+                index.findMostCommonBetter("PINE", null, 4),
+                nullValue());
+    }
+    
+    @Test
+    public void cache() {
+        SolutionIndex index1 = wordList.getSolutionIndex("PIE");
+        SolutionIndex index2 = wordList.getSolutionIndex("PIE");
+        wordList.read(Arrays.asList("PILE"));
+        SolutionIndex index3 = wordList.getSolutionIndex("PIE");
+        
+        assertThat("same", index2, sameInstance(index1));
+        assertThat("rebuilt", index3, not(sameInstance(index1)));
+        assertThat("new word", index3.getWord(0), is("PILE"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolutionSearchTest {
+    private WordList wordList;
+    private Puzzle searchPuzzle;
+    private SolutionSearch search;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "PRICE", "ASKS", "PIECE", "PIPE", "PINE", "PIERCE");
+        searchPuzzle = new Puzzle("PIE", new Student("Student"), wordList);
+        search = new SolutionSearch(searchPuzzle, wordList);
+    }
+    
+    @Test
+    public void bestForEachVocabulary() {
+        search.scanTo(wordList.size());
+        
+        assertThat("none", search.findBestId(0), is(WordList.NOT_FOUND));
+        assertThat("1 word", search.findBestId(1), is(0)); // PRICE
+        assertThat("2 words", search.findBestId(2), is(0));
+        assertThat("3 words", search.findBestId(3), is(2)); // PIECE
+        assertThat("4 words", search.findBestId(4), is(3)); // PIPE
+        assertThat("all words", search.findBestId(6), is(4)); // PINE
+    }
+    
+    @Test
+    public void scanInSteps() {
+        search.scanTo(3);
+        int bestIdAfterStep = search.findBestId(3);
+        search.scanTo(2); // already scanned
+        search.scanTo(100);
+        
+        assertThat("best after step", bestIdAfterStep, is(2));
+        assertThat("scanned count", search.getScannedCount(), is(6));
+        assertThat("best", search.findBestId(6), is(4));
+    }
+    
+    @Test
+    public void isSearching() {
+        Puzzle samePuzzle = new Puzzle("PIE", new Student("Other"), wordList);
+        Puzzle otherLetters = new Puzzle("PRE", new Student("Other"), wordList);
+        Puzzle withPrevious = new Puzzle("PIE", new Student("Other"), wordList);
+        withPrevious.setPreviousWord("PIPE");
+        
+        assertThat("same", search.isSearching(samePuzzle, wordList), is(true));
+        assertThat(
+                "other letters",
+                search.isSearching(otherLetters, wordList),
+                is(false));
+        assertThat(
+                "previous word",
+                search.isSearching(withPrevious, wordList),
+                is(false));
+        assertThat(
+                "other word list",
+                search.isSearching(samePuzzle, new WordList("PIPE")),
+                is(false));
+    }
+}
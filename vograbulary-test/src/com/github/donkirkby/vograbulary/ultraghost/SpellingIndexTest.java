@@ -0,0 +1,142 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpellingIndexTest {
+    private WordList wordList;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "PRICE", "PIPE", "ASKS", "PIECE", "PINE", "PIERCE", "PIPE");
+    }
+    
+    @Test
+    public void distance() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        
+        assertThat("same", index.findDistance("PIPE", "PIPE"), is(0));
+        assertThat("replace", index.findDistance("PIPE", "PINE"), is(1));
+        assertThat("insert", index.findDistance("PIECE", "PIERCE"), is(1));
+        assertThat("delete", index.findDistance("PIERCE", "PIECE"), is(1));
+        assertThat("mixed", index.findDistance("PRICE", "PIECE"), is(2));
+        assertThat("empty", index.findDistance("", "ASKS"), is(4));
+    }
+    
+    @Test
+    public void size() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        
+        assertThat("size", index.size(), is(6));
+    }
+    
+    @Test
+    public void suggestClosestFirst() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        
+        List<String> suggestions = index.suggest("pirce", 2, 10, null);
+        
+        // PIECE and PIERCE are one letter away, then the rest are two.
+        assertThat(
+                "suggestions",
+                suggestions,
+                is(Arrays.asList("PIECE", "PIERCE", "PRICE", "PIPE", "PINE")));
+    }
+    
+    @Test
+    public void suggestLimit() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        
+        List<String> suggestions = index.suggest("PIRCE", 2, 2, null);
+        
+        assertThat(
+                "suggestions",
+                suggestions,
+                is(Arrays.asList("PIECE", "PIERCE")));
+    }
+    
+    @Test
+    public void suggestSwappedLetters() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        
+        List<String> suggestions = index.suggest("PRCIE", 2, 1, null);
+        
+        assertThat("suggestions", suggestions, is(Arrays.asList("PRICE")));
+    }
+    
+    @Test
+    public void suggestNone() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        
+        List<String> suggestions = index.suggest("XYZZY", 2, 10, null);
+        
+        assertThat("suggestions", suggestions.size(), is(0));
+    }
+    
+    @Test
+    public void filter() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        SpellingIndex.Filter filter = new SpellingIndex.Filter() {
+            @Override
+            public boolean accept(String wordUpper) {
+                return wordUpper.length() > 4;
+            }
+        };
+        
+        List<String> suggestions = index.suggest("PIRCE", 2, 10, filter);
+        
+        assertThat(
+                "suggestions",
+                suggestions,
+                is(Arrays.asList("PIECE", "PIERCE", "PRICE")));
+    }
+    
+    @Test
+    public void findsAllOneEditAway() {
+        SpellingIndex index = wordList.getSpellingIndex();
+        String[] candidates = {
+                "PRICE", "PIPE", "ASKS", "PIECE", "PINE", "PIERCE"};
+        String[] words = {"PIPPE", "PIRCE", "PEICE", "ASK", "PIERCES", "P"};
+        
+        for (String word : words) {
+            List<String> suggestions = index.suggest(word, 2, 10, null);
+            for (String candidate : candidates) {
+                int distance = index.findDistance(word, candidate);
+                if (distance <= 1) {
+                    assertThat(
+                            word + " near " + candidate,
+                            suggestions,
+                            hasItem(candidate));
+                }
+                else if (distance > 2) {
+                    assertThat(
+                            word + " far from " + candidate,
+                            suggestions,
+                            not(hasItem(candidate)));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void cache() {
+        SpellingIndex index1 = wordList.getSpellingIndex();
+        SpellingIndex index2 = wordList.getSpellingIndex();
+        wordList.read(Arrays.asList("PILE"));
+        SpellingIndex index3 = wordList.getSpellingIndex();
+        
+        assertThat("same", index2, sameInstance(index1));
+        assertThat("rebuilt", index3, not(sameInstance(index1)));
+        assertThat(
+                "new word",
+                index3.suggest("PILL", 1, 10, null),
+                is(Arrays.asList("PILE")));
+    }
+}
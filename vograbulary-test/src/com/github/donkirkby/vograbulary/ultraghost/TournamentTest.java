@@ -0,0 +1,222 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.github.donkirkby.vograbulary.Scheduler;
+import com.github.donkirkby.vograbulary.VograbularyPreferences;
+
+public class TournamentTest {
+    private List<Runnable> tasks = new ArrayList<Runnable>();
+    private Scheduler scheduler = new Scheduler() {
+        @Override
+        public void scheduleRepeating(Runnable task, int periodMilliseconds) {
+            tasks.add(task);
+        }
+        
+        @Override
+        public void cancel(Runnable task) {
+            tasks.remove(task);
+        }
+    };
+    private WordList wordList;
+    private Tournament tournament;
+    private VograbularyPreferences preferences;
+    private List<String> completedPairs = new ArrayList<String>();
+    private List<Integer> completedRounds = new ArrayList<Integer>();
+    private Map<Student, String> names = new HashMap<Student, String>();
+    
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList("PRICE", "PIECE", "PIPE", "PINE", "PIERCE");
+        preferences = mock(VograbularyPreferences.class);
+        when(preferences.getComputerStudentVocabularySize()).thenReturn(
+                wordList.size());
+        tournament = new Tournament(wordList, scheduler);
+        tournament.setRandom(new UltraghostRandom() {
+            @Override
+            public String generatePuzzle() {
+                return "PIE";
+            }
+            
+            @Override
+            public int chooseStartingStudent(int studentCount) {
+                return 0;
+            }
+            
+            @Override
+            public void loadWordList(Iterable<String> wordList) {
+            }
+        });
+        tournament.setMatchScore(1);
+        tournament.setListener(new Tournament.Listener() {
+            @Override
+            public void matchCompleted(Match match) {
+                List<Student> students = match.getStudents();
+                List<String> pair = new ArrayList<String>();
+                for (Student student : students) {
+                    pair.add(names.get(student));
+                }
+                Collections.sort(pair);
+                completedPairs.add(pair.get(0) + "-" + pair.get(1));
+            }
+            
+            @Override
+            public void roundCompleted(int roundNumber) {
+                completedRounds.add(roundNumber);
+            }
+        });
+    }
+    
+    private ComputerStudent addComputerStudent(String name) {
+        ComputerStudent student = new ComputerStudent(preferences);
+        names.put(student, name);
+        tournament.addStudent(student);
+        return student;
+    }
+    
+    private void runUntilRoundCompleted() {
+        for (int i = 0; i < 10000 && ! tasks.isEmpty(); i++) {
+            for (Runnable task : new ArrayList<Runnable>(tasks)) {
+                task.run();
+            }
+        }
+        assertThat("round active", tournament.isRoundActive(), is(false));
+    }
+    
+    @Test
+    public void roundRobin() {
+        for (String name : Arrays.asList("A", "B", "C", "D")) {
+            addComputerStudent(name);
+        }
+        
+        int roundCount = tournament.getRoundRobinRoundCount();
+        for (int round = 0; round < roundCount; round++) {
+            List<Match> matches = tournament.startRound();
+            assertThat("match count", matches.size(), is(2));
+            runUntilRoundCompleted();
+        }
+        
+        assertThat("rounds", completedRounds, is(Arrays.asList(1, 2, 3)));
+        assertThat(
+                "pairs",
+                new HashSet<String>(completedPairs),
+                is((Set<String>) new HashSet<String>(Arrays.asList(
+                        "A-B", "A-C", "A-D", "B-C", "B-D", "C-D"))));
+        int totalWins = 0;
+        for (Tournament.Standing standing : tournament.getStandings()) {
+            totalWins += standing.getWins();
+            assertThat(
+                    "played",
+                    standing.getWins() + standing.getLosses(),
+                    is(3));
+        }
+        assertThat("total wins", totalWins, is(6));
+    }
+    
+    @Test
+    public void roundRobinWithBye() {
+        for (String name : Arrays.asList("A", "B", "C")) {
+            addComputerStudent(name);
+        }
+        
+        int roundCount = tournament.getRoundRobinRoundCount();
+        for (int round = 0; round < roundCount; round++) {
+            List<Match> matches = tournament.startRound();
+            assertThat("match count", matches.size(), is(1));
+            runUntilRoundCompleted();
+        }
+        
+        assertThat(
+                "pairs",
+                new HashSet<String>(completedPairs),
+                is((Set<String>) new HashSet<String>(Arrays.asList(
+                        "A-B", "A-C", "B-C"))));
+        for (Tournament.Standing standing : tournament.getStandings()) {
+            assertThat("byes", standing.getByes(), is(1));
+        }
+    }
+    
+    @Test
+    public void swissAvoidsRepeats() {
+        tournament.setPairing(Tournament.Pairing.SWISS);
+        for (String name : Arrays.asList("A", "B", "C", "D")) {
+            addComputerStudent(name);
+        }
+        
+        for (int round = 0; round < 3; round++) {
+            tournament.startRound();
+            runUntilRoundCompleted();
+        }
+        
+        assertThat(
+                "distinct pairs",
+                new HashSet<String>(completedPairs).size(),
+                is(6));
+    }
+    
+    @Test
+    public void swissRepeatsWhenEveryoneHasPlayed() {
+        tournament.setPairing(Tournament.Pairing.SWISS);
+        for (String name : Arrays.asList("A", "B", "C", "D")) {
+            addComputerStudent(name);
+        }
+        for (int round = 0; round < 3; round++) {
+            tournament.startRound();
+            runUntilRoundCompleted();
+        }
+        completedPairs.clear();
+        
+        List<Match> matches = tournament.startRound();
+        runUntilRoundCompleted();
+        
+        Set<Student> students = new HashSet<Student>();
+        for (Match match : matches) {
+            students.addAll(match.getStudents());
+        }
+        assertThat("match count", matches.size(), is(2));
+        assertThat("students", students.size(), is(4));
+        assertThat("completed", completedPairs.size(), is(2));
+    }
+    
+    @Test
+    public void roundStillActive() {
+        addComputerStudent("A");
+        addComputerStudent("B");
+        tournament.startRound();
+        
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("Round 1 is still being played.");
+        tournament.startRound();
+    }
+    
+    @Test
+    public void cancel() {
+        addComputerStudent("A");
+        addComputerStudent("B");
+        tournament.startRound();
+        
+        tournament.cancel();
+        
+        assertThat("tasks", tasks.size(), is(0));
+        assertThat("round active", tournament.isRoundActive(), is(false));
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.github.donkirkby.vograbulary.ultraghost.UltraghostMessage.Type;
+
+public class UltraghostMessageTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+    
+    @Test
+    public void encodeAndDecode() {
+        UltraghostMessage message =
+                new UltraghostMessage(Type.PUZZLE, "PIE", "Bob", null);
+        
+        UltraghostMessage decoded =
+                UltraghostMessage.decode(message.encode());
+        
+        assertThat("type", decoded.getType(), is(Type.PUZZLE));
+        assertThat("value count", decoded.getValueCount(), is(3));
+        assertThat("letters", decoded.getValue(0), is("PIE"));
+        assertThat("owner", decoded.getValue(1), is("Bob"));
+        assertThat("previous word", decoded.getValue(2), nullValue());
+    }
+    
+    @Test
+    public void flags() {
+        UltraghostMessage message =
+                new UltraghostMessage(Type.PUZZLE_CHANGED, 5, "PIPE", "x");
+        
+        UltraghostMessage decoded =
+                UltraghostMessage.decode(message.encode());
+        
+        assertThat("flags", decoded.getFlags(), is(5));
+        assertThat("value", decoded.getValue(1), is("x"));
+    }
+    
+    @Test
+    public void missingValue() {
+        UltraghostMessage message = new UltraghostMessage(Type.JOIN);
+        
+        assertThat("value", message.getValue(0), nullValue());
+    }
+    
+    @Test
+    public void unknownType() {
+        byte[] bytes = new UltraghostMessage(Type.JOIN).encode();
+        bytes[0] = 100; // zig-zag encoding of 50
+        
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Unknown message type: 50.");
+        
+        UltraghostMessage.decode(bytes);
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WordBitmapIndexTest {
+    private WordList wordList;
+    private WordBitmapIndex index;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList(
+                "PRICE", "PIPE", "STOP", "PIECE", "POTS", "PINE", "PIERCE",
+                "PIPE", "LEVEL");
+        index = wordList.getBitmapIndex();
+    }
+    
+    @Test
+    public void size() {
+        assertThat("size", index.size(), is(8));
+    }
+    
+    @Test
+    public void allWords() {
+        assertThat(
+                "words",
+                index.query().findWords(100),
+                is(Arrays.asList(
+                        "PRICE",
+                        "PIPE",
+                        "STOP",
+                        "PIECE",
+                        "POTS",
+                        "PINE",
+                        "PIERCE",
+                        "LEVEL")));
+    }
+    
+    @Test
+    public void ultraghostLetters() {
+        assertThat(
+                "words",
+                index.query()
+                        .startsWith('P')
+                        .hasInterior('I')
+                        .endsWith('E')
+                        .findWords(100),
+                is(Arrays.asList(
+                        "PRICE",
+                        "PIPE",
+                        "PIECE",
+                        "PINE",
+                        "PIERCE")));
+    }
+    
+    @Test
+    public void interiorExcludesEnds() {
+        assertThat(
+                "words",
+                index.query().hasInterior('P').findWords(100),
+                is(Arrays.asList("PIPE")));
+    }
+    
+    @Test
+    public void lengths() {
+        assertThat(
+                "words",
+                index.query().minLength(5).maxLength(5).findWords(100),
+                is(Arrays.asList("PRICE", "PIECE", "LEVEL")));
+        assertThat("too long", index.query().minLength(7).count(), is(0));
+        assertThat("too short", index.query().maxLength(3).count(), is(0));
+    }
+    
+    @Test
+    public void usesOnly() {
+        assertThat(
+                "words",
+                index.query().usesOnly("PIEN").findWords(100),
+                is(Arrays.asList("PIPE", "PINE")));
+    }
+    
+    @Test
+    public void containsAndExcludes() {
+        assertThat(
+                "words",
+                index.query().contains('P').excludes('I').findWords(100),
+                is(Arrays.asList("STOP", "POTS")));
+    }
+    
+    @Test
+    public void reversible() {
+        assertThat(
+                "words",
+                index.query().reversible().findWords(100),
+                is(Arrays.asList("STOP", "POTS", "LEVEL")));
+    }
+    
+    @Test
+    public void limit() {
+        assertThat(
+                "words",
+                index.query().contains('C').findWords(2),
+                is(Arrays.asList("PRICE", "PIECE")));
+    }
+    
+    @Test
+    public void notALetter() {
+        assertThat("count", index.query().startsWith('?').count(), is(0));
+    }
+    
+    @Test
+    public void cache() {
+        wordList.read(Arrays.asList("PILE"));
+        WordBitmapIndex index2 = wordList.getBitmapIndex();
+        
+        assertThat("rebuilt", index2, not(sameInstance(index)));
+        assertThat("size", index2.size(), is(9));
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class WordBitmapTest {
+    private static final int UNIVERSE = 200;
+    
+    private WordBitmap createSet(int... ids) {
+        return WordBitmap.fromIds(ids, ids.length, UNIVERSE);
+    }
+    
+    private WordBitmap createRange(int start, int end) {
+        int[] ids = new int[end - start];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = start + i;
+        }
+        return createSet(ids);
+    }
+    
+    @Test
+    public void sparse() {
+        WordBitmap set = createSet(3, 40, 199);
+        
+        assertThat("size", set.size(), is(3));
+        assertThat("contains", set.contains(40), is(true));
+        assertThat("missing", set.contains(41), is(false));
+        assertThat("out of range", set.contains(200), is(false));
+        assertThat("ids", set.toIds(), is(new int[] {3, 40, 199}));
+    }
+    
+    @Test
+    public void dense() {
+        WordBitmap set = createRange(10, 100);
+        
+        assertThat("size", set.size(), is(90));
+        assertThat("contains", set.contains(63), is(true));
+        assertThat("missing", set.contains(100), is(false));
+        assertThat("first", set.nextId(0), is(10));
+        assertThat("last", set.nextId(99), is(99));
+        assertThat("end", set.nextId(100), is(-1));
+    }
+    
+    @Test
+    public void nextId() {
+        WordBitmap set = createSet(3, 40, 199);
+        
+        assertThat("start", set.nextId(0), is(3));
+        assertThat("same", set.nextId(40), is(40));
+        assertThat("between", set.nextId(41), is(199));
+        assertThat("end", set.nextId(200), is(-1));
+    }
+    
+    @Test
+    public void all() {
+        WordBitmap set = WordBitmap.all(UNIVERSE);
+        
+        assertThat("size", set.size(), is(UNIVERSE));
+        assertThat("last", set.contains(199), is(true));
+        assertThat("after last", set.nextId(200), is(-1));
+    }
+    
+    @Test
+    public void andSparse() {
+        WordBitmap set1 = createSet(3, 40, 199);
+        WordBitmap set2 = createRange(30, 200);
+        
+        assertThat("ids", set1.and(set2).toIds(), is(new int[] {40, 199}));
+        assertThat("reversed", set2.and(set1).toIds(), is(new int[] {40, 199}));
+    }
+    
+    @Test
+    public void andDense() {
+        WordBitmap set1 = createRange(0, 100);
+        WordBitmap set2 = createRange(95, 200);
+        
+        WordBitmap result = set1.and(set2);
+        
+        assertThat(
+                "ids",
+                result.toIds(),
+                is(new int[] {95, 96, 97, 98, 99}));
+    }
+    
+    @Test
+    public void andNot() {
+        WordBitmap sparse = createSet(3, 40, 199);
+        WordBitmap dense = createRange(30, 200);
+        
+        assertThat("sparse", sparse.andNot(dense).toIds(), is(new int[] {3}));
+        assertThat(
+                "dense minus sparse",
+                dense.andNot(sparse).size(),
+                is(168));
+        assertThat(
+                "dense minus dense",
+                dense.andNot(createRange(31, 200)).toIds(),
+                is(new int[] {30}));
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.donkirkby.vograbulary.ultraghost;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.donkirkby.vograbulary.Scheduler;
+
+public class WordListLoaderTest {
+    private WordList wordList;
+    private Runnable scheduledTask;
+    private Scheduler scheduler = new Scheduler() {
+        @Override
+        public void scheduleRepeating(Runnable task, int periodMilliseconds) {
+            scheduledTask = task;
+        }
+        
+        @Override
+        public void cancel(Runnable task) {
+            if (scheduledTask == task) {
+                scheduledTask = null;
+            }
+        }
+    };
+    private List<String> source = Arrays.asList(
+            "ones", "twos", "three", "fours", "fives");
+    private WordListLoader loader;
+    
+    @Before
+    public void setUp() {
+        wordList = new WordList();
+        scheduledTask = null;
+        loader = new WordListLoader(wordList, source, scheduler);
+        loader.setInitialCount(2);
+        loader.setBatchSize(2);
+    }
+    
+    private List<String> getWords() {
+        List<String> words = new ArrayList<String>();
+        for (String word : wordList) {
+            words.add(word);
+        }
+        return words;
+    }
+    
+    @Test
+    public void start() {
+        loader.start();
+        
+        assertThat("words", getWords(), is(Arrays.asList("ONES", "TWOS")));
+        assertThat("is complete", loader.isComplete(), is(false));
+        assertThat("task", scheduledTask, notNullValue());
+    }
+    
+    @Test
+    public void batches() {
+        loader.start();
+        
+        scheduledTask.run();
+        List<String> wordsAfterBatch = getWords();
+        scheduledTask.run();
+        
+        assertThat(
+                "words after batch",
+                wordsAfterBatch,
+                is(Arrays.asList("ONES", "TWOS", "THREE", "FOURS")));
+        assertThat("size", wordList.size(), is(5));
+        assertThat("is complete", loader.isComplete(), is(true));
+        assertThat("task", scheduledTask, nullValue());
+    }
+    
+    @Test
+    public void smallSource() {
+        loader.setInitialCount(10);
+        
+        loader.start();
+        
+        assertThat("size", wordList.size(), is(5));
+        assertThat("is complete", loader.isComplete(), is(true));
+        assertThat("task", scheduledTask, nullValue());
+    }
+    
+    @Test
+    public void iteratorSeesNewWords() {
+        loader.start();
+        Iterator<String> itr = wordList.iterator();
+        itr.next();
+        itr.next();
+        boolean hasNextBeforeBatch = itr.hasNext();
+        
+        scheduledTask.run();
+        
+        assertThat("has next before batch", hasNextBeforeBatch, is(false));
+        assertThat("has next after batch", itr.hasNext(), is(true));
+        assertThat("next", itr.next(), is("THREE"));
+    }
+}
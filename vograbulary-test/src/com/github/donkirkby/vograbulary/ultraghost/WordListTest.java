@@ -1,6 +1,8 @@
 package com.github.donkirkby.vograbulary.ultraghost;
 
 import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
@@ -41,4 +43,52 @@ public class WordListTest {
         
         assertThat("words", wordList, hasItem("THREE"));
     }
+    
+    @Test
+    public void idOf() {
+        assertThat("ones", wordList.idOf("ONES"), is(0));
+        assertThat("three", wordList.idOf("three"), is(1));
+        assertThat("builder", wordList.idOf(new StringBuilder("Three")), is(1));
+        assertThat("missing", wordList.idOf("TWO"), is(WordList.NOT_FOUND));
+        assertThat("word", wordList.wordOf(1), is("THREE"));
+    }
+    
+    @Test
+    public void readManyBatches() {
+        for (int batch = 0; batch < 10; batch++) {
+            ArrayList<String> words = new ArrayList<String>();
+            for (int i = 0; i < 100; i++) {
+                words.add("word" + (batch * 100 + i));
+            }
+            words.add("ones"); // duplicate keeps its first id
+            wordList.read(words);
+        }
+        
+        assertThat("size", wordList.size(), is(1012));
+        assertThat("ones", wordList.idOf("ONES"), is(0));
+        assertThat("first batch", wordList.idOf("WORD0"), is(2));
+        assertThat("last batch", wordList.idOf("word999"), is(1010));
+        assertThat("last word", wordList.wordOf(1011), is("ONES"));
+    }
+    
+    @Test
+    public void wordOfMissingId() {
+        thrown.expect(IndexOutOfBoundsException.class);
+        
+        wordList.wordOf(2);
+    }
+    
+    @Test
+    public void compareRank() {
+        int ones = wordList.idOf("ONES");
+        int three = wordList.idOf("THREE");
+        
+        assertThat("more common", WordList.compareRank(ones, three), lessThan(0));
+        assertThat("less common", WordList.compareRank(three, ones), greaterThan(0));
+        assertThat("same", WordList.compareRank(three, three), is(0));
+        assertThat(
+                "not found",
+                WordList.compareRank(WordList.NOT_FOUND, three),
+                greaterThan(0));
+    }
 }